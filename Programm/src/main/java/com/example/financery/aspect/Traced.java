@@ -0,0 +1,20 @@
+package com.example.financery.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Включает выборочную трассировку метода или всех публичных методов бина.
+ * Доля трассируемых вызовов задается app.tracing.sample-rate.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Traced {
+
+    // Имя спана; по умолчанию "Класс.метод"
+    String value() default "";
+}
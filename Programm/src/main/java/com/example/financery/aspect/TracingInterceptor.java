@@ -0,0 +1,93 @@
+package com.example.financery.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Трассировка методов с {@link Traced}: для доли вызовов sampleRate замеряет время
+ * и пишет его в таймер method.traced с тегами span и outcome, а спан — в лог на DEBUG.
+ *
+ * <p>Сделано как MethodInterceptor, а не @Around-совет: AspectJ-совет создает
+ * ProceedingJoinPoint на каждый вызов, здесь же невыбранный вызов стоит одно
+ * случайное число и сравнение, без выделения памяти.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(TracingInterceptor.class);
+
+    // Реестр берется при первом выбранном вызове: советник создается раньше него
+    private final Supplier<MeterRegistry> registry;
+    private final double sampleRate;
+    private final Map<Method, Span> spans = new ConcurrentHashMap<>();
+
+    public TracingInterceptor(Supplier<MeterRegistry> registry, double sampleRate) {
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Span span = spans.computeIfAbsent(invocation.getMethod(),
+                    method -> new Span(spanName(method, invocation.getThis())));
+            (failed ? span.error : span.success).record(nanos, TimeUnit.NANOSECONDS);
+            if (log.isDebugEnabled()) {
+                log.debug("Спан {}: {} мкс{}", span.name, nanos / 1000,
+                        failed ? ", исключение" : "");
+            }
+        }
+    }
+
+    private static String spanName(Method method, Object target) {
+        Traced traced = AnnotatedElementUtils.findMergedAnnotation(method, Traced.class);
+        if (traced != null && !traced.value().isEmpty()) {
+            return traced.value();
+        }
+        Class<?> type = target != null ? ClassUtils.getUserClass(target)
+                : method.getDeclaringClass();
+        return type.getSimpleName() + "." + method.getName();
+    }
+
+    private final class Span {
+        private final String name;
+        private final Timer success;
+        private final Timer error;
+
+        private Span(String name) {
+            this.name = name;
+            this.success = timer(name, "SUCCESS");
+            this.error = timer(name, "ERROR");
+        }
+
+        private Timer timer(String name, String outcome) {
+            return Timer.builder("method.traced")
+                    .description("Время выборочно трассируемых вызовов")
+                    .tag("span", name)
+                    .tag("outcome", outcome)
+                    .register(registry.get());
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.financery.config;
 
 import java.util.concurrent.Executor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+// Режим выбирается свойством spring.threads.virtual.enabled (нужна Java 21):
+// оно же переключает Tomcat и планировщик на виртуальные потоки
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+
     @Bean(name = "executor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor executor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);
@@ -19,4 +26,15 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // Поток на задачу; число одновременных задач ограничивают слоты JobService,
+    // а обращения к базе - пул соединений и DbBulkhead
+    @Bean(name = "executor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("LogExecutor-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
 }
@@ -10,6 +10,8 @@ public class CorsConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:8081") // Обновлено с 3000 на 8081
-                .allowedMethods("GET", "POST", "PUT", "DELETE");
+                .allowedMethods("GET", "POST", "PUT", "DELETE")
+                .exposedHeaders(SqlStatisticsConfig.STATEMENTS_HEADER,
+                        SqlStatisticsConfig.ROWS_HEADER, SqlStatisticsConfig.TIME_HEADER);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.financery.config;
+
+import com.example.financery.utils.DbBulkhead;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Запросы к эндпоинтам, работающим с базой, проходят через DbBulkhead;
+// выгрузка логов из файлов базу не использует и не ограничивается.
+// Скачивание готового файла по id тоже не ограничивается: тело пишется в ответ
+// до afterCompletion, и разрешение держалось бы все время передачи файла.
+// Только на виртуальных потоках, как и сам DbBulkhead
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DbBulkheadConfig implements WebMvcConfigurer {
+
+    private static final String ACQUIRED = DbBulkheadConfig.class.getName() + ".ACQUIRED";
+
+    private final DbBulkhead bulkhead;
+
+    public DbBulkheadConfig(DbBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                                     Object handler) {
+                bulkhead.acquire();
+                request.setAttribute(ACQUIRED, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                if (request.getAttribute(ACQUIRED) != null) {
+                    request.removeAttribute(ACQUIRED);
+                    bulkhead.release();
+                }
+            }
+        }).addPathPatterns("/users/**", "/bills/**", "/tags/**", "/transactions/**",
+                "/summaries/**", "/archive/**", "/jobs/**", "/diagnostics/**",
+                "/logs/create", "/logs/status/**");
+    }
+}
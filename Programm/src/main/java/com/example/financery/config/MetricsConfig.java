@@ -0,0 +1,254 @@
+package com.example.financery.config;
+
+import com.example.financery.utils.DbBulkhead;
+import com.example.financery.utils.SqlStatisticsDataSource;
+import com.example.financery.utils.ThreadResourceUsage;
+import com.example.financery.utils.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheableDataStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Метрики поверх стандартных http.server.requests (задержки, число запросов и ошибок
+ * по эндпоинтам, настройки гистограмм в application.yaml): число запросов в работе
+ * по каждому эндпоинту, включая ждущие в DbBulkhead, память и процессорное время
+ * потока на запрос по эндпоинтам, состояние самого bulkhead и число медленных
+ * запросов к базе.
+ * Все доступно для сбора на /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private static final String IN_FLIGHT = MetricsConfig.class.getName() + ".IN_FLIGHT";
+
+    private final MeterRegistry registry;
+    // Ключ — метод и шаблон пути, поэтому число счетчиков ограничено числом эндпоинтов
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ResourceMeters> resources = new ConcurrentHashMap<>();
+
+    public MetricsConfig(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                                     Object handler) {
+                AtomicInteger counter = inFlightCounter(request);
+                counter.incrementAndGet();
+                request.setAttribute(IN_FLIGHT, counter);
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                if (request.getAttribute(IN_FLIGHT) instanceof AtomicInteger counter) {
+                    request.removeAttribute(IN_FLIGHT);
+                    counter.decrementAndGet();
+                }
+            }
+        }).order(Ordered.HIGHEST_PRECEDENCE).excludePathPatterns("/actuator/**");
+    }
+
+    private AtomicInteger inFlightCounter(HttpServletRequest request) {
+        String uri = uri(request);
+        String method = request.getMethod();
+        return inFlight.computeIfAbsent(method + " " + uri, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("http.server.requests.in.flight", counter, AtomicInteger::get)
+                    .description("Запросы к эндпоинту, обрабатываемые в данный момент")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry);
+            return counter;
+        });
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    // Память и время процессора потока за запрос, включая запись ответа; шаблон пути
+    // известен только после выбора обработчика, поэтому теги ставятся в конце.
+    // Части асинхронных ответов, выполненные в других потоках, не учитываются
+    @Bean
+    public OncePerRequestFilter requestResourceFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return request.getRequestURI().startsWith("/actuator");
+            }
+
+            @Override
+            protected void doFilterInternal(HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            FilterChain chain)
+                    throws ServletException, IOException {
+                ThreadResourceUsage usage = ThreadResourceUsage.start();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    recordResources(request, usage);
+                }
+            }
+        };
+    }
+
+    private void recordResources(HttpServletRequest request, ThreadResourceUsage usage) {
+        long allocated = usage.allocatedBytes();
+        long cpu = usage.cpuNanos();
+        String uri = uri(request);
+        String method = request.getMethod();
+        ResourceMeters meters = resources.computeIfAbsent(method + " " + uri,
+                key -> new ResourceMeters(
+                        DistributionSummary.builder("http.server.allocation")
+                                .description("Память, выделенная потоком запроса")
+                                .baseUnit("bytes")
+                                .tag("method", method)
+                                .tag("uri", uri)
+                                .register(registry),
+                        Timer.builder("http.server.cpu")
+                                .description("Процессорное время потока запроса")
+                                .tag("method", method)
+                                .tag("uri", uri)
+                                .register(registry)));
+        if (allocated >= 0) {
+            meters.allocation().record(allocated);
+        }
+        if (cpu >= 0) {
+            meters.cpu().record(cpu, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record ResourceMeters(DistributionSummary allocation, Timer cpu) {
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public MeterBinder dbBulkheadMetrics(DbBulkhead bulkhead) {
+        return meters -> {
+            Gauge.builder("db.bulkhead.in.flight", bulkhead, DbBulkhead::getInFlight)
+                    .description("Запросы, занявшие место в DbBulkhead")
+                    .register(meters);
+            Gauge.builder("db.bulkhead.waiting", bulkhead, DbBulkhead::getWaiting)
+                    .description("Запросы, ждущие места в DbBulkhead")
+                    .register(meters);
+            Gauge.builder("db.bulkhead.max", bulkhead, DbBulkhead::getMaxConcurrent)
+                    .register(meters);
+            FunctionCounter.builder("db.bulkhead.rejected", bulkhead,
+                            DbBulkhead::getRejectedCount)
+                    .description("Запросы, получившие 429 из-за занятых соединений")
+                    .register(meters);
+        };
+    }
+
+    @Bean
+    public MeterBinder virtualThreadPinningMetrics(
+            ObjectProvider<VirtualThreadPinningMonitor> monitor) {
+        return meters -> monitor.ifAvailable(pinning -> FunctionCounter
+                .builder("jvm.threads.virtual.pinned", pinning,
+                        VirtualThreadPinningMonitor::getPinnedCount)
+                .description("Закрепления виртуальных потоков дольше порога")
+                .register(meters));
+    }
+
+    @Bean
+    public MeterBinder slowSqlMetrics(DataSource dataSource) {
+        return meters -> {
+            if (dataSource instanceof SqlStatisticsDataSource statistics) {
+                FunctionCounter.builder("db.statements.slow", statistics,
+                                SqlStatisticsDataSource::getSlowCount)
+                        .description("Запросы к базе дольше app.sql.slow-threshold")
+                        .register(meters);
+            }
+        };
+    }
+
+    // Загрузки по сущностям и коллекциям: рост fetches после релиза — признак N + 1
+    @Bean
+    public MeterBinder hibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        return meters -> {
+            Statistics statistics =
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            if (!statistics.isStatisticsEnabled()) {
+                return;
+            }
+            FunctionCounter.builder("hibernate.sessions.open", statistics,
+                    Statistics::getSessionOpenCount).register(meters);
+            FunctionCounter.builder("hibernate.flushes", statistics,
+                    Statistics::getFlushCount).register(meters);
+            FunctionCounter.builder("hibernate.statements.prepared", statistics,
+                    Statistics::getPrepareStatementCount).register(meters);
+            FunctionCounter.builder("hibernate.queries.executions", statistics,
+                    Statistics::getQueryExecutionCount).register(meters);
+            TimeGauge.builder("hibernate.queries.execution.max", statistics,
+                    TimeUnit.MILLISECONDS, Statistics::getQueryExecutionMaxTime)
+                    .register(meters);
+            FunctionCounter.builder("hibernate.query.plan.cache", statistics,
+                    Statistics::getQueryPlanCacheHitCount).tag("result", "hit").register(meters);
+            FunctionCounter.builder("hibernate.query.plan.cache", statistics,
+                    Statistics::getQueryPlanCacheMissCount).tag("result", "miss")
+                    .register(meters);
+            for (String entity : statistics.getEntityNames()) {
+                FunctionCounter.builder("hibernate.entity.loads", statistics,
+                                s -> s.getEntityStatistics(entity).getLoadCount())
+                        .tag("entity", entity).register(meters);
+                FunctionCounter.builder("hibernate.entity.fetches", statistics,
+                                s -> s.getEntityStatistics(entity).getFetchCount())
+                        .tag("entity", entity).register(meters);
+                if (statistics.getEntityStatistics(entity).getCacheHitCount()
+                        != CacheableDataStatistics.NOT_CACHED_COUNT) {
+                    FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                                    s -> s.getEntityStatistics(entity).getCacheHitCount())
+                            .tags("entity", entity, "result", "hit").register(meters);
+                    FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                                    s -> s.getEntityStatistics(entity).getCacheMissCount())
+                            .tags("entity", entity, "result", "miss").register(meters);
+                }
+            }
+            for (String role : statistics.getCollectionRoleNames()) {
+                FunctionCounter.builder("hibernate.collection.loads", statistics,
+                                s -> s.getCollectionStatistics(role).getLoadCount())
+                        .tag("role", role).register(meters);
+                FunctionCounter.builder("hibernate.collection.fetches", statistics,
+                                s -> s.getCollectionStatistics(role).getFetchCount())
+                        .tag("role", role).register(meters);
+            }
+        };
+    }
+}
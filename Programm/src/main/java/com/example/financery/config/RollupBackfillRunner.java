@@ -0,0 +1,24 @@
+package com.example.financery.config;
+
+import com.example.financery.service.MonthlyRollupService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Первичное заполнение помесячных итогов по уже существующим транзакциям
+@Component
+@ConditionalOnProperty(name = "app.rollup.rebuild-on-startup", havingValue = "true")
+public class RollupBackfillRunner implements ApplicationRunner {
+
+    private final MonthlyRollupService rollupService;
+
+    public RollupBackfillRunner(MonthlyRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rollupService.rebuild();
+    }
+}
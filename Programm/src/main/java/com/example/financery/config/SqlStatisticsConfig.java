@@ -0,0 +1,131 @@
+package com.example.financery.config;
+
+import com.example.financery.utils.SqlStatistics;
+import com.example.financery.utils.SqlStatisticsDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Подсчет запросов к базе: все DataSource оборачиваются в SqlStatisticsDataSource,
+ * а вне профиля prod каждый HTTP-запрос открывает замер SqlStatistics и отдает
+ * его итог в заголовках ответа X-Sql-Statements, X-Sql-Rows и X-Sql-Time-Ms.
+ */
+@Configuration
+public class SqlStatisticsConfig {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(
+            @Value("${app.sql.slow-threshold:PT0.2S}") Duration slowThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource, slowThreshold);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @Profile("!prod")
+    public OncePerRequestFilter sqlStatisticsFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return request.getRequestURI().startsWith("/actuator");
+            }
+
+            @Override
+            protected void doFilterInternal(HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            FilterChain chain)
+                    throws ServletException, IOException {
+                try (SqlStatistics statistics = SqlStatistics.begin()) {
+                    StatisticsResponse wrapped = new StatisticsResponse(response, statistics);
+                    chain.doFilter(request, wrapped);
+                    wrapped.addStatisticsHeaders();
+                }
+            }
+        };
+    }
+
+    // Заголовки нельзя добавить после начала записи тела, поэтому итог фиксируется
+    // в момент, когда контроллер или обработчик ошибок начинает писать ответ
+    private static final class StatisticsResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatistics statistics;
+        private boolean headersAdded;
+
+        private StatisticsResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        private void addStatisticsHeaders() {
+            if (headersAdded || isCommitted()) {
+                return;
+            }
+            headersAdded = true;
+            setHeader(STATEMENTS_HEADER, Long.toString(statistics.getStatements()));
+            setHeader(ROWS_HEADER, Long.toString(statistics.getRows()));
+            setHeader(TIME_HEADER, Long.toString(statistics.getMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addStatisticsHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addStatisticsHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addStatisticsHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addStatisticsHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addStatisticsHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addStatisticsHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
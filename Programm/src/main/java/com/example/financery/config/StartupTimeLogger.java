@@ -0,0 +1,23 @@
+package com.example.financery.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+// Время старта пишется в лог приложения, чтобы сравнивать его между сборками
+@Component
+public class StartupTimeLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeLogger.class);
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        log.info("Приложение готово за {} мс (JVM uptime {} мс)",
+                event.getTimeTaken().toMillis(),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.financery.config;
+
+import com.example.financery.aspect.Traced;
+import com.example.financery.aspect.TracingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+// Прокси получают только бины и методы с @Traced
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${app.tracing.sample-rate:0.01}") double sampleRate) {
+        return advisor(new TracingInterceptor(registry::getObject, sampleRate));
+    }
+
+    public static Advisor advisor(TracingInterceptor interceptor) {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                new AnnotationMatchingPointcut(Traced.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(Traced.class));
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+}
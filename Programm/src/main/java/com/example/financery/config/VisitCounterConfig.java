@@ -0,0 +1,61 @@
+package com.example.financery.config;
+
+import com.example.financery.service.VisitCounterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+// Каждый запрос к API учитывается по методу и шаблону пути и по userId из пути, если он есть.
+// userId учитывается только для успешных ответов, чтобы запросы к несуществующим
+// пользователям не заводили для них отдельные счетчики
+@Configuration
+public class VisitCounterConfig implements WebMvcConfigurer {
+
+    private static final String USER_ID = "userId";
+
+    private final VisitCounterService visitCounterService;
+
+    public VisitCounterConfig(VisitCounterService visitCounterService) {
+        this.visitCounterService = visitCounterService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                Object pattern = request.getAttribute(
+                        HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    boolean success = ex == null && response.getStatus() < 400;
+                    visitCounterService.record(request.getMethod() + " " + pattern,
+                            success ? userId(request) : null);
+                }
+            }
+        }).excludePathPatterns("/visits/**", "/actuator/**", "/v3/api-docs/**",
+                "/swagger-ui/**", "/error");
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)
+                instanceof Map<?, ?> variables)) {
+            return null;
+        }
+        Object value = variables.get(USER_ID);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
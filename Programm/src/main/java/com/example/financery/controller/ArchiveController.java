@@ -0,0 +1,71 @@
+package com.example.financery.controller;
+
+import com.example.financery.service.JobService;
+import com.example.financery.service.TransactionArchiveService;
+import com.example.financery.service.impl.ArchiveJobHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/archive")
+@AllArgsConstructor
+@Tag(name = "Архив", description = "Перенос старых транзакций в архивные сегменты")
+public class ArchiveController {
+
+    private final TransactionArchiveService archiveService;
+    private final JobService jobService;
+
+    @Operation(
+            summary = "Архивация старых транзакций",
+            description = "Переносит в архив транзакции за месяцы до указанной даты. "
+                    + "Без даты используется срок хранения из настроек; "
+                    + "дата позже этого срока отклоняется."
+    )
+    @PostMapping("/run")
+    public ResponseEntity<Integer> archive(
+            @Parameter(description = "Граница архивации в формате dd.MM.yyyy",
+                    example = "01.01.2023")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy")
+            LocalDate before) {
+        int archived = before != null
+                ? archiveService.archiveBefore(before)
+                : archiveService.archiveExpired();
+        return ResponseEntity.ok(archived);
+    }
+
+    @Operation(
+            summary = "Фоновая архивация старых транзакций",
+            description = "Ставит архивацию в очередь задач и возвращает ID задачи. "
+                    + "Статус доступен через /jobs/{id}."
+    )
+    @PostMapping("/run-async")
+    public ResponseEntity<Long> archiveAsync(
+            @Parameter(description = "Граница архивации в формате dd.MM.yyyy",
+                    example = "01.01.2023")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy")
+            LocalDate before,
+            @Parameter(description = "Приоритет задачи, большие выполняются раньше")
+            @RequestParam(defaultValue = "0") int priority,
+            HttpServletRequest request) {
+        // Проверяем сразу, чтобы не ставить в очередь заведомо неверную задачу
+        if (before != null) {
+            archiveService.validateCutoff(before);
+        }
+        String payload = before != null ? before.toString() : null;
+        Long id = jobService.submit(ArchiveJobHandler.TYPE,
+                payload != null ? payload : ArchiveJobHandler.EXPIRED_KEY, payload, priority,
+                request.getRemoteAddr());
+        return ResponseEntity.ok(id);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.financery.controller;
+
+import com.example.financery.dto.HibernateStatisticsDtoResponse;
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.service.DiagnosticsService;
+import com.example.financery.service.HibernateStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/diagnostics")
+@Tag(name = "Диагностика",
+        description = "Запись JFR, гистограмма кучи, дамп потоков и статистика Hibernate")
+public class DiagnosticsController {
+
+    private final DiagnosticsService diagnosticsService;
+    private final HibernateStatisticsService hibernateStatisticsService;
+
+    public DiagnosticsController(DiagnosticsService diagnosticsService,
+                                 HibernateStatisticsService hibernateStatisticsService) {
+        this.diagnosticsService = diagnosticsService;
+        this.hibernateStatisticsService = hibernateStatisticsService;
+    }
+
+    @Operation(summary = "Начать запись JFR",
+            description = "Запускает запись Java Flight Recorder заданной длительности"
+                    + " и возвращает id задачи; файл .jfr скачивается после завершения")
+    @PostMapping("/jfr")
+    public ResponseEntity<Long> startRecording(
+            @Parameter(description = "Длительность в формате ISO-8601", example = "PT30S")
+            @RequestParam(defaultValue = "PT30S") Duration duration,
+            @Parameter(description = "Настройки JFR: default или profile", example = "profile")
+            @RequestParam(defaultValue = "profile") String profile,
+            HttpServletRequest request) {
+        return ResponseEntity.ok(
+                diagnosticsService.startRecording(duration, profile, request.getRemoteAddr()));
+    }
+
+    @Operation(summary = "Снять гистограмму кучи",
+            description = "Число объектов и байт по классам; выполняет полную сборку мусора")
+    @PostMapping("/heap-histogram")
+    public ResponseEntity<Long> captureHeapHistogram(HttpServletRequest request) {
+        return ResponseEntity.ok(diagnosticsService.captureHeapHistogram(request.getRemoteAddr()));
+    }
+
+    @Operation(summary = "Снять дамп потоков",
+            description = "Стеки всех потоков с удерживаемыми блокировками")
+    @PostMapping("/thread-dump")
+    public ResponseEntity<Long> captureThreadDump(HttpServletRequest request) {
+        return ResponseEntity.ok(diagnosticsService.captureThreadDump(request.getRemoteAddr()));
+    }
+
+    @Operation(summary = "Статус диагностической задачи",
+            description = "Возвращает статус и прогресс задачи по id")
+    @GetMapping("/status/{id}")
+    public ResponseEntity<Map<String, String>> getStatus(@PathVariable Long id) {
+        if (id < 1) {
+            throw new InvalidInputException("Id must be greater than 0");
+        }
+        JobDtoResponse job = diagnosticsService.getStatus(id);
+        Map<String, String> response = new HashMap<>();
+        response.put("type", job.getType());
+        response.put("status", job.getStatus());
+        response.put("progress", String.valueOf(job.getProgress()));
+        if (job.getErrorMessage() != null) {
+            response.put("error", job.getErrorMessage());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Скачать результат диагностики",
+            description = "Отдает файл .jfr или текстовый снимок по id задачи")
+    @GetMapping("/download/{id}")
+    public ResponseEntity<Resource> download(@PathVariable Long id) {
+        if (id < 1) {
+            throw new InvalidInputException("Id must be greater than 0");
+        }
+        return diagnosticsService.download(id);
+    }
+
+    @Operation(summary = "Статистика Hibernate",
+            description = "Загрузки сущностей и коллекций, запросы с наибольшим временем,"
+                    + " сбросы сессии и попадания в кэш второго уровня по сущностям"
+                    + " с запуска или последнего сброса")
+    @GetMapping("/hibernate")
+    public ResponseEntity<HibernateStatisticsDtoResponse> getHibernateStatistics() {
+        return ResponseEntity.ok(hibernateStatisticsService.getStatistics());
+    }
+
+    @Operation(summary = "Сбросить статистику Hibernate",
+            description = "Обнуляет счетчики, например перед замером одного сценария")
+    @PostMapping("/hibernate/reset")
+    public ResponseEntity<String> resetHibernateStatistics() {
+        hibernateStatisticsService.reset();
+        return ResponseEntity.ok("Hibernate statistics reset");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.financery.controller;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.JobStatsDtoResponse;
+import com.example.financery.service.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/jobs")
+@AllArgsConstructor
+@Tag(name = "Задачи", description = "Статус, отмена и результат фоновых задач")
+public class JobController {
+
+    private final JobService jobService;
+
+    @Operation(summary = "Статистика очереди задач",
+            description = "Загрузка пула потоков, глубина очередей по типам и число отказов")
+    @GetMapping("/stats")
+    public ResponseEntity<JobStatsDtoResponse> getStats() {
+        return ResponseEntity.ok(jobService.getStats());
+    }
+
+    @Operation(summary = "Статус задачи",
+            description = "Возвращает статус, прогресс в процентах и итог задачи")
+    @GetMapping("/{id}")
+    public ResponseEntity<JobDtoResponse> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.getJob(id));
+    }
+
+    @Operation(summary = "Отменить задачу",
+            description = "Задача из очереди отменяется сразу, выполняющаяся - "
+                    + "при ближайшей проверке отмены")
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<JobDtoResponse> cancel(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.cancel(id));
+    }
+
+    @Operation(summary = "Скачать результат задачи",
+            description = "Отдает файл, созданный завершенной задачей")
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> getResult(@PathVariable Long id) {
+        Path path = jobService.getResultFile(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + path.getFileName() + "\"")
+                .body(new FileSystemResource(path));
+    }
+}
@@ -1,19 +1,22 @@
 package com.example.financery.controller;
 
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.LogAppenderStatsDtoResponse;
+import com.example.financery.dto.LogQueryDtoRequest;
 import com.example.financery.exception.InvalidInputException;
-import com.example.financery.model.LogObject;
 import com.example.financery.service.LogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -30,26 +33,48 @@ public class LogController {
 
     @Operation(
             summary = "Скачать лог-файл",
-            description = "Возвращает .log файл с записями логов за указанную дату."
+            description = "Возвращает .log файл с записями логов за указанную дату. "
+                    + "Поддерживает докачку через заголовок Range и сжатие gzip."
     )
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadLogFile(
+    public void downloadLogFile(
             @Parameter(description = "Дата логов в формате dd-mm-yyyy",
                     required = true, example = "28-04-2025")
-            @RequestParam String date) {
-        Resource resource = logService.downloadLogs(date);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+            @RequestParam String date,
+            @Parameter(description = "Отдать файл, сжатый gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        logService.writeLogs(date, gzip, request, response);
+    }
+
+    @Operation(
+            summary = "Поиск записей лога",
+            description = "Возвращает записи за день в формате NDJSON с фильтрами по окну"
+                    + " времени [from, to), уровню, логгеру и потоку. Стек исключения"
+                    + " входит в сообщение записи."
+    )
+    @GetMapping(value = "/query", produces = "application/x-ndjson")
+    public void queryLogs(@Valid LogQueryDtoRequest query, HttpServletResponse response) {
+        logService.queryLogs(query, response);
+    }
+
+    @Operation(
+            summary = "Состояние асинхронной записи логов",
+            description = "Возвращает размер и заполненность кольцевого буфера"
+                    + " и число событий, отброшенных при переполнении."
+    )
+    @GetMapping("/appender-stats")
+    public List<LogAppenderStatsDtoResponse> getAppenderStats() {
+        return logService.getAppenderStats();
     }
 
     @PostMapping("/create")
     @Operation(summary = "Create log file asynchronously", description = "Starts log"
             + " file generation and returns an ID")
-    public ResponseEntity<Long> createLogFile(@RequestParam String date) {
-        Long id = logService.createLogAsync(date);
+    public ResponseEntity<Long> createLogFile(@RequestParam String date,
+                                              HttpServletRequest request) {
+        Long id = logService.createLogAsync(date, request.getRemoteAddr());
         return ResponseEntity.ok(id);
     }
 
@@ -60,11 +85,12 @@ public class LogController {
         if (id < 1) {
             throw new InvalidInputException("Id must be greater than 0");
         }
-        LogObject logObject = logService.getStatus(id);
+        JobDtoResponse job = logService.getStatus(id);
         Map<String, String> response = new HashMap<>();
-        response.put("status", logObject.getStatus());
-        if (logObject.getErrorMessage() != null) {
-            response.put("error", logObject.getErrorMessage());
+        response.put("status", job.getStatus());
+        response.put("progress", String.valueOf(job.getProgress()));
+        if (job.getErrorMessage() != null) {
+            response.put("error", job.getErrorMessage());
         }
         return ResponseEntity.ok(response);
     }
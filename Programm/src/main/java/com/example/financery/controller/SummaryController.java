@@ -0,0 +1,79 @@
+package com.example.financery.controller;
+
+import com.example.financery.dto.MonthlySummaryDtoResponse;
+import com.example.financery.service.MonthlyRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/summaries")
+@AllArgsConstructor
+@Tag(name = "Сводки", description = "Помесячные итоги доходов и расходов")
+public class SummaryController {
+
+    private static final String MONTH_FORMAT = "MM.yyyy";
+
+    private final MonthlyRollupService rollupService;
+
+    @Operation(
+            summary = "Помесячная сводка пользователя",
+            description = "Возвращает доходы и расходы пользователя по месяцам за указанный период."
+    )
+    @GetMapping("/get-user-summary/{userId}")
+    public List<MonthlySummaryDtoResponse> getUserSummary(
+            @Parameter(description = "ID пользователя", required = true, example = "1")
+            @PathVariable long userId,
+            @Parameter(description = "Начало периода в формате MM.yyyy", example = "01.2025")
+            @RequestParam(required = false) @DateTimeFormat(pattern = MONTH_FORMAT) YearMonth from,
+            @Parameter(description = "Конец периода в формате MM.yyyy", example = "12.2025")
+            @RequestParam(required = false) @DateTimeFormat(pattern = MONTH_FORMAT) YearMonth to) {
+        return rollupService.getUserSummary(userId, from, to);
+    }
+
+    @Operation(
+            summary = "Помесячная сводка по счету",
+            description = "Возвращает доходы и расходы по счету по месяцам за указанный период."
+    )
+    @GetMapping("/get-bill-summary/{billId}")
+    public List<MonthlySummaryDtoResponse> getBillSummary(
+            @Parameter(description = "ID счета", required = true, example = "1")
+            @PathVariable long billId,
+            @Parameter(description = "Начало периода в формате MM.yyyy", example = "01.2025")
+            @RequestParam(required = false) @DateTimeFormat(pattern = MONTH_FORMAT) YearMonth from,
+            @Parameter(description = "Конец периода в формате MM.yyyy", example = "12.2025")
+            @RequestParam(required = false) @DateTimeFormat(pattern = MONTH_FORMAT) YearMonth to) {
+        return rollupService.getBillSummary(billId, from, to);
+    }
+
+    @Operation(
+            summary = "Помесячная сводка по тегу",
+            description = "Возвращает доходы и расходы по тегу по месяцам за указанный период."
+    )
+    @GetMapping("/get-tag-summary/{tagId}")
+    public List<MonthlySummaryDtoResponse> getTagSummary(
+            @Parameter(description = "ID тега", required = true, example = "1")
+            @PathVariable long tagId,
+            @Parameter(description = "Начало периода в формате MM.yyyy", example = "01.2025")
+            @RequestParam(required = false) @DateTimeFormat(pattern = MONTH_FORMAT) YearMonth from,
+            @Parameter(description = "Конец периода в формате MM.yyyy", example = "12.2025")
+            @RequestParam(required = false) @DateTimeFormat(pattern = MONTH_FORMAT) YearMonth to) {
+        return rollupService.getTagSummary(tagId, from, to);
+    }
+
+    @Operation(
+            summary = "Пересборка помесячных итогов",
+            description = "Пересчитывает все помесячные итоги по существующим транзакциям."
+    )
+    @PostMapping("/rebuild")
+    public ResponseEntity<Integer> rebuild() {
+        return ResponseEntity.ok(rollupService.rebuild());
+    }
+}
@@ -2,6 +2,8 @@ package com.example.financery.controller;
 
 import com.example.financery.dto.TransactionDtoRequest;
 import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.dto.TransactionFilterDtoRequest;
+import com.example.financery.dto.TransactionPageDtoResponse;
 import com.example.financery.service.TransactionService;
 import com.example.financery.utils.InMemoryCache;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,9 +11,11 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -58,6 +62,39 @@ public class TransactionController {
         return transactionService.getTransactionsByUserId(userId);
     }
 
+    @Operation(
+            summary = "Получение транзакций пользователя за период",
+            description = "Возвращает транзакции пользователя с датой в указанном периоде."
+    )
+    @GetMapping("/get-user-transactions-by-period/{userId}")
+    public List<TransactionDtoResponse> getUserTransactionsByPeriod(
+            @Parameter(description = "ID пользователя, чьи транзакции необходимо получить",
+                    required = true, example = "1")
+            @PathVariable long userId,
+            @Parameter(description = "Начало периода в формате dd.MM.yyyy",
+                    required = true, example = "01.01.2025")
+            @RequestParam @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate from,
+            @Parameter(description = "Конец периода в формате dd.MM.yyyy",
+                    required = true, example = "31.12.2025")
+            @RequestParam @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate to) {
+        return transactionService.getTransactionsByUserIdAndPeriod(userId, from, to);
+    }
+
+    @Operation(
+            summary = "Фильтрация транзакций пользователя",
+            description = "Возвращает страницу транзакций пользователя, отобранных по периоду,"
+                    + " типу, сумме, счету и тегам. Следующая страница запрашивается"
+                    + " по курсору afterDate/afterId из предыдущего ответа."
+    )
+    @GetMapping("/filter-user-transactions/{userId}")
+    public TransactionPageDtoResponse filterUserTransactions(
+            @Parameter(description = "ID пользователя, чьи транзакции необходимо получить",
+                    required = true, example = "1")
+            @PathVariable long userId,
+            @Valid TransactionFilterDtoRequest filter) {
+        return transactionService.filterTransactions(userId, filter);
+    }
+
     @Operation(
             summary = "Получение всех транзакций по счету",
             description = "Возвращает список всех транзакций,"
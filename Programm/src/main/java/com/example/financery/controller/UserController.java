@@ -7,7 +7,6 @@ import com.example.financery.model.User;
 import com.example.financery.service.UserService;
 import java.util.List;
 
-import com.example.financery.service.VisitCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -23,7 +22,6 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
-    private final VisitCounterService visitCounterService;
 
     @Operation(
             summary = "Вывод всех пользователей",
@@ -31,7 +29,6 @@ public class UserController {
     )
     @GetMapping("/get-all-users")
     public List<UserDtoResponse> getAllUsers() {
-        visitCounterService.increment();
         return userService.getAllUsers();
     }
 
@@ -1,25 +1,61 @@
 package com.example.financery.controller;
 
-
+import com.example.financery.dto.VisitStatsDtoResponse;
 import com.example.financery.service.VisitCounterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/visits")
+@AllArgsConstructor
+@Tag(name = "Посещения", description = "Счетчики запросов по эндпоинтам и пользователям")
 public class VisitCounterController {
 
+    // Без параметра /count, как и раньше, отдает число запросов к списку пользователей
+    private static final String DEFAULT_ENDPOINT = "GET /users/get-all-users";
+
     private final VisitCounterService visitCounterService;
 
-    public VisitCounterController(VisitCounterService visitCounterService) {
-        this.visitCounterService = visitCounterService;
+    @Operation(summary = "Число посещений",
+            description = "Всего запросов к эндпоинту, например "
+                    + "\"GET /bills/get-all-user-bills/{userId}\"; "
+                    + "по умолчанию \"" + DEFAULT_ENDPOINT + "\"")
+    @GetMapping("/count")
+    public ResponseEntity<Long> getCount(
+            @RequestParam(defaultValue = DEFAULT_ENDPOINT) String endpoint) {
+        return ResponseEntity.ok(visitCounterService.getCount(endpoint));
     }
 
-    @GetMapping("/count")
-    public ResponseEntity<Long> getCount() {
-        Long count = visitCounterService.getCounter();
-        return ResponseEntity.ok(count);
+    @Operation(summary = "Число посещений всех эндпоинтов",
+            description = "Сумма запросов ко всем учитываемым эндпоинтам")
+    @GetMapping("/count/total")
+    public ResponseEntity<Long> getTotalCount() {
+        return ResponseEntity.ok(visitCounterService.getCount(null));
+    }
+
+    @Operation(summary = "Посещения по эндпоинтам",
+            description = "Всего и за последние 1, 5 и 60 минут по каждому эндпоинту")
+    @GetMapping("/endpoints")
+    public ResponseEntity<List<VisitStatsDtoResponse>> getEndpointStats() {
+        return ResponseEntity.ok(visitCounterService.getEndpointStats());
+    }
+
+    @Operation(summary = "Самые активные пары эндпоинт-пользователь",
+            description = "Первые limit пар по числу запросов за окно 1m, 5m, 1h или total; "
+                    + "endpoint ограничивает выборку пользователями одного эндпоинта")
+    @GetMapping("/top")
+    public ResponseEntity<List<VisitStatsDtoResponse>> getTop(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String endpoint) {
+        return ResponseEntity.ok(visitCounterService.getTop(window, limit, endpoint));
     }
 }
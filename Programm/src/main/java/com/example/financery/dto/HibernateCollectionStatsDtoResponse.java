@@ -0,0 +1,16 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateCollectionStatsDtoResponse {
+
+    // Сущность и поле, например com.example.financery.model.Bill.transactions
+    private String role;
+    private long loads;
+    private long fetches;
+}
@@ -0,0 +1,23 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateEntityStatsDtoResponse {
+
+    private String entity;
+    private long loads;
+    private long fetches;
+    private long inserts;
+    private long updates;
+    private long deletes;
+    // Кэш второго уровня; для сущностей без @Cache нули и null
+    private long cacheHits;
+    private long cacheMisses;
+    private long cachePuts;
+    private Double cacheHitRatio;
+}
@@ -0,0 +1,17 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateQueryStatsDtoResponse {
+
+    private String query;
+    private long executions;
+    private long rows;
+    private long averageMillis;
+    private long maxMillis;
+}
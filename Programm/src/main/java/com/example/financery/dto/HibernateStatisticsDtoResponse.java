@@ -0,0 +1,43 @@
+package com.example.financery.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class HibernateStatisticsDtoResponse {
+
+    // false, если hibernate.generate_statistics выключен; счетчики тогда нулевые
+    private boolean enabled;
+    // Запуск или последний сброс статистики
+    private Instant since;
+    private long sessionsOpened;
+    private long transactions;
+    private long flushes;
+    // Выражения JDBC, подготовленные Hibernate
+    private long preparedStatements;
+    // loads — прочитано из базы, fetches — отдельным запросом при обращении
+    // к ленивой ссылке; рост fetches обычно означает N + 1
+    private long entityLoads;
+    private long entityFetches;
+    private long entityInserts;
+    private long entityUpdates;
+    private long entityDeletes;
+    // В том числе через Hibernate.initialize
+    private long collectionLoads;
+    private long collectionFetches;
+    private long queryExecutions;
+    private long queryExecutionMaxMillis;
+    private String slowestQuery;
+    // null, пока не было обращений
+    private Double queryPlanCacheHitRatio;
+    private long secondLevelCacheHits;
+    private long secondLevelCacheMisses;
+    private long secondLevelCachePuts;
+    private Double secondLevelCacheHitRatio;
+    private List<HibernateEntityStatsDtoResponse> entities;
+    private List<HibernateCollectionStatsDtoResponse> collections;
+    // Самые медленные запросы по наибольшему времени выполнения
+    private List<HibernateQueryStatsDtoResponse> queries;
+}
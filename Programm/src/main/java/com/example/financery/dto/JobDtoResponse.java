@@ -0,0 +1,22 @@
+package com.example.financery.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class JobDtoResponse {
+
+    private long id;
+    private String type;
+    private String status;
+    private int priority;
+    private int progress;
+    private boolean cancelRequested;
+    // Итог задачи; для задач с файлом результат скачивается через /jobs/{id}/result
+    private String result;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.example.financery.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class JobStatsDtoResponse {
+
+    private int executorPoolSize;
+    private int executorActiveThreads;
+    private int executorQueueSize;
+    private int executorQueueCapacity;
+    // Задачи, которые пул не принял и которые вернулись в очередь
+    private long executorRejected;
+    // Отказы с 429: очередь типа заполнена или у клиента слишком много задач
+    private long rejectedQueueFull;
+    private long rejectedClientQuota;
+    private List<JobTypeStatsDtoResponse> types;
+}
@@ -0,0 +1,19 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobTypeStatsDtoResponse {
+
+    private String type;
+    private int concurrency;
+    // Выполняются на этом экземпляре
+    private int running;
+    // Ждут в очереди на всех экземплярах
+    private long queued;
+    private long averageRunMillis;
+}
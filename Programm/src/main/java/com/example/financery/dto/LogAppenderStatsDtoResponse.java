@@ -0,0 +1,17 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogAppenderStatsDtoResponse {
+
+    private String name;
+    private String overflowPolicy;
+    private int capacity;
+    private int queueDepth;
+    private long droppedCount;
+}
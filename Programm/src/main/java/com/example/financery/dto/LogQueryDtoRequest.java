@@ -0,0 +1,34 @@
+package com.example.financery.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class LogQueryDtoRequest {
+
+    @NotNull(message = "Дата логов обязательна")
+    @DateTimeFormat(pattern = "dd-MM-yyyy")
+    private LocalDate date;
+
+    // Окно времени [from, to) внутри дня
+    @DateTimeFormat(pattern = "HH:mm[:ss]")
+    private LocalTime from;
+    @DateTimeFormat(pattern = "HH:mm[:ss]")
+    private LocalTime to;
+
+    private String level;
+    // Подстрока имени логгера, например TransactionServiceImpl
+    private String logger;
+    // Подстрока имени потока
+    private String thread;
+
+    @Min(value = 1, message = "Лимит записей не может быть меньше 1")
+    @Max(value = 10000, message = "Лимит записей не может быть больше 10000")
+    private int limit = 1000;
+}
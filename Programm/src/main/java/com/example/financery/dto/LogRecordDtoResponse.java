@@ -0,0 +1,18 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogRecordDtoResponse {
+
+    private String timestamp;
+    private String thread;
+    private String level;
+    private String logger;
+    // Сообщение вместе со строками-продолжениями (стек исключения)
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.example.financery.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.YearMonth;
+
+@Data
+public class MonthlySummaryDtoResponse {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MM.yyyy")
+    private YearMonth month;
+
+    private double income;
+    private double expense;
+    private long incomeCount;
+    private long expenseCount;
+}
@@ -0,0 +1,34 @@
+package com.example.financery.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class TransactionFilterDtoRequest {
+
+    @DateTimeFormat(pattern = "dd.MM.yyyy")
+    private LocalDate from;
+    @DateTimeFormat(pattern = "dd.MM.yyyy")
+    private LocalDate to;
+    private Boolean type;
+    @Min(value = 0, message = "Минимальная сумма не может быть меньше 0")
+    private Double minAmount;
+    @Min(value = 0, message = "Максимальная сумма не может быть меньше 0")
+    private Double maxAmount;
+    private Long billId;
+    private List<Long> tagIds;
+
+    // Курсор keyset-пагинации: дата и id последней транзакции предыдущей страницы
+    @DateTimeFormat(pattern = "dd.MM.yyyy")
+    private LocalDate afterDate;
+    private Long afterId;
+
+    @Min(value = 1, message = "Размер страницы не может быть меньше 1")
+    @Max(value = 200, message = "Размер страницы не может быть больше 200")
+    private int limit = 50;
+}
@@ -0,0 +1,18 @@
+package com.example.financery.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class TransactionPageDtoResponse {
+
+    private List<TransactionDtoResponse> transactions;
+    private boolean hasNext;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd.MM.yyyy")
+    private LocalDate nextAfterDate;
+    private Long nextAfterId;
+}
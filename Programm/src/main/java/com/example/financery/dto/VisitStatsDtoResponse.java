@@ -0,0 +1,20 @@
+package com.example.financery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitStatsDtoResponse {
+
+    private String endpoint;
+    // null в разбивке по эндпоинтам и для запросов без пользователя
+    private Long userId;
+    // С учетом сохраненного в базе на момент запуска
+    private long total;
+    private long lastMinute;
+    private long last5Minutes;
+    private long lastHour;
+}
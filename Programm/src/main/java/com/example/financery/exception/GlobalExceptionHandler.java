@@ -2,6 +2,7 @@ package com.example.financery.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import com.example.financery.model.ErrorResponse;
@@ -11,12 +12,14 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final long EXECUTOR_RETRY_AFTER_SECONDS = 5;
 
     @ExceptionHandler(InvalidInputException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(InvalidInputException ex) {
@@ -50,6 +53,26 @@ public class GlobalExceptionHandler {
     }
 
 
+    // Перегрузка - ожидаемое состояние: клиент получает 429 и время повтора, а не 500
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+            TooManyRequestsException ex) {
+        logger.warn("Запрос отклонен (TooManyRequestsException): {}", ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+            RejectedExecutionException ex) {
+        logger.warn("Пул потоков переполнен (RejectedExecutionException): {}", ex.getMessage());
+        return handleTooManyRequestsException(new TooManyRequestsException(
+                "Сервер перегружен, повторите запрос позже", EXECUTOR_RETRY_AFTER_SECONDS));
+    }
+
     @ExceptionHandler(LogException.class)
     public ResponseEntity<ErrorResponse> handleLogException(LogException ex) {
         logger.error("Log exception: {}", ex.getMessage());
@@ -0,0 +1,44 @@
+package com.example.financery.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.financery.BalanceUpdate")
+@Label("Изменение баланса")
+@Category({"Financery", "Транзакции"})
+@Description("Изменение баланса счета или пользователя")
+@StackTrace(false)
+public class BalanceUpdateEvent extends Event {
+
+    @Label("Операция")
+    public String operation;
+
+    @Label("Пользователь")
+    public long userId;
+
+    @Label("Счет")
+    public long billId;
+
+    @Label("Изменение")
+    public double delta;
+
+    @Label("Баланс после")
+    public double balance;
+
+    public static void commit(String operation, Long userId, Long billId,
+                              double delta, double balance) {
+        BalanceUpdateEvent event = new BalanceUpdateEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.userId = userId != null ? userId : 0;
+            event.billId = billId != null ? billId : 0;
+            event.delta = delta;
+            event.balance = balance;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.financery.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.financery.Cache")
+@Label("Кеш транзакций")
+@Category({"Financery", "Кеш"})
+@Description("Попадание, промах, запись, вытеснение или очистка InMemoryCache")
+@StackTrace(false)
+public class CacheEvent extends Event {
+
+    public static final String HIT = "HIT";
+    public static final String MISS = "MISS";
+    public static final String PUT = "PUT";
+    public static final String UPDATE = "UPDATE";
+    public static final String EVICT = "EVICT";
+    public static final String CLEAR = "CLEAR";
+
+    @Label("Операция")
+    public String operation;
+
+    @Label("Пользователь")
+    public long userId;
+
+    @Label("Транзакций в записи")
+    public int entries;
+
+    @Label("Записей в кеше")
+    public int size;
+
+    public static void commit(String operation, Long userId, int entries, int size) {
+        CacheEvent event = new CacheEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.userId = userId != null ? userId : 0;
+            event.entries = entries;
+            event.size = size;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.financery.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.financery.LogScan")
+@Label("Чтение логов")
+@Category({"Financery", "Логи"})
+@Description("Выгрузка дня логов в файл или выборка записей по окну времени")
+@StackTrace(false)
+public class LogScanEvent extends Event {
+
+    @Label("Операция")
+    public String operation;
+
+    @Label("День")
+    public String date;
+
+    // segment, sealed-segment или index
+    @Label("Источник")
+    public String source;
+
+    @Label("Записей")
+    public int rows;
+
+    @Label("Байт")
+    @DataAmount
+    public long bytes;
+}
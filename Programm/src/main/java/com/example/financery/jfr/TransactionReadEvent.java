@@ -0,0 +1,36 @@
+package com.example.financery.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Чтение транзакций сервисом; длительность — от начала чтения до ответа.
+ * Как и остальные события пакета, без записи JFR стоит только создание объекта,
+ * которое JIT убирает, и проверка флага в begin/commit.
+ */
+@Name("com.example.financery.TransactionRead")
+@Label("Чтение транзакций")
+@Category({"Financery", "Транзакции"})
+@Description("Выборка транзакций пользователя или счета")
+@StackTrace(false)
+public class TransactionReadEvent extends Event {
+
+    @Label("Операция")
+    public String operation;
+
+    @Label("Пользователь")
+    public long userId;
+
+    @Label("Счет")
+    public long billId;
+
+    @Label("Строк")
+    public int rows;
+
+    @Label("Из кеша")
+    public boolean cached;
+}
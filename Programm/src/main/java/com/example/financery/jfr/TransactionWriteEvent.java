@@ -0,0 +1,34 @@
+package com.example.financery.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.financery.TransactionWrite")
+@Label("Изменение транзакции")
+@Category({"Financery", "Транзакции"})
+@Description("Создание, изменение или удаление транзакции вместе с балансом и итогами")
+@StackTrace(false)
+public class TransactionWriteEvent extends Event {
+
+    @Label("Операция")
+    public String operation;
+
+    @Label("Пользователь")
+    public long userId;
+
+    @Label("Счет")
+    public long billId;
+
+    @Label("Транзакция")
+    public long transactionId;
+
+    @Label("Сумма")
+    public double amount;
+
+    @Label("Тегов")
+    public int tags;
+}
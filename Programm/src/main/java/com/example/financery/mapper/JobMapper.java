@@ -0,0 +1,26 @@
+package com.example.financery.mapper;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.model.Job;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JobMapper {
+
+    // Путь к файлу результата на сервере наружу не отдается
+    public JobDtoResponse toJobDto(Job job, boolean fileResult) {
+        JobDtoResponse jobDtoResponse = new JobDtoResponse();
+        jobDtoResponse.setId(job.getId());
+        jobDtoResponse.setType(job.getType());
+        jobDtoResponse.setStatus(job.getStatus().name());
+        jobDtoResponse.setPriority(job.getPriority());
+        jobDtoResponse.setProgress(job.getProgress());
+        jobDtoResponse.setCancelRequested(job.isCancelRequested());
+        jobDtoResponse.setResult(fileResult ? null : job.getResult());
+        jobDtoResponse.setErrorMessage(job.getErrorMessage());
+        jobDtoResponse.setCreatedAt(job.getCreatedAt());
+        jobDtoResponse.setStartedAt(job.getStartedAt());
+        jobDtoResponse.setFinishedAt(job.getFinishedAt());
+        return jobDtoResponse;
+    }
+}
@@ -2,11 +2,15 @@ package com.example.financery.mapper;
 
 import com.example.financery.dto.TransactionDtoRequest;
 import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.model.ArchivedTransaction;
 import com.example.financery.model.Bill;
+import com.example.financery.model.Tag;
 import com.example.financery.model.Transaction;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Component
@@ -37,6 +41,32 @@ public class TransactionMapper {
         return transactionDtoResponse;
     }
 
+    // Теги архивной транзакции берутся из актуальных; удаленные теги пропускаются
+    public TransactionDtoResponse toTransactionDto(
+            ArchivedTransaction transaction, Map<Long, Tag> tags) {
+        TransactionDtoResponse transactionDtoResponse = new TransactionDtoResponse();
+
+        transactionDtoResponse.setId(transaction.getId());
+        transactionDtoResponse.setName(transaction.getName());
+        transactionDtoResponse.setDescription(transaction.getDescription());
+        transactionDtoResponse.setType(transaction.isType());
+        transactionDtoResponse.setAmount(transaction.getAmount());
+        transactionDtoResponse.setDate(transaction.getDate());
+
+        transactionDtoResponse.setUserId(transaction.getUserId());
+        transactionDtoResponse.setBillId(transaction.getBillId());
+
+        transactionDtoResponse.setTags(
+                transaction.getTagIds().stream()
+                        .map(tags::get)
+                        .filter(Objects::nonNull)
+                        .map(tagMapper::toTagDto)
+                        .collect(Collectors.toList())
+        );
+
+        return transactionDtoResponse;
+    }
+
     public static Transaction toTransaction(TransactionDtoRequest transactionDtoRequest) {
         Transaction transaction = new Transaction();
 
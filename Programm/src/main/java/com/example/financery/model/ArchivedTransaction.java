@@ -0,0 +1,21 @@
+package com.example.financery.model;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Транзакция, перенесенная из transaction_table в архивный сегмент
+@Data
+public class ArchivedTransaction {
+    private long id;
+    private String name;
+    private String description;
+    private boolean type;
+    private double amount;
+    private LocalDate date;
+    private long userId;
+    private long billId;
+    private List<Long> tagIds = new ArrayList<>();
+}
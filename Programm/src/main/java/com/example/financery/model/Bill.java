@@ -4,6 +4,8 @@ import com.example.financery.exception.InvalidInputException;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,6 +33,8 @@ public class Bill {
             cascade = CascadeType.ALL,
             orphanRemoval = true,
             fetch = FetchType.LAZY)
+    // Транзакции нескольких счетов, например в списке пользователей, читаются одним запросом
+    @BatchSize(size = 50)
     private List<Transaction> transactions = new ArrayList<>();
 
     public void addAmount(double amount) {
@@ -0,0 +1,90 @@
+package com.example.financery.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Фоновая задача. Хранится в базе, поэтому статус, прогресс и результат видны
+ * с любого экземпляра; выполняет задачу тот экземпляр, который первым перевел ее
+ * из QUEUED в RUNNING. Активные задачи одного типа с одинаковым jobKey сводятся
+ * в одну (частичный уникальный индекс).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "JobTable")
+public class Job {
+
+    public static final int TEXT_LENGTH = 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    // Ключ объединения одинаковых запросов, например дата выгрузки; null - не объединять
+    @Column(length = 255)
+    private String jobKey;
+
+    @Column(length = TEXT_LENGTH)
+    private String payload;
+
+    // Адрес клиента, поставившего задачу; по нему считается квота активных задач
+    @Column(length = 100)
+    private String clientId;
+
+    // Большее значение выбирается раньше
+    @Column(nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    // 0..100
+    @Column(nullable = false)
+    private int progress;
+
+    @Column(nullable = false)
+    private boolean cancelRequested;
+
+    @Column(length = TEXT_LENGTH)
+    private String result;
+
+    @Column(length = TEXT_LENGTH)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    // Обновляется исполнителем; по нему находятся задачи остановленного экземпляра
+    private Instant heartbeatAt;
+
+    private Instant finishedAt;
+
+    public Job(String type, String jobKey, String payload, int priority, String clientId) {
+        this.type = type;
+        this.jobKey = jobKey;
+        this.payload = payload;
+        this.clientId = clientId;
+        this.priority = priority;
+        this.status = JobStatus.QUEUED;
+        this.createdAt = Instant.now();
+    }
+}
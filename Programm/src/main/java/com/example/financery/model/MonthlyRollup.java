@@ -0,0 +1,44 @@
+package com.example.financery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Entity
+@Table(name = "MonthlyRollupTable",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_monthly_rollup_key",
+                columnNames = {"userId", "billId", "tagId", "month", "type"}))
+public class MonthlyRollup {
+
+    // Строка с tagId = 0 хранит итог по счету без разбивки по тегам
+    public static final long ALL_TAGS = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private long userId;
+
+    @Column(nullable = false)
+    private long billId;
+
+    @Column(nullable = false)
+    private long tagId;
+
+    // Первое число месяца
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Column(nullable = false)
+    private boolean type;
+
+    @Column(nullable = false)
+    private double amount;
+
+    @Column(nullable = false)
+    private long transactionCount;
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -50,6 +51,7 @@ public class Transaction {
             joinColumns = @JoinColumn(name = "transactionId"),
             inverseJoinColumns = @JoinColumn(name = "tagId")
     )
+    @BatchSize(size = 50)
     private List<Tag> tags = new ArrayList<>();
 
     @Override
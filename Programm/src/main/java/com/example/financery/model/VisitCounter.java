@@ -0,0 +1,30 @@
+package com.example.financery.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "VisitCounterTable",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_visit_counter_key",
+                columnNames = {"endpoint", "userId"}))
+public class VisitCounter {
+
+    // Запросы, в пути которых нет userId
+    public static final long NO_USER = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Метод и шаблон пути, например "GET /users/get-all-users"
+    @Column(nullable = false)
+    private String endpoint;
+
+    @Column(nullable = false)
+    private long userId;
+
+    @Column(nullable = false)
+    private long visits;
+}
@@ -0,0 +1,88 @@
+package com.example.financery.repository;
+
+import com.example.financery.model.Job;
+import com.example.financery.model.JobStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Изменения статуса идут условными UPDATE: задачу читают и меняют несколько
+// экземпляров, и запись целой сущности затерла бы чужие изменения
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    String QUEUED = "com.example.financery.model.JobStatus.QUEUED";
+    String RUNNING = "com.example.financery.model.JobStatus.RUNNING";
+    String CANCELLED = "com.example.financery.model.JobStatus.CANCELLED";
+
+    Optional<Job> findFirstByTypeAndJobKeyAndStatusIn(
+            String type, String jobKey, Collection<JobStatus> statuses);
+
+    List<Job> findByTypeAndStatusOrderByPriorityDescIdAsc(
+            String type, JobStatus status, Pageable pageable);
+
+    long countByTypeAndStatus(String type, JobStatus status);
+
+    long countByClientIdAndStatusIn(String clientId, Collection<JobStatus> statuses);
+
+    List<Job> findByStatusAndHeartbeatAtBefore(JobStatus status, Instant heartbeatAt);
+
+    List<Job> findByFinishedAtBefore(Instant finishedAt);
+
+    @Query("SELECT j.cancelRequested FROM Job j WHERE j.id = :id")
+    Optional<Boolean> findCancelRequested(@Param("id") Long id);
+
+    // 1, если задачу взял этот вызов
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = " + RUNNING + ", "
+            + "j.startedAt = :now, j.heartbeatAt = :now WHERE j.id = :id AND j.status = " + QUEUED)
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    // Возвращает задачу в очередь, если исполнитель не принял ее
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = " + QUEUED + ", "
+            + "j.startedAt = NULL, j.heartbeatAt = NULL WHERE j.id = :id AND j.status = " + RUNNING)
+    int requeue(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.progress = :progress, j.heartbeatAt = :now "
+            + "WHERE j.id = :id AND j.status = " + RUNNING)
+    int updateProgress(@Param("id") Long id, @Param("progress") int progress,
+                       @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.heartbeatAt = :now WHERE j.id IN :ids AND j.status = " + RUNNING)
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = :status, j.progress = :progress, j.result = :result, "
+            + "j.errorMessage = :errorMessage, j.finishedAt = :now "
+            + "WHERE j.id = :id AND j.status = " + RUNNING)
+    int finish(@Param("id") Long id, @Param("status") JobStatus status,
+               @Param("progress") int progress, @Param("result") String result,
+               @Param("errorMessage") String errorMessage, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.status = " + CANCELLED + ", j.cancelRequested = true, "
+            + "j.finishedAt = :now WHERE j.id = :id AND j.status = " + QUEUED)
+    int cancelQueued(@Param("id") Long id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.cancelRequested = true "
+            + "WHERE j.id = :id AND j.status = " + RUNNING)
+    int requestCancel(@Param("id") Long id);
+}
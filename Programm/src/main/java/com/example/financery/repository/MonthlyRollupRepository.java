@@ -0,0 +1,107 @@
+package com.example.financery.repository;
+
+import com.example.financery.model.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    interface MonthlyTotal {
+        LocalDate getMonth();
+
+        Boolean getType();
+
+        Double getAmount();
+
+        Long getTransactionCount();
+    }
+
+    @Modifying
+    @Query(value = ""
+            + "INSERT INTO monthly_rollup_table "
+            + "(user_id, bill_id, tag_id, month, type, amount, transaction_count) "
+            + "VALUES (:userId, :billId, :tagId, :month, :type, :amount, :count) "
+            + "ON CONFLICT (user_id, bill_id, tag_id, month, type) DO UPDATE SET "
+            + "amount = monthly_rollup_table.amount + EXCLUDED.amount, "
+            + "transaction_count = monthly_rollup_table.transaction_count "
+            + "+ EXCLUDED.transaction_count", nativeQuery = true)
+    void upsert(@Param("userId") long userId,
+                @Param("billId") long billId,
+                @Param("tagId") long tagId,
+                @Param("month") LocalDate month,
+                @Param("type") boolean type,
+                @Param("amount") double amount,
+                @Param("count") long count);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup_table "
+            + "WHERE user_id = ?1 AND transaction_count <= 0", nativeQuery = true)
+    void deleteEmptyForUser(long userId);
+
+    @Query("SELECT r.month AS month, r.type AS type, "
+            + "SUM(r.amount) AS amount, SUM(r.transactionCount) AS transactionCount "
+            + "FROM MonthlyRollup r "
+            + "WHERE r.userId = :userId AND r.tagId = 0 "
+            + "AND r.month BETWEEN :from AND :to "
+            + "GROUP BY r.month, r.type ORDER BY r.month")
+    List<MonthlyTotal> sumByUser(@Param("userId") long userId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    @Query("SELECT r.month AS month, r.type AS type, "
+            + "SUM(r.amount) AS amount, SUM(r.transactionCount) AS transactionCount "
+            + "FROM MonthlyRollup r "
+            + "WHERE r.billId = :billId AND r.tagId = 0 "
+            + "AND r.month BETWEEN :from AND :to "
+            + "GROUP BY r.month, r.type ORDER BY r.month")
+    List<MonthlyTotal> sumByBill(@Param("billId") long billId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    @Query("SELECT r.month AS month, r.type AS type, "
+            + "SUM(r.amount) AS amount, SUM(r.transactionCount) AS transactionCount "
+            + "FROM MonthlyRollup r "
+            + "WHERE r.tagId = :tagId "
+            + "AND r.month BETWEEN :from AND :to "
+            + "GROUP BY r.month, r.type ORDER BY r.month")
+    List<MonthlyTotal> sumByTag(@Param("tagId") long tagId,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup_table WHERE user_id = ?1", nativeQuery = true)
+    void deleteByUser(long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup_table WHERE bill_id = ?1", nativeQuery = true)
+    void deleteByBill(long billId);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup_table WHERE tag_id = ?1", nativeQuery = true)
+    void deleteByTag(long tagId);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_rollup_table", nativeQuery = true)
+    void deleteAllRollups();
+
+    @Modifying
+    @Query(value = ""
+            + "INSERT INTO monthly_rollup_table "
+            + "(user_id, bill_id, tag_id, month, type, amount, transaction_count) "
+            + "SELECT t.user_id, t.bill_id, 0, CAST(date_trunc('month', t.date) AS date), "
+            + "t.type, SUM(t.amount), COUNT(*) "
+            + "FROM transaction_table t "
+            + "GROUP BY t.user_id, t.bill_id, CAST(date_trunc('month', t.date) AS date), t.type "
+            + "UNION ALL "
+            + "SELECT t.user_id, t.bill_id, tt.tag_id, CAST(date_trunc('month', t.date) AS date), "
+            + "t.type, SUM(t.amount), COUNT(*) "
+            + "FROM transaction_table t JOIN transaction_tag tt ON tt.transaction_id = t.id "
+            + "GROUP BY t.user_id, t.bill_id, tt.tag_id, "
+            + "CAST(date_trunc('month', t.date) AS date), t.type", nativeQuery = true)
+    int rebuildAll();
+}
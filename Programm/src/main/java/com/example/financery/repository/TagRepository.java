@@ -19,6 +19,9 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
             + "WHERE tt.transaction_id = ?1", nativeQuery = true)
     List<Tag> findByTransaction(long transactionId);
 
+    @Query("SELECT t.id FROM Tag t")
+    List<Long> findAllIds();
+
     @Query("SELECT t FROM Transaction t JOIN t.tags tag WHERE tag.id = :tagId")
     List<Transaction> findTransactionsByTag(@Param("tagId") Long tagId);
 
@@ -1,13 +1,19 @@
 package com.example.financery.repository;
 
 import com.example.financery.model.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        JpaSpecificationExecutor<Transaction> {
 
     @Query(""
             + "SELECT t "
@@ -20,9 +26,45 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByUserId(@Param("userId") Long userId);
 
-    @Query(value = "SELECT * FROM transaction_table WHERE user_id = ?1", nativeQuery = true)
-    List<Transaction> findByUser(long userId);
+    // Условие по дате позволяет планировщику отсечь лишние месячные секции
+    @Query(""
+            + "SELECT t "
+            + "FROM Transaction t "
+            + "JOIN FETCH t.user u "
+            + "JOIN FETCH t.bill b "
+            + "LEFT JOIN FETCH t.tags "
+            + "WHERE t.user.id "
+            + "= :userId "
+            + "AND t.date BETWEEN :from AND :to")
+
+    List<Transaction> findByUserId(@Param("userId") Long userId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
 
     @Query(value = "SELECT * FROM transaction_table WHERE bill_id = ?1", nativeQuery = true)
     List<Transaction> findByBill(long billId);
+
+    @EntityGraph(attributePaths = {"user", "bill", "tags"})
+    List<Transaction> findByUserIdAndDateBefore(Long userId, LocalDate date);
+
+    @Query(value = "SELECT DISTINCT user_id FROM transaction_table WHERE date < ?1",
+            nativeQuery = true)
+    List<Long> findUserIdsWithTransactionsBefore(LocalDate date);
+
+    @Query(value = "SELECT id FROM transaction_table WHERE id IN (?1)", nativeQuery = true)
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_tag WHERE transaction_id IN "
+            + "(SELECT id FROM transaction_table WHERE user_id = ?1 AND date < ?2)",
+            nativeQuery = true)
+    void deleteTagLinksByUserIdAndDateBefore(long userId, LocalDate date);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_table WHERE user_id = ?1 AND date < ?2",
+            nativeQuery = true)
+    int deleteByUserIdAndDateBefore(long userId, LocalDate date);
+
+    @Query(value = "SELECT create_transaction_partitions(?1, ?2)", nativeQuery = true)
+    int createPartitions(LocalDate from, LocalDate to);
 }
@@ -0,0 +1,89 @@
+package com.example.financery.repository;
+
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public final class TransactionSpecifications {
+
+    private static final String DATE = "date";
+    private static final String AMOUNT = "amount";
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> forUser(long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Transaction> forBill(Long billId) {
+        return (root, query, cb) -> billId == null
+                ? null
+                : cb.equal(root.get("bill").get("id"), billId);
+    }
+
+    public static Specification<Transaction> dateFrom(LocalDate from) {
+        return (root, query, cb) -> from == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.get(DATE), from);
+    }
+
+    public static Specification<Transaction> dateTo(LocalDate to) {
+        return (root, query, cb) -> to == null
+                ? null
+                : cb.lessThanOrEqualTo(root.get(DATE), to);
+    }
+
+    public static Specification<Transaction> ofType(Boolean type) {
+        return (root, query, cb) -> type == null
+                ? null
+                : cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Transaction> amountFrom(Double minAmount) {
+        return (root, query, cb) -> minAmount == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.get(AMOUNT), minAmount);
+    }
+
+    public static Specification<Transaction> amountTo(Double maxAmount) {
+        return (root, query, cb) -> maxAmount == null
+                ? null
+                : cb.lessThanOrEqualTo(root.get(AMOUNT), maxAmount);
+    }
+
+    // EXISTS вместо JOIN, чтобы транзакция с несколькими тегами не дублировалась
+    public static Specification<Transaction> withAnyTag(List<Long> tagIds) {
+        return (root, query, cb) -> {
+            if (tagIds == null || tagIds.isEmpty()) {
+                return null;
+            }
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Transaction> tagged = subquery.from(Transaction.class);
+            Join<Transaction, Tag> tags = tagged.join("tags");
+            subquery.select(tagged.get("id"))
+                    .where(cb.equal(tagged.get("id"), root.get("id")),
+                            tags.get("id").in(tagIds));
+            return cb.exists(subquery);
+        };
+    }
+
+    // Keyset-условие (date, id) > (afterDate, afterId) для сортировки по дате и id
+    public static Specification<Transaction> after(LocalDate afterDate, Long afterId) {
+        return (root, query, cb) -> {
+            if (afterDate == null || afterId == null) {
+                return null;
+            }
+            return cb.or(
+                    cb.greaterThan(root.get(DATE), afterDate),
+                    cb.and(cb.equal(root.get(DATE), afterDate),
+                            cb.greaterThan(root.get("id"), afterId)));
+        };
+    }
+}
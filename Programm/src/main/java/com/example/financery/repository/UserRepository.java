@@ -2,10 +2,17 @@ package com.example.financery.repository;
 
 import com.example.financery.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsById(Long id);
 
+    // Счета читаются тем же запросом, транзакции счетов дочитываются пачками
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.bills")
+    List<User> findAllWithBills();
+
     User findByEmail(String email);
 }
@@ -0,0 +1,22 @@
+package com.example.financery.repository;
+
+import com.example.financery.model.VisitCounter;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VisitCounterRepository extends JpaRepository<VisitCounter, Long> {
+
+    @Transactional
+    @Modifying
+    @Query(value = ""
+            + "INSERT INTO visit_counter_table (endpoint, user_id, visits) "
+            + "VALUES (:endpoint, :userId, :visits) "
+            + "ON CONFLICT (endpoint, user_id) DO UPDATE SET "
+            + "visits = visit_counter_table.visits + EXCLUDED.visits", nativeQuery = true)
+    void add(@Param("endpoint") String endpoint,
+             @Param("userId") long userId,
+             @Param("visits") long visits);
+}
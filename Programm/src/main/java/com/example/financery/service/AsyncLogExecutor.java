@@ -1,5 +0,0 @@
-package com.example.financery.service;
-
-public interface AsyncLogExecutor {
-    void executeCreateLogs(Long taskId, String date);
-}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.financery.service;
+
+import com.example.financery.dto.JobDtoResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+public interface DiagnosticsService {
+
+    Long startRecording(Duration duration, String profile, String clientId);
+
+    Long captureHeapHistogram(String clientId);
+
+    Long captureThreadDump(String clientId);
+
+    JobDtoResponse getStatus(Long taskId);
+
+    ResponseEntity<Resource> download(Long taskId);
+}
@@ -0,0 +1,10 @@
+package com.example.financery.service;
+
+import com.example.financery.dto.HibernateStatisticsDtoResponse;
+
+public interface HibernateStatisticsService {
+
+    HibernateStatisticsDtoResponse getStatistics();
+
+    void reset();
+}
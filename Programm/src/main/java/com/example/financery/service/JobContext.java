@@ -0,0 +1,18 @@
+package com.example.financery.service;
+
+import java.util.concurrent.CancellationException;
+
+public interface JobContext {
+
+    Long getJobId();
+
+    void setProgress(int percent);
+
+    boolean isCancelled();
+
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Задача " + getJobId() + " отменена");
+        }
+    }
+}
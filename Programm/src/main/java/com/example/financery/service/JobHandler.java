@@ -0,0 +1,29 @@
+package com.example.financery.service;
+
+import com.example.financery.model.Job;
+
+/**
+ * Обработчик задач одного типа. Реализации регистрируются как бины и находятся
+ * JobService по getType().
+ */
+public interface JobHandler {
+
+    String getType();
+
+    // Сколько задач этого типа один экземпляр выполняет одновременно
+    default int getConcurrency() {
+        return 1;
+    }
+
+    // Результат - путь к файлу, который отдается через /jobs/{id}/result
+    // и удаляется вместе с задачей
+    default boolean producesFile() {
+        return false;
+    }
+
+    /**
+     * Выполняет задачу и возвращает результат: путь к файлу или краткий итог.
+     * Долгие обработчики сообщают прогресс и проверяют отмену через context.
+     */
+    String execute(Job job, JobContext context) throws Exception;
+}
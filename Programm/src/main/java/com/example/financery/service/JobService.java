@@ -0,0 +1,25 @@
+package com.example.financery.service;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.JobStatsDtoResponse;
+
+import java.nio.file.Path;
+
+public interface JobService {
+
+    int DEFAULT_PRIORITY = 0;
+
+    Long submit(String type, String jobKey, String payload, int priority, String clientId);
+
+    JobDtoResponse getJob(Long id);
+
+    JobDtoResponse cancel(Long id);
+
+    Path getResultFile(Long id);
+
+    void dispatch();
+
+    int evictExpiredJobs();
+
+    JobStatsDtoResponse getStats();
+}
@@ -1,29 +1,33 @@
 package com.example.financery.service;
 
-import com.example.financery.model.LogObject;
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.LogAppenderStatsDtoResponse;
+import com.example.financery.dto.LogQueryDtoRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.List;
 
 public interface LogService {
 
-    Resource downloadLogs(String date);
+    void writeLogs(String date, boolean gzip,
+                   HttpServletRequest request, HttpServletResponse response);
 
-    LocalDate parseDate(String date);
-
-    void validateLogFileExists(Path path);
+    void queryLogs(LogQueryDtoRequest query, HttpServletResponse response);
 
-    Path createTempFile(LocalDate logDate);
+    List<LogAppenderStatsDtoResponse> getAppenderStats();
 
-    void filterAndWriteLogsToTempFile(Path logFilePath, String formattedDate, Path tempFilePath);
+    LocalDate parseDate(String date);
 
-    Resource createResourceFromTempFile(Path tempFilePath, String date);
+    void validateLogFileExists(Path path);
 
-    Long createLogAsync(String date);
+    Long createLogAsync(String date, String clientId);
 
-    LogObject getStatus(Long taskId);
+    JobDtoResponse getStatus(Long taskId);
 
     ResponseEntity<Resource> downloadCreatedLogs(Long taskId);
 }
\ No newline at end of file
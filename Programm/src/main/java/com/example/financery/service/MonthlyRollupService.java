@@ -0,0 +1,28 @@
+package com.example.financery.service;
+
+import com.example.financery.dto.MonthlySummaryDtoResponse;
+import com.example.financery.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface MonthlyRollupService {
+
+    void applyTransaction(Transaction transaction);
+
+    void revertTransaction(Transaction transaction);
+
+    List<MonthlySummaryDtoResponse> getUserSummary(long userId, YearMonth from, YearMonth to);
+
+    List<MonthlySummaryDtoResponse> getBillSummary(long billId, YearMonth from, YearMonth to);
+
+    List<MonthlySummaryDtoResponse> getTagSummary(long tagId, YearMonth from, YearMonth to);
+
+    void deleteForUser(long userId);
+
+    void deleteForBill(long billId);
+
+    void deleteForTag(long tagId);
+
+    int rebuild();
+}
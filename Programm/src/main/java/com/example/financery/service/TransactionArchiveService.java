@@ -0,0 +1,32 @@
+package com.example.financery.service;
+
+import com.example.financery.model.ArchivedTransaction;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public interface TransactionArchiveService {
+
+    int archiveExpired();
+
+    int archiveBefore(LocalDate cutoff);
+
+    void validateCutoff(LocalDate cutoff);
+
+    List<ArchivedTransaction> findByUser(long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Первые limit архивных строк пользователя за период, подходящих под filter,
+     * в порядке (date, id).
+     */
+    List<ArchivedTransaction> findPageByUser(long userId, LocalDate from, LocalDate to,
+                                             Predicate<ArchivedTransaction> filter, int limit);
+
+    void forEachArchived(Consumer<ArchivedTransaction> action);
+
+    void deleteForUser(long userId);
+
+    void deleteForBill(long userId, long billId);
+}
@@ -0,0 +1,6 @@
+package com.example.financery.service;
+
+public interface TransactionPartitionService {
+
+    int ensurePartitions();
+}
@@ -2,7 +2,10 @@ package com.example.financery.service;
 
 import com.example.financery.dto.TransactionDtoRequest;
 import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.dto.TransactionFilterDtoRequest;
+import com.example.financery.dto.TransactionPageDtoResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TransactionService {
@@ -15,6 +18,11 @@ public interface TransactionService {
 
     List<TransactionDtoResponse> getTransactionsByBillId(long userId);
 
+    List<TransactionDtoResponse> getTransactionsByUserIdAndPeriod(
+            long userId, LocalDate from, LocalDate to);
+
+    TransactionPageDtoResponse filterTransactions(long userId, TransactionFilterDtoRequest filter);
+
     TransactionDtoResponse createTransaction(TransactionDtoRequest transactionDto);
 
     TransactionDtoResponse updateTransaction(
@@ -1,8 +1,29 @@
 package com.example.financery.service;
 
+import com.example.financery.dto.VisitStatsDtoResponse;
+
+import java.util.List;
+
 public interface VisitCounterService {
 
-    public void increment();
+    /**
+     * Учитывает запрос к эндпоинту; userId может быть null.
+     */
+    void record(String endpoint, Long userId);
+
+    /**
+     * Всего посещений эндпоинта или всех эндпоинтов, если endpoint null.
+     */
+    long getCount(String endpoint);
+
+    List<VisitStatsDtoResponse> getEndpointStats();
+
+    /**
+     * Самые посещаемые пары эндпоинт–пользователь за окно 1m, 5m, 1h или total.
+     */
+    List<VisitStatsDtoResponse> getTop(String window, int limit, String endpoint);
+
+    void rollWindows();
 
-    public Long getCounter();
+    int flush();
 }
@@ -0,0 +1,39 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.model.Job;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import com.example.financery.service.TransactionArchiveService;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Перенос старых транзакций в архив вне запроса. payload - граница в формате ISO
+ * или null для срока хранения из настроек.
+ */
+@Service
+public class ArchiveJobHandler implements JobHandler {
+
+    public static final String TYPE = "ARCHIVE";
+    public static final String EXPIRED_KEY = "expired";
+
+    private final TransactionArchiveService archiveService;
+
+    public ArchiveJobHandler(TransactionArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String execute(Job job, JobContext context) {
+        int archived = job.getPayload() != null
+                ? archiveService.archiveBefore(LocalDate.parse(job.getPayload()))
+                : archiveService.archiveExpired();
+        return "Перенесено в архив: " + archived;
+    }
+}
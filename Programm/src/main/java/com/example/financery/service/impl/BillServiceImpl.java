@@ -1,15 +1,19 @@
 package com.example.financery.service.impl;
 
+import com.example.financery.aspect.Traced;
 import com.example.financery.dto.BillDtoRequest;
 import com.example.financery.dto.BillDtoResponse;
 import com.example.financery.exception.InvalidInputException;
 import com.example.financery.exception.NotFoundException;
+import com.example.financery.jfr.BalanceUpdateEvent;
 import com.example.financery.mapper.BillMapper;
 import com.example.financery.model.Bill;
 import com.example.financery.model.User;
 import com.example.financery.repository.BillRepository;
 import com.example.financery.repository.UserRepository;
 import com.example.financery.service.BillService;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +22,7 @@ import lombok.AllArgsConstructor;
 import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 
+@Traced
 @Service
 @AllArgsConstructor
 public class BillServiceImpl implements BillService {
@@ -28,6 +33,8 @@ public class BillServiceImpl implements BillService {
     private final BillRepository billRepository;
     private final BillMapper billMapper;
     private final UserRepository userRepository;
+    private final MonthlyRollupService rollupService;
+    private final TransactionArchiveService archiveService;
 
     @Override
     @Transactional
@@ -85,6 +92,8 @@ public class BillServiceImpl implements BillService {
         user.setBalance(user.getBalance() + bill.getBalance());
         bill.setUser(user);
         billRepository.save(bill);
+        BalanceUpdateEvent.commit("bill.create", user.getId(), bill.getId(),
+                bill.getBalance(), user.getBalance());
 
         return billMapper.toBillDto(bill);
     }
@@ -114,6 +123,8 @@ public class BillServiceImpl implements BillService {
 
         double newBalance = user.getBalance() - currentBalance + billDto.getBalance();
         user.setBalance(newBalance);
+        BalanceUpdateEvent.commit("bill.update", user.getId(), billId,
+                billDto.getBalance() - currentBalance, newBalance);
 
         userRepository.save(user);
         billRepository.save(bill);
@@ -131,9 +142,13 @@ public class BillServiceImpl implements BillService {
                         String.format(USER_NOT_FOUND, bill.getUser().getId())));
 
         user.setBalance(user.getBalance() - bill.getBalance());
+        BalanceUpdateEvent.commit("bill.delete", user.getId(), billId,
+                -bill.getBalance(), user.getBalance());
 
         userRepository.save(user);
         billRepository.deleteById(billId);
+        rollupService.deleteForBill(billId);
+        archiveService.deleteForBill(user.getId(), billId);
     }
 
 }
@@ -0,0 +1,94 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.service.DiagnosticsService;
+import com.example.financery.service.JobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Снимки состояния работающего экземпляра по схеме выгрузки логов: задача
+ * ставится в очередь, ее статус опрашивается, готовый файл скачивается.
+ * Одинаковые запросы, пока задача активна, сводятся в одну.
+ */
+@Service
+public class DiagnosticsServiceImpl implements DiagnosticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticsServiceImpl.class);
+
+    private static final Set<String> PROFILES = Set.of("default", "profile");
+    private static final Set<String> TYPES = Set.of(JfrRecordingJobHandler.TYPE,
+            HeapHistogramJobHandler.TYPE, ThreadDumpJobHandler.TYPE);
+    private static final String SNAPSHOT_KEY = "snapshot";
+
+    private final JobService jobService;
+    private final Duration maxRecording;
+
+    public DiagnosticsServiceImpl(
+            JobService jobService,
+            @Value("${app.diagnostics.max-recording:PT10M}") Duration maxRecording) {
+        this.jobService = jobService;
+        this.maxRecording = maxRecording;
+    }
+
+    @Override
+    public Long startRecording(Duration duration, String profile, String clientId) {
+        if (duration.getSeconds() < 1 || duration.compareTo(maxRecording) > 0) {
+            throw new InvalidInputException(
+                    "Длительность записи должна быть от 1 секунды до " + maxRecording);
+        }
+        if (!PROFILES.contains(profile)) {
+            throw new InvalidInputException(
+                    "Неизвестный профиль JFR: " + profile + ". Допустимо default, profile");
+        }
+        String payload = JfrRecordingJobHandler.payload(profile, duration);
+        log.info("Запрошена запись JFR {} на {}", profile, duration);
+        return jobService.submit(JfrRecordingJobHandler.TYPE, payload, payload,
+                JobService.DEFAULT_PRIORITY, clientId);
+    }
+
+    @Override
+    public Long captureHeapHistogram(String clientId) {
+        return jobService.submit(HeapHistogramJobHandler.TYPE, SNAPSHOT_KEY, null,
+                JobService.DEFAULT_PRIORITY, clientId);
+    }
+
+    @Override
+    public Long captureThreadDump(String clientId) {
+        return jobService.submit(ThreadDumpJobHandler.TYPE, SNAPSHOT_KEY, null,
+                JobService.DEFAULT_PRIORITY, clientId);
+    }
+
+    @Override
+    public JobDtoResponse getStatus(Long taskId) {
+        JobDtoResponse job = jobService.getJob(taskId);
+        if (!TYPES.contains(job.getType())) {
+            throw new NotFoundException("Диагностическая задача " + taskId + " не найдена");
+        }
+        return job;
+    }
+
+    @Override
+    public ResponseEntity<Resource> download(Long taskId) {
+        getStatus(taskId);
+        Path path = jobService.getResultFile(taskId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + path.getFileName() + "\"")
+                .body(new FileSystemResource(path));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.model.Job;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import com.example.financery.utils.DiagnosticCommands;
+import com.example.financery.utils.TempFiles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Гистограмма объектов кучи по классам в текстовый файл. Перед подсчетом JVM
+ * выполняет полную сборку мусора, поэтому одновременно выполняется одна такая задача.
+ */
+@Service
+public class HeapHistogramJobHandler implements JobHandler {
+
+    public static final String TYPE = "HEAP_HISTOGRAM";
+
+    private final Path tempDir;
+
+    public HeapHistogramJobHandler(@Value("${app.temp.dir.path}") String tempDirPath) {
+        this.tempDir = Paths.get(tempDirPath);
+        TempFiles.ensureDirectory(tempDir);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public boolean producesFile() {
+        return true;
+    }
+
+    @Override
+    public String execute(Job job, JobContext context) throws Exception {
+        String histogram = DiagnosticCommands.heapHistogram();
+        Path file = TempFiles.createPrivate(tempDir, "heap-histogram-" + job.getId() + "-",
+                ".txt");
+        Files.writeString(file, histogram);
+        return file.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.HibernateCollectionStatsDtoResponse;
+import com.example.financery.dto.HibernateEntityStatsDtoResponse;
+import com.example.financery.dto.HibernateQueryStatsDtoResponse;
+import com.example.financery.dto.HibernateStatisticsDtoResponse;
+import com.example.financery.service.HibernateStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheableDataStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Статистика Hibernate за время с запуска или последнего сброса: загрузки сущностей
+ * и коллекций, запросы, сбросы сессии и кэш второго уровня по сущностям.
+ * Собирается, только если включен hibernate.generate_statistics.
+ */
+@Slf4j
+@Service
+public class HibernateStatisticsServiceImpl implements HibernateStatisticsService {
+
+    private static final int TOP_QUERIES = 20;
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public HibernateStatisticsDtoResponse getStatistics() {
+        HibernateStatisticsDtoResponse response = new HibernateStatisticsDtoResponse();
+        response.setEnabled(statistics.isStatisticsEnabled());
+        response.setSince(statistics.getStart());
+        response.setSessionsOpened(statistics.getSessionOpenCount());
+        response.setTransactions(statistics.getTransactionCount());
+        response.setFlushes(statistics.getFlushCount());
+        response.setPreparedStatements(statistics.getPrepareStatementCount());
+        response.setEntityLoads(statistics.getEntityLoadCount());
+        response.setEntityFetches(statistics.getEntityFetchCount());
+        response.setEntityInserts(statistics.getEntityInsertCount());
+        response.setEntityUpdates(statistics.getEntityUpdateCount());
+        response.setEntityDeletes(statistics.getEntityDeleteCount());
+        response.setCollectionLoads(statistics.getCollectionLoadCount());
+        response.setCollectionFetches(statistics.getCollectionFetchCount());
+        response.setQueryExecutions(statistics.getQueryExecutionCount());
+        response.setQueryExecutionMaxMillis(statistics.getQueryExecutionMaxTime());
+        response.setSlowestQuery(statistics.getQueryExecutionMaxTimeQueryString());
+        response.setQueryPlanCacheHitRatio(ratio(statistics.getQueryPlanCacheHitCount(),
+                statistics.getQueryPlanCacheMissCount()));
+        response.setSecondLevelCacheHits(statistics.getSecondLevelCacheHitCount());
+        response.setSecondLevelCacheMisses(statistics.getSecondLevelCacheMissCount());
+        response.setSecondLevelCachePuts(statistics.getSecondLevelCachePutCount());
+        response.setSecondLevelCacheHitRatio(ratio(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount()));
+        response.setEntities(entities());
+        response.setCollections(collections());
+        response.setQueries(queries());
+        return response;
+    }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+        log.info("Статистика Hibernate сброшена");
+    }
+
+    private List<HibernateEntityStatsDtoResponse> entities() {
+        List<HibernateEntityStatsDtoResponse> entities = new ArrayList<>();
+        for (String name : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(name);
+            long hits = cached(entity.getCacheHitCount());
+            long misses = cached(entity.getCacheMissCount());
+            entities.add(new HibernateEntityStatsDtoResponse(name,
+                    entity.getLoadCount(), entity.getFetchCount(), entity.getInsertCount(),
+                    entity.getUpdateCount(), entity.getDeleteCount(),
+                    hits, misses, cached(entity.getCachePutCount()), ratio(hits, misses)));
+        }
+        entities.sort(Comparator.comparing(HibernateEntityStatsDtoResponse::getEntity));
+        return entities;
+    }
+
+    private List<HibernateCollectionStatsDtoResponse> collections() {
+        List<HibernateCollectionStatsDtoResponse> collections = new ArrayList<>();
+        for (String role : statistics.getCollectionRoleNames()) {
+            CollectionStatistics collection = statistics.getCollectionStatistics(role);
+            collections.add(new HibernateCollectionStatsDtoResponse(role,
+                    collection.getLoadCount(), collection.getFetchCount()));
+        }
+        collections.sort(Comparator.comparing(HibernateCollectionStatsDtoResponse::getRole));
+        return collections;
+    }
+
+    private List<HibernateQueryStatsDtoResponse> queries() {
+        List<HibernateQueryStatsDtoResponse> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            queries.add(new HibernateQueryStatsDtoResponse(query, stats.getExecutionCount(),
+                    stats.getExecutionRowCount(), stats.getExecutionAvgTime(),
+                    stats.getExecutionMaxTime()));
+        }
+        return queries.stream()
+                .sorted(Comparator.comparingLong(HibernateQueryStatsDtoResponse::getMaxMillis)
+                        .reversed())
+                .limit(TOP_QUERIES)
+                .toList();
+    }
+
+    // Для сущностей без кэша второго уровня Hibernate отдает NOT_CACHED_COUNT
+    private static long cached(long count) {
+        return count == CacheableDataStatistics.NOT_CACHED_COUNT ? 0 : count;
+    }
+
+    private static Double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? null : (double) hits / total;
+    }
+}
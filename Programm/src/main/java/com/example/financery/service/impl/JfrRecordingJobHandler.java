@@ -0,0 +1,71 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.model.Job;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import com.example.financery.utils.TempFiles;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Запись JFR заданной длительности с настройками default или profile в файл .jfr.
+ * payload - "профиль:секунды". Отмена останавливает запись без файла.
+ */
+@Service
+public class JfrRecordingJobHandler implements JobHandler {
+
+    public static final String TYPE = "JFR_RECORDING";
+
+    private final Path tempDir;
+
+    public JfrRecordingJobHandler(@Value("${app.temp.dir.path}") String tempDirPath) {
+        this.tempDir = Paths.get(tempDirPath);
+        TempFiles.ensureDirectory(tempDir);
+    }
+
+    public static String payload(String profile, Duration duration) {
+        return profile + ":" + duration.getSeconds();
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public boolean producesFile() {
+        return true;
+    }
+
+    @Override
+    public String execute(Job job, JobContext context) throws Exception {
+        String[] parts = job.getPayload().split(":");
+        String profile = parts[0];
+        long seconds = Long.parseLong(parts[1]);
+
+        Path file = TempFiles.createPrivate(tempDir, "recording-" + job.getId() + "-", ".jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration(profile))) {
+            recording.setName("financery-" + job.getId());
+            recording.setToDisk(true);
+            recording.start();
+            for (long second = 1; second <= seconds; second++) {
+                Thread.sleep(1000);
+                context.checkCancelled();
+                context.setProgress((int) (second * 100 / (seconds + 1)));
+            }
+            recording.stop();
+            recording.dump(file);
+        } catch (Exception e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file.toString();
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.JobStatsDtoResponse;
+import com.example.financery.dto.JobTypeStatsDtoResponse;
+import com.example.financery.exception.FileNotReadyException;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.exception.TooManyRequestsException;
+import com.example.financery.mapper.JobMapper;
+import com.example.financery.model.Job;
+import com.example.financery.model.JobStatus;
+import com.example.financery.repository.JobRepository;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import com.example.financery.service.JobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Очередь фоновых задач в базе. Экземпляр берет задачи только при свободном слоте
+ * типа (getConcurrency обработчика), в порядке приоритета, и переводит их в RUNNING
+ * условным UPDATE, поэтому одну задачу не выполнят два экземпляра. Новые задачи
+ * разбираются сразу после постановки и после завершения предыдущих, задачи других
+ * экземпляров - по расписанию.
+ */
+@Slf4j
+@Service
+public class JobServiceImpl implements JobService {
+
+    private static final List<JobStatus> ACTIVE = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    private static final long CANCEL_CHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_RETRY_AFTER_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+
+    private final JobRepository jobs;
+    private final JobMapper jobMapper;
+    private final Map<String, JobHandler> handlers = new HashMap<>();
+    private final Map<String, Semaphore> slots = new HashMap<>();
+    private final Executor executor;
+    private final Duration ttl;
+    private final Duration staleAfter;
+    private final int maxQueued;
+    private final int maxActivePerClient;
+    private final Duration defaultRetryAfter;
+
+    // Среднее время выполнения по типу (скользящее), для оценки Retry-After
+    private final Map<String, AtomicLong> averageRunMillis = new HashMap<>();
+    private final AtomicLong executorRejected = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedClientQuota = new AtomicLong();
+
+    // Задачи, которые выполняет этот экземпляр
+    private final Map<Long, Execution> running = new ConcurrentHashMap<>();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+    public JobServiceImpl(
+            JobRepository jobs,
+            JobMapper jobMapper,
+            List<JobHandler> handlers,
+            @Qualifier("executor") Executor executor,
+            @Value("${app.jobs.ttl:PT1H}") Duration ttl,
+            @Value("${app.jobs.stale-after:PT10M}") Duration staleAfter,
+            @Value("${app.jobs.admission.max-queued:50}") int maxQueued,
+            @Value("${app.jobs.admission.max-active-per-client:5}") int maxActivePerClient,
+            @Value("${app.jobs.admission.retry-after:PT30S}") Duration defaultRetryAfter) {
+        this.jobs = jobs;
+        this.jobMapper = jobMapper;
+        this.executor = executor;
+        this.ttl = ttl;
+        this.staleAfter = staleAfter;
+        this.maxQueued = maxQueued;
+        this.maxActivePerClient = maxActivePerClient;
+        this.defaultRetryAfter = defaultRetryAfter;
+        for (JobHandler handler : handlers) {
+            if (this.handlers.put(handler.getType(), handler) != null) {
+                throw new IllegalStateException(
+                        "Несколько обработчиков задач типа " + handler.getType());
+            }
+            slots.put(handler.getType(), new Semaphore(handler.getConcurrency()));
+            averageRunMillis.put(handler.getType(), new AtomicLong());
+        }
+    }
+
+    // Запрос с тем же ключом, пока задача активна, получает ее же. Гонку двух
+    // экземпляров разрешает уникальный индекс: проигравший читает задачу победителя.
+    // Новая задача принимается, только если очередь типа и квота клиента не заполнены
+    @Override
+    public Long submit(String type, String jobKey, String payload, int priority,
+                       String clientId) {
+        JobHandler handler = handler(type);
+        if (jobKey != null) {
+            Optional<Job> active =
+                    jobs.findFirstByTypeAndJobKeyAndStatusIn(type, jobKey, ACTIVE);
+            if (active.isPresent()) {
+                return active.get().getId();
+            }
+        }
+        admit(handler, clientId);
+        Job job;
+        try {
+            job = jobs.saveAndFlush(new Job(type, jobKey, payload, priority, clientId));
+        } catch (DataIntegrityViolationException e) {
+            if (jobKey == null) {
+                throw e;
+            }
+            return jobs.findFirstByTypeAndJobKeyAndStatusIn(type, jobKey, ACTIVE)
+                    .map(Job::getId)
+                    .orElseThrow(() -> e);
+        }
+        log.info("Задача {} типа {} поставлена в очередь", job.getId(), type);
+        dispatch();
+        return job.getId();
+    }
+
+    // Проверки не атомарны с вставкой, поэтому при одновременных запросах очередь
+    // может превысить лимит на число экземпляров; для сброса нагрузки этого достаточно
+    private void admit(JobHandler handler, String clientId) {
+        long queued = jobs.countByTypeAndStatus(handler.getType(), JobStatus.QUEUED);
+        if (queued >= maxQueued) {
+            rejectedQueueFull.incrementAndGet();
+            throw new TooManyRequestsException(
+                    "Очередь задач " + handler.getType() + " заполнена",
+                    retryAfterSeconds(handler, queued - maxQueued + 1));
+        }
+        if (clientId != null && maxActivePerClient > 0
+                && jobs.countByClientIdAndStatusIn(clientId, ACTIVE) >= maxActivePerClient) {
+            rejectedClientQuota.incrementAndGet();
+            throw new TooManyRequestsException(
+                    "Превышено число активных задач клиента: " + maxActivePerClient,
+                    retryAfterSeconds(handler, 1));
+        }
+    }
+
+    // Время, за которое освободится нужное число слотов типа при среднем времени задачи
+    private long retryAfterSeconds(JobHandler handler, long jobsAhead) {
+        long average = averageRunMillis.get(handler.getType()).get();
+        int concurrency = handler.getConcurrency();
+        long millis = average > 0
+                ? average * ((jobsAhead + concurrency - 1) / concurrency)
+                : defaultRetryAfter.toMillis();
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS,
+                TimeUnit.MILLISECONDS.toSeconds(millis + 999)));
+    }
+
+    @Override
+    public JobDtoResponse getJob(Long id) {
+        return toDto(findJob(id));
+    }
+
+    // Задача из очереди отменяется сразу; выполняющаяся получает флаг отмены,
+    // а на этом экземпляре еще и прерывание потока
+    @Override
+    public JobDtoResponse cancel(Long id) {
+        Job job = findJob(id);
+        if (job.getStatus().isFinished()) {
+            return toDto(job);
+        }
+        if (jobs.cancelQueued(id, Instant.now()) == 0) {
+            jobs.requestCancel(id);
+            Execution execution = running.get(id);
+            if (execution != null) {
+                execution.cancel();
+            }
+        }
+        log.info("Запрошена отмена задачи {}", id);
+        return getJob(id);
+    }
+
+    @Override
+    public Path getResultFile(Long id) {
+        Job job = findJob(id);
+        if (!handler(job.getType()).producesFile()) {
+            throw new InvalidInputException("Задача " + id + " не создает файл");
+        }
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new FileNotReadyException(
+                    "Результат задачи не готов. Текущий статус: " + job.getStatus());
+        }
+        Path path = Paths.get(job.getResult());
+        if (!Files.exists(path)) {
+            throw new NotFoundException("Файл результата не существует: " + path);
+        }
+        return path;
+    }
+
+    // Вызов во время разбора другим потоком не теряется: тот поток повторит проход
+    @Override
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval:PT5S}")
+    public void dispatch() {
+        dispatchRequested.set(true);
+        if (dispatchLock.isHeldByCurrentThread()) {
+            return;
+        }
+        while (dispatchRequested.get() && dispatchLock.tryLock()) {
+            try {
+                dispatchRequested.set(false);
+                for (JobHandler handler : handlers.values()) {
+                    dispatch(handler);
+                }
+            } catch (RuntimeException e) {
+                log.error("Ошибка разбора очереди задач: {}", e.getMessage());
+                return;
+            } finally {
+                dispatchLock.unlock();
+            }
+        }
+    }
+
+    private void dispatch(JobHandler handler) {
+        Semaphore free = slots.get(handler.getType());
+        int available = free.availablePermits();
+        if (available == 0) {
+            return;
+        }
+        List<Job> candidates = jobs.findByTypeAndStatusOrderByPriorityDescIdAsc(
+                handler.getType(), JobStatus.QUEUED, PageRequest.of(0, available));
+        for (Job job : candidates) {
+            if (!free.tryAcquire()) {
+                return;
+            }
+            if (jobs.claim(job.getId(), Instant.now()) == 0) {
+                // Задачу взял другой экземпляр или ее отменили
+                free.release();
+                continue;
+            }
+            job.setStatus(JobStatus.RUNNING);
+            start(handler, job, free);
+        }
+    }
+
+    private void start(JobHandler handler, Job job, Semaphore free) {
+        Execution execution = new Execution(job);
+        running.put(job.getId(), execution);
+        try {
+            executor.execute(() -> run(handler, execution, free));
+        } catch (RejectedExecutionException e) {
+            executorRejected.incrementAndGet();
+            running.remove(job.getId());
+            free.release();
+            jobs.requeue(job.getId());
+            log.warn("Пул отклонил задачу {}, она возвращена в очередь", job.getId());
+        }
+    }
+
+    private void run(JobHandler handler, Execution execution, Semaphore free) {
+        Job job = execution.job;
+        execution.attach();
+        JobStatus status;
+        String result = null;
+        String error = null;
+        long started = System.nanoTime();
+        try {
+            execution.checkCancelled();
+            result = handler.execute(job, execution);
+            status = JobStatus.COMPLETED;
+            recordRunTime(handler,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (CancellationException | InterruptedException e) {
+            status = JobStatus.CANCELLED;
+        } catch (Exception e) {
+            if (execution.isCancelled()) {
+                // Прерывание при отмене часто приходит как ошибка ввода-вывода
+                status = JobStatus.CANCELLED;
+            } else {
+                status = JobStatus.FAILED;
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+                log.error("Задача {} типа {} завершилась ошибкой: {}",
+                        job.getId(), job.getType(), error);
+            }
+        } finally {
+            // Флаг прерывания относится к задаче, а не к потоку пула
+            execution.detach();
+        }
+        try {
+            jobs.finish(job.getId(), status,
+                    status == JobStatus.COMPLETED ? 100 : execution.progress,
+                    truncate(result), truncate(error), Instant.now());
+            log.info("Задача {} типа {} завершена: {}", job.getId(), job.getType(), status);
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить итог задачи {}: {}", job.getId(), e.getMessage());
+        } finally {
+            running.remove(job.getId());
+            free.release();
+        }
+        dispatch();
+    }
+
+    private void recordRunTime(JobHandler handler, long millis) {
+        averageRunMillis.get(handler.getType())
+                .getAndUpdate(average -> average == 0 ? millis : (average * 7 + millis) / 8);
+    }
+
+    @Override
+    public JobStatsDtoResponse getStats() {
+        JobStatsDtoResponse stats = new JobStatsDtoResponse();
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            stats.setExecutorPoolSize(pool.getPoolSize());
+            stats.setExecutorActiveThreads(pool.getActiveCount());
+            stats.setExecutorQueueSize(pool.getQueueSize());
+            stats.setExecutorQueueCapacity(pool.getQueueCapacity());
+        }
+        stats.setExecutorRejected(executorRejected.get());
+        stats.setRejectedQueueFull(rejectedQueueFull.get());
+        stats.setRejectedClientQuota(rejectedClientQuota.get());
+        List<JobTypeStatsDtoResponse> types = new ArrayList<>();
+        for (JobHandler handler : handlers.values()) {
+            String type = handler.getType();
+            types.add(new JobTypeStatsDtoResponse(type, handler.getConcurrency(),
+                    handler.getConcurrency() - slots.get(type).availablePermits(),
+                    jobs.countByTypeAndStatus(type, JobStatus.QUEUED),
+                    averageRunMillis.get(type).get()));
+        }
+        stats.setTypes(types);
+        return stats;
+    }
+
+    // Исполнитель обновляет heartbeatAt своих задач; задачи, у которых он давно
+    // не обновлялся, остались от остановленного экземпляра и помечаются FAILED.
+    // Завершенные задачи старше ttl удаляются вместе с файлами результатов
+    @Override
+    @Scheduled(fixedDelayString = "${app.jobs.cleanup-interval:PT5M}")
+    public int evictExpiredJobs() {
+        Instant now = Instant.now();
+        if (!running.isEmpty()) {
+            jobs.heartbeat(new ArrayList<>(running.keySet()), now);
+        }
+        for (Job stale : jobs.findByStatusAndHeartbeatAtBefore(
+                JobStatus.RUNNING, now.minus(staleAfter))) {
+            if (!running.containsKey(stale.getId())) {
+                jobs.finish(stale.getId(), JobStatus.FAILED, stale.getProgress(), null,
+                        "Исполнитель задачи не отвечал дольше " + staleAfter, now);
+            }
+        }
+
+        List<Job> expired = jobs.findByFinishedAtBefore(now.minus(ttl));
+        for (Job job : expired) {
+            JobHandler handler = handlers.get(job.getType());
+            if (handler == null || !handler.producesFile() || job.getResult() == null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(Paths.get(job.getResult()));
+            } catch (IOException e) {
+                log.warn("Не удалось удалить результат задачи {}: {}",
+                        job.getId(), e.getMessage());
+            }
+        }
+        jobs.deleteAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("Удалено {} завершенных задач", expired.size());
+        }
+        return expired.size();
+    }
+
+    private Job findJob(Long id) {
+        return jobs.findById(id)
+                .orElseThrow(() -> new NotFoundException("Задача не найдена: " + id));
+    }
+
+    private JobDtoResponse toDto(Job job) {
+        JobHandler handler = handlers.get(job.getType());
+        return jobMapper.toJobDto(job, handler != null && handler.producesFile());
+    }
+
+    private JobHandler handler(String type) {
+        JobHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new InvalidInputException("Неизвестный тип задачи: " + type);
+        }
+        return handler;
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > Job.TEXT_LENGTH
+                ? text.substring(0, Job.TEXT_LENGTH) : text;
+    }
+
+    // Контекст выполнения задачи и поток, который ее выполняет
+    private final class Execution implements JobContext {
+        private final Job job;
+        private Thread thread;
+        private boolean done;
+        private volatile boolean cancelled;
+        private volatile int progress;
+        private long lastCancelCheck = System.nanoTime();
+
+        private Execution(Job job) {
+            this.job = job;
+        }
+
+        private synchronized void attach() {
+            thread = Thread.currentThread();
+        }
+
+        private synchronized void detach() {
+            done = true;
+            Thread.interrupted();
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (thread != null && !done) {
+                thread.interrupt();
+            }
+        }
+
+        @Override
+        public Long getJobId() {
+            return job.getId();
+        }
+
+        @Override
+        public void setProgress(int percent) {
+            int value = Math.max(0, Math.min(100, percent));
+            if (value != progress) {
+                progress = value;
+                jobs.updateProgress(job.getId(), value, Instant.now());
+            }
+        }
+
+        // Флаг отмены с другого экземпляра читается из базы не чаще раза в секунду
+        @Override
+        public boolean isCancelled() {
+            if (cancelled || Thread.currentThread().isInterrupted()) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - lastCancelCheck >= CANCEL_CHECK_NANOS) {
+                lastCancelCheck = now;
+                cancelled = jobs.findCancelRequested(job.getId()).orElse(false);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.jfr.LogScanEvent;
+import com.example.financery.model.Job;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import com.example.financery.utils.LogDayIndex;
+import com.example.financery.utils.LogSegmentStore;
+import com.example.financery.utils.TempFiles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Выгрузка логов за день в файл во временной директории. Задачи одной даты
+ * сводятся в одну по ключу - дате, файл удаляется вместе с задачей.
+ */
+@Service
+public class LogExportJobHandler implements JobHandler {
+
+    public static final String TYPE = "LOG_EXPORT";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    // Имитация долгой задачи: 20 шагов по секунде
+    private static final int WARMUP_STEPS = 20;
+    private static final int WARMUP_PROGRESS = 50;
+
+    private final Path logFilePath;
+    private final Path tempDir;
+    private final LogDayIndex logDayIndex;
+    private final LogSegmentStore segmentStore;
+    private final int concurrency;
+
+    public LogExportJobHandler(
+            @Value("${app.log.file.path}") String logFilePath,
+            @Value("${app.temp.dir.path}") String tempDirPath,
+            LogDayIndex logDayIndex,
+            LogSegmentStore segmentStore,
+            @Value("${app.jobs.log-export.concurrency:2}") int concurrency) {
+        this.logFilePath = Paths.get(logFilePath);
+        this.tempDir = Paths.get(tempDirPath);
+        this.logDayIndex = logDayIndex;
+        this.segmentStore = segmentStore;
+        this.concurrency = concurrency;
+        TempFiles.ensureDirectory(tempDir);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public boolean producesFile() {
+        return true;
+    }
+
+    // payload - дата в формате ISO
+    @Override
+    public String execute(Job job, JobContext context) throws Exception {
+        LocalDate logDate = LocalDate.parse(job.getPayload());
+        for (int step = 1; step <= WARMUP_STEPS; step++) {
+            Thread.sleep(1000);
+            context.checkCancelled();
+            context.setProgress(step * WARMUP_PROGRESS / WARMUP_STEPS);
+        }
+
+        LogScanEvent event = new LogScanEvent();
+        event.begin();
+        LogSegmentStore.Segment segment = segmentStore.find(logDate);
+        List<LogDayIndex.Region> regions = List.of();
+        if (segment == null) {
+            validateLogFileExists(logFilePath);
+            regions = logDayIndex.regionsFor(logDate);
+            if (regions.isEmpty()) {
+                throw new NotFoundException("Нет логов за дату: " + logDate.format(DATE_FORMAT));
+            }
+        }
+
+        Path logFile = createTempFile(logDate);
+        try {
+            long bytes;
+            if (segment != null) {
+                try (InputStream in = segmentStore.openPlain(segment)) {
+                    bytes = Files.copy(in, logFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } else {
+                bytes = logDayIndex.copyRegions(regions, logFile);
+            }
+            if (event.shouldCommit()) {
+                event.operation = "export";
+                event.date = logDate.toString();
+                event.source = segment == null ? "index"
+                        : segment.sealed() ? "sealed-segment" : "segment";
+                event.bytes = bytes;
+                event.commit();
+            }
+            context.checkCancelled();
+        } catch (Exception e) {
+            Files.deleteIfExists(logFile);
+            throw e;
+        }
+        return logFile.toString();
+    }
+
+    private void validateLogFileExists(Path path) {
+        if (!Files.exists(path)) {
+            throw new NotFoundException("Файл не существует: " + path);
+        }
+    }
+
+    private Path createTempFile(LocalDate logDate) throws IOException {
+        return TempFiles.createPrivate(tempDir, "logs-" + logDate + "-", ".log");
+    }
+}
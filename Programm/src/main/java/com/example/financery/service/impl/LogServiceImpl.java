@@ -1,230 +1,439 @@
 package com.example.financery.service.impl;
 
-import com.example.financery.exception.FileNotReadyException;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.LogAppenderStatsDtoResponse;
+import com.example.financery.dto.LogQueryDtoRequest;
+import com.example.financery.dto.LogRecordDtoResponse;
 import com.example.financery.exception.InvalidInputException;
 import com.example.financery.exception.NotFoundException;
-import com.example.financery.model.LogObject;
-import com.example.financery.service.AsyncLogExecutor;
+import com.example.financery.jfr.LogScanEvent;
+import com.example.financery.service.JobService;
 import com.example.financery.service.LogService;
+import com.example.financery.utils.LogDayIndex;
+import com.example.financery.utils.LogQueryReader;
+import com.example.financery.utils.LogSegmentStore;
+import com.example.financery.utils.LogSegments;
+import com.example.financery.utils.RingBufferAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
-import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.attribute.PosixFilePermission;
-import java.nio.file.attribute.PosixFilePermissions;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
 public class LogServiceImpl implements LogService {
 
     private final Path logFilePath;
-    private final Path tempDir;
-    private final AtomicLong idCounter = new AtomicLong(1);
-    private Map<Long, LogObject> tasks = new ConcurrentHashMap<>();
     private static final String DATE_FORMAT = "dd-MM-yyyy"; // Обновлено
 
-    private final AsyncLogExecutor asyncLogExecutor;
+    // Атрибуты запроса, по которым Tomcat отдает участок файла через sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final int GZIP_BUFFER = 64 * 1024;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MILLIS_PER_HOUR = 60 * 60 * 1000;
+    private static final int MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    private final JobService jobService;
+    private final LogDayIndex logDayIndex;
+    private final LogSegmentStore segmentStore;
+    private final ObjectMapper objectMapper;
 
     public LogServiceImpl(
             @Value("${app.log.file.path}") String logFilePath,
-            @Value("${app.temp.dir.path}") String tempDirPath,
-            AsyncLogExecutor asyncLogExecutor,
-            Map<Long, LogObject> tasks) {
+            JobService jobService,
+            LogDayIndex logDayIndex,
+            LogSegmentStore segmentStore,
+            ObjectMapper objectMapper) {
         this.logFilePath = Paths.get(logFilePath);
-        this.tempDir = Paths.get(tempDirPath);
-        this.asyncLogExecutor = asyncLogExecutor;
-        this.tasks = tasks;
-        ensureTempDirExists();
+        this.jobService = jobService;
+        this.logDayIndex = logDayIndex;
+        this.segmentStore = segmentStore;
+        this.objectMapper = objectMapper;
     }
 
-    public void ensureTempDirExists() {
+    @Override
+    public void writeLogs(String date, boolean gzip,
+                          HttpServletRequest request, HttpServletResponse response) {
+        LocalDate logDate = parseDate(date);
+        String fileName = "logs-" + logDate + ".log";
         try {
-            if (!Files.exists(tempDir)) {
-                Files.createDirectories(tempDir);
-                log.info("Создана защищённая временная директория: {}", tempDir);
+            LogSegmentStore.Segment segment = segmentStore.find(logDate);
+            if (segment != null) {
+                writeSegment(segment, logDate, gzip, fileName, request, response);
+            } else {
+                writeIndexed(logDate, gzip, fileName, request, response);
             }
         } catch (IOException e) {
-            throw new IllegalStateException(
-                    "Не удаётся создать защищённую временную директорию",
-                    e);
+            throw new IllegalStateException("Ошибка при передаче логов: " + e.getMessage());
         }
+        log.info("Логи за дату {} переданы клиенту", date);
     }
 
-    @Override
-    public Resource downloadLogs(String date) {
-        LocalDate logDate = parseDate(date);
+    // Сегмент за день отдается как файл целиком, без поиска по индексу
+    private void writeSegment(LogSegmentStore.Segment segment, LocalDate logDate, boolean gzip,
+                              String fileName,
+                              HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long size = Files.size(segment.file());
+        List<LogDayIndex.Region> whole = List.of(new LogDayIndex.Region(segment.file(), 0, size));
+        if (!segment.sealed()) {
+            if (size == 0) {
+                throw noLogs(logDate);
+            }
+            if (gzip) {
+                writeGzip(whole, size, fileName + ".gz", response);
+            } else {
+                writeRange(whole, size, fileName, MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                        request, response);
+            }
+            return;
+        }
+        if (gzip) {
+            // Запечатанный сегмент уже является gzip-файлом
+            writeRange(whole, size, fileName + ".gz", "application/gzip", request, response);
+            return;
+        }
+        LogSegments.Footer footer = LogSegments.readFooter(segment.file());
+        if (footer.plainLength() == 0) {
+            throw noLogs(logDate);
+        }
+        writeSealedRange(segment.file(), footer, fileName, request, response);
+    }
+
+    private NotFoundException noLogs(LocalDate logDate) {
+        return new NotFoundException("Нет логов за указанную дату: "
+                + logDate.format(DateTimeFormatter.ofPattern(DATE_FORMAT)));
+    }
+
+    // Распаковывается только часть, начиная с часа, в который попадает начало диапазона
+    private void writeSealedRange(Path file, LogSegments.Footer footer, String fileName,
+                                  HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long total = footer.plainLength();
+        String etag = "\"" + Long.toHexString(Files.getLastModifiedTime(file).toMillis())
+                + "-" + Long.toHexString(total) + "\"";
+        long[] range = startResponse(total, etag, fileName,
+                MediaType.APPLICATION_OCTET_STREAM_VALUE, request, response);
+        if (range == null) {
+            return;
+        }
+        int member = LogSegments.memberAt(footer, range[0]);
+        try (InputStream in = LogSegments.openMembers(
+                file, footer, member, footer.members().size())) {
+            in.skipNBytes(range[0] - footer.members().get(member).plainOffset());
+            copy(in, response.getOutputStream(), range[1] - range[0]);
+        }
+        response.flushBuffer();
+    }
+
+    private void copy(InputStream in, OutputStream out, long length) throws IOException {
+        byte[] buffer = new byte[GZIP_BUFFER];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new IOException("Сегмент логов короче, чем указано в его индексе");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    // Дни до перехода на посуточные сегменты ищутся по индексу app.log
+    private void writeIndexed(LocalDate logDate, boolean gzip, String fileName,
+                              HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         validateLogFileExists(logFilePath);
-        String formattedDate = logDate.format(DateTimeFormatter.ofPattern(DATE_FORMAT));
+        List<LogDayIndex.Region> regions = logDayIndex.regionsFor(logDate);
+        long total = LogDayIndex.totalLength(regions);
+        if (total == 0) {
+            throw noLogs(logDate);
+        }
+        if (gzip) {
+            writeGzip(regions, total, fileName + ".gz", response);
+        } else {
+            writeRange(regions, total, fileName, MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                    request, response);
+        }
+    }
 
-        Path tempFilePath = createTempFile(logDate);
-        filterAndWriteLogsToTempFile(logFilePath, formattedDate, tempFilePath);
+    // Данные идут прямо из участков файлов логов, без промежуточного временного файла
+    private void writeRange(List<LogDayIndex.Region> regions, long total, String fileName,
+                            String contentType,
+                            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long[] range = startResponse(total, etag(regions, total), fileName, contentType,
+                request, response);
+        if (range == null) {
+            return;
+        }
+        long from = range[0];
+        long to = range[1];
 
-        Resource resource = createResourceFromTempFile(tempFilePath, date);
-        log.info("Файл логов с датой {} успешно загружен", date);
-        return resource;
+        // Если нужный участок лежит в одном файле, отдаем его через sendfile контейнера
+        LogDayIndex.Region slice = LogDayIndex.sliceOfSingleRegion(regions, from, to);
+        if (slice != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, slice.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, slice.start());
+            request.setAttribute(SENDFILE_END, slice.end());
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        LogDayIndex.transferRegions(regions, from, to, out);
+        response.flushBuffer();
     }
 
-    @Override
-    public LocalDate parseDate(String date) {
-        log.debug("Получена дата для парсинга: '{}'", date); // Отладочный лог
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_FORMAT);
-            log.debug("Используемый формат: '{}'", DATE_FORMAT); // Лог формата
-            return LocalDate.parse(date.trim(), formatter); // Убираем пробелы
-        } catch (DateTimeParseException e) {
-            log.error("Ошибка парсинга даты: '{}', причина: {}", date, e.getMessage());
-            throw new InvalidInputException("Неверный формат даты. Требуется " + DATE_FORMAT);
+    // Заголовки ответа и диапазон [from, to) для отдачи или null, если отдан статус 416.
+    // Поддерживается один диапазон Range; несколько диапазонов отдаются целиком.
+    private long[] startResponse(long total, String etag, String fileName, String contentType,
+                                 HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "\"");
+
+        long from = 0;
+        long to = total;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+            if (ranges.size() == 1) {
+                from = ranges.get(0).getRangeStart(total);
+                to = ranges.get(0).getRangeEnd(total) + 1;
+                if (from >= total || from >= to) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+                    return null;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + from + "-" + (to - 1) + "/" + total);
+            }
         }
+        response.setContentLengthLong(to - from);
+        return new long[] {from, to};
     }
 
-    @Override
-    public void validateLogFileExists(Path path) {
-        if (!Files.exists(path)) {
-            throw new NotFoundException("Файл не существует: " + path);
+    private void writeGzip(List<LogDayIndex.Region> regions, long total, String fileName,
+                           HttpServletResponse response) throws IOException {
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "\"");
+        GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER);
+        LogDayIndex.transferRegions(regions, 0, total, Channels.newChannel(gzip));
+        gzip.finish();
+        response.flushBuffer();
+    }
+
+    private List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // Некорректный заголовок Range игнорируется, как допускает RFC 9110
+            return List.of();
         }
     }
 
+    // Меняется при дописывании строк за день, поэтому If-Range не склеит разные версии
+    private String etag(List<LogDayIndex.Region> regions, long total) {
+        LogDayIndex.Region last = regions.get(regions.size() - 1);
+        return "\"" + Long.toHexString(regions.get(0).start()) + "-"
+                + Long.toHexString(last.end()) + "-" + Long.toHexString(total) + "\"";
+    }
+
     @Override
-    public Path createTempFile(LocalDate logDate) {
-        try {
-            String osName = System.getProperty("os.name").toLowerCase();
-
-            if (osName.contains("win")) {
-                Path tempFilePath = Files.createTempFile(tempDir, "log-" + logDate + "-", ".log");
-                java.io.File tempFile = tempFilePath.toFile();
-                if (!tempFile.setReadable(true, true)) {
-                    throw new IllegalStateException(
-                            "Не удалось установить права на чтение для временного файла: "
-                                    + tempFile);
-                }
-                if (!tempFile.setWritable(true, true)) {
-                    throw new IllegalStateException(
-                            "Не удалось установить права на запись для временного файла: "
-                                    + tempFile);
-                }
-                if (tempFile.canExecute() && !tempFile.setExecutable(false, false)) {
-                    log.warn(
-                            "Не удалось удалить права на выполнение для временного файла: {}",
-                            tempFile);
+    public void queryLogs(LogQueryDtoRequest query, HttpServletResponse response) {
+        LogScanEvent event = new LogScanEvent();
+        event.begin();
+        int fromMillis = millisOfDay(query.getFrom(), 0);
+        int toMillis = millisOfDay(query.getTo(), MILLIS_PER_DAY);
+        if (fromMillis >= toMillis) {
+            throw new InvalidInputException("Начало окна должно быть раньше его конца");
+        }
+        LogQueryReader reader = new LogQueryReader(fromMillis, toMillis, query.getLevel(),
+                query.getLogger(), query.getThread(), query.getLimit());
+        LogSegmentStore.Segment segment = segmentStore.find(query.getDate());
+        if (segment == null) {
+            validateLogFileExists(logFilePath);
+        }
+
+        // Записи отдаются по мере чтения, по одному JSON-объекту на строку
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        int found;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            Consumer<LogRecordDtoResponse> sink = logRecord -> {
+                try {
+                    writer.write(logRecord);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                log.info("Создан защищённый временный файл на Windows: {}",
-                        tempFile.getAbsolutePath());
-                return tempFilePath;
-            } else if (osName.contains("nix") || osName.contains("nux") || osName.contains("mac")) {
-                java.nio.file.attribute.FileAttribute<Set<PosixFilePermission>> attr =
-                        PosixFilePermissions.asFileAttribute(PosixFilePermissions
-                                .fromString("rw-------"));
-                Path tempFilePath = Files.createTempFile(tempDir,
-                        "log-" + logDate + "-", ".log", attr);
-                log.info("Создан защищённый временный файл на Unix/Linux: {}",
-                        tempFilePath.toAbsolutePath());
-                return tempFilePath;
-            } else {
-                throw new IllegalStateException("Неподдерживаемая ОС: " + osName);
+            };
+            found = readRecords(query.getDate(), segment, reader, sink);
+            if (found > 0) {
+                writer.flush();
+                response.getOutputStream().write('\n');
             }
-        } catch (IOException e) {
-            throw new IllegalStateException("Ошибка при создании временного файла: "
-                    + e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Ошибка при выборке логов: " + e.getMessage());
+        }
+        if (event.shouldCommit()) {
+            event.operation = "query";
+            event.date = query.getDate().toString();
+            event.source = segment == null ? "index"
+                    : segment.sealed() ? "sealed-segment" : "segment";
+            event.rows = found;
+            event.commit();
+        }
+        log.info("Выборка логов за {}: найдено записей {}", query.getDate(), found);
+    }
+
+    private int readRecords(LocalDate date, LogSegmentStore.Segment segment,
+                            LogQueryReader reader, Consumer<LogRecordDtoResponse> sink)
+            throws IOException {
+        if (segment == null) {
+            return reader.read(logDayIndex.regionsFor(date), sink);
+        }
+        if (!segment.sealed()) {
+            return reader.read(List.of(new LogDayIndex.Region(
+                    segment.file(), 0, Files.size(segment.file()))), sink);
+        }
+        // В запечатанном сегменте распаковываются только часы, пересекающие окно
+        LogSegments.Footer footer = LogSegments.readFooter(segment.file());
+        List<LogSegments.Member> members = footer.members();
+        int first = 0;
+        while (first + 1 < members.size()
+                && members.get(first + 1).hour() * MILLIS_PER_HOUR <= reader.scanFromMillis()) {
+            first++;
+        }
+        int last = first;
+        while (last < members.size()
+                && members.get(last).hour() * MILLIS_PER_HOUR < reader.scanToMillis()) {
+            last++;
+        }
+        if (first >= last) {
+            return 0;
+        }
+        try (InputStream in = LogSegments.openMembers(segment.file(), footer, first, last)) {
+            return reader.read(in, sink);
         }
     }
 
     @Override
-    public void filterAndWriteLogsToTempFile(Path logFilePath,
-                                             String formattedDate,
-                                             Path tempFilePath) {
-        try (BufferedReader reader = Files.newBufferedReader(logFilePath)) {
-            Files.write(tempFilePath, reader.lines()
-                    .filter(line -> line.contains(formattedDate))
-                    .toList());
-            log.info(
-                    "Отфильтрованные логи за дату {} записаны во временный файл {}",
-                    formattedDate, tempFilePath);
-        } catch (IOException e) {
-            throw new IllegalStateException(
-                    "Ошибка при обработке файла логов: "
-                            + e.getMessage());
+    public List<LogAppenderStatsDtoResponse> getAppenderStats() {
+        List<LogAppenderStatsDtoResponse> stats = new ArrayList<>();
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext context)) {
+            return stats;
+        }
+        // Один аппендер может быть подключен к нескольким логгерам
+        List<RingBufferAppender> seen = new ArrayList<>();
+        for (ch.qos.logback.classic.Logger logger : context.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof RingBufferAppender ring && !seen.contains(ring)) {
+                    seen.add(ring);
+                    stats.add(new LogAppenderStatsDtoResponse(ring.getName(),
+                            ring.getOverflowPolicy().name(), ring.getCapacity(),
+                            ring.getQueueDepth(), ring.getDroppedCount()));
+                }
+            }
         }
+        return stats;
     }
 
-    protected Resource createUrlResource(URI uri) throws MalformedURLException {
-        return new UrlResource(uri);
+    private int millisOfDay(LocalTime time, int defaultMillis) {
+        return time != null ? (int) (time.toNanoOfDay() / 1_000_000) : defaultMillis;
     }
 
     @Override
-    public Resource createResourceFromTempFile(Path tempFilePath, String date) {
+    public LocalDate parseDate(String date) {
+        log.debug("Получена дата для парсинга: '{}'", date); // Отладочный лог
         try {
-            long size = Files.size(tempFilePath);
-            log.debug("Размер временного файла {}: {} байт", tempFilePath, size);
-            if (size == 0) {
-                throw new NotFoundException("Нет логов за указанную дату: " + date);
-            }
-            Resource resource = createUrlResource(tempFilePath.toUri());
-            tempFilePath.toFile().deleteOnExit();
-            log.info("Создан загружаемый ресурс из временного файла: {}", tempFilePath);
-            return resource;
-        } catch (IOException e) {
-            throw new IllegalStateException(
-                    "Ошибка при создании ресурса из временного файла: "
-                            + e.getMessage());
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_FORMAT);
+            log.debug("Используемый формат: '{}'", DATE_FORMAT); // Лог формата
+            return LocalDate.parse(date.trim(), formatter); // Убираем пробелы
+        } catch (DateTimeParseException e) {
+            log.error("Ошибка парсинга даты: '{}', причина: {}", date, e.getMessage());
+            throw new InvalidInputException("Неверный формат даты. Требуется " + DATE_FORMAT);
         }
     }
 
     @Override
-    public Long createLogAsync(String date) {
+    public void validateLogFileExists(Path path) {
+        if (!Files.exists(path)) {
+            throw new NotFoundException("Файл не существует: " + path);
+        }
+    }
+
+    // Выгрузки одной даты сводятся в одну задачу по ключу - дате
+    @Override
+    public Long createLogAsync(String date, String clientId) {
         log.debug("Вызов createLogAsync с датой: '{}'", date); // Отладочный лог
-        Long id = idCounter.getAndIncrement();
-        LogObject logObject = new LogObject(id, "IN_PROGRESS");
-        tasks.put(id, logObject);
-        asyncLogExecutor.executeCreateLogs(id, date);
-        return id;
+        LocalDate logDate = parseDate(date);
+        return jobService.submit(LogExportJobHandler.TYPE, logDate.toString(),
+                logDate.toString(), JobService.DEFAULT_PRIORITY, clientId);
     }
 
     @Override
-    public LogObject getStatus(Long taskId) {
-        LogObject obj = tasks.get(taskId);
-        if (obj == null) {
+    public JobDtoResponse getStatus(Long taskId) {
+        JobDtoResponse job = jobService.getJob(taskId);
+        if (!LogExportJobHandler.TYPE.equals(job.getType())) {
             throw new NotFoundException("Log object not found");
         }
-        return obj;
+        return job;
     }
 
     @Override
     public ResponseEntity<Resource> downloadCreatedLogs(Long taskId) {
         log.info("Запрос на скачивание логов для ID: {}", taskId);
 
-        LogObject logObject = getStatus(taskId);
-        if (!"COMPLETED".equals(logObject.getStatus())) {
-            log.error("Файл логов не готов. Текущий статус: {}", logObject.getStatus());
-            throw new FileNotReadyException(
-                    "Файл логов не готов. Текущий статус: " + logObject.getStatus());
-        }
-
-        Path path = Paths.get(logObject.getFilePath());
-        if (!Files.exists(path)) {
-            log.error("Файл логов не существует по пути: {}", path);
-            throw new NotFoundException("Файл логов не существует по пути: " + path);
-        }
+        getStatus(taskId);
+        Path path = jobService.getResultFile(taskId);
 
         try {
             Resource resource = new UrlResource(path.toUri());
@@ -0,0 +1,224 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.aspect.Traced;
+import com.example.financery.dto.MonthlySummaryDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.model.ArchivedTransaction;
+import com.example.financery.model.MonthlyRollup;
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import com.example.financery.repository.BillRepository;
+import com.example.financery.repository.MonthlyRollupRepository;
+import com.example.financery.repository.MonthlyRollupRepository.MonthlyTotal;
+import com.example.financery.repository.TagRepository;
+import com.example.financery.repository.TransactionRepository;
+import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Traced
+@Service
+@AllArgsConstructor
+public class MonthlyRollupServiceImpl implements MonthlyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupServiceImpl.class);
+
+    private static final YearMonth MIN_MONTH = YearMonth.of(1970, 1);
+    private static final YearMonth MAX_MONTH = YearMonth.of(9999, 12);
+    private static final int ARCHIVE_BATCH_SIZE = 1000;
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final BillRepository billRepository;
+    private final TagRepository tagRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService archiveService;
+
+    @Override
+    @Transactional
+    public void applyTransaction(Transaction transaction) {
+        addToRollups(transaction, transaction.getAmount(), 1);
+    }
+
+    @Override
+    @Transactional
+    public void revertTransaction(Transaction transaction) {
+        addToRollups(transaction, -transaction.getAmount(), -1);
+        rollupRepository.deleteEmptyForUser(transaction.getUser().getId());
+    }
+
+    private void addToRollups(Transaction transaction, double amount, long count) {
+        addToRollups(transaction.getUser().getId(), transaction.getBill().getId(),
+                transaction.getDate(), transaction.isType(),
+                transaction.getTags().stream().map(Tag::getId).toList(), amount, count);
+    }
+
+    private void addToRollups(long userId, long billId, LocalDate date, boolean type,
+                              List<Long> tagIds, double amount, long count) {
+        LocalDate month = date.withDayOfMonth(1);
+
+        rollupRepository.upsert(userId, billId, MonthlyRollup.ALL_TAGS,
+                month, type, amount, count);
+        for (Long tagId : tagIds) {
+            rollupRepository.upsert(userId, billId, tagId,
+                    month, type, amount, count);
+        }
+    }
+
+    @Override
+    public List<MonthlySummaryDtoResponse> getUserSummary(
+            long userId, YearMonth from, YearMonth to) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(
+                    String.format(TransactionServiceImpl.USER_WITH_ID_NOT_FOUND, userId));
+        }
+        YearMonth start = orMin(from);
+        YearMonth end = orMax(to);
+        validateRange(start, end);
+        return toSummaries(rollupRepository.sumByUser(
+                userId, start.atDay(1), end.atDay(1)));
+    }
+
+    @Override
+    public List<MonthlySummaryDtoResponse> getBillSummary(
+            long billId, YearMonth from, YearMonth to) {
+        if (!billRepository.existsById(billId)) {
+            throw new NotFoundException(
+                    String.format(TransactionServiceImpl.BILL_WITH_ID_NOT_FOUND, billId));
+        }
+        YearMonth start = orMin(from);
+        YearMonth end = orMax(to);
+        validateRange(start, end);
+        return toSummaries(rollupRepository.sumByBill(
+                billId, start.atDay(1), end.atDay(1)));
+    }
+
+    @Override
+    public List<MonthlySummaryDtoResponse> getTagSummary(
+            long tagId, YearMonth from, YearMonth to) {
+        if (!tagRepository.existsById(tagId)) {
+            throw new NotFoundException(
+                    String.format(TagServiceImpl.TAG_WITH_ID_NOT_FOUND, tagId));
+        }
+        YearMonth start = orMin(from);
+        YearMonth end = orMax(to);
+        validateRange(start, end);
+        return toSummaries(rollupRepository.sumByTag(
+                tagId, start.atDay(1), end.atDay(1)));
+    }
+
+    private YearMonth orMin(YearMonth month) {
+        return month != null ? month : MIN_MONTH;
+    }
+
+    private YearMonth orMax(YearMonth month) {
+        return month != null ? month : MAX_MONTH;
+    }
+
+    private void validateRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new InvalidInputException("Начало периода не может быть позже его конца");
+        }
+    }
+
+    private List<MonthlySummaryDtoResponse> toSummaries(List<MonthlyTotal> totals) {
+        Map<LocalDate, MonthlySummaryDtoResponse> summaries = new LinkedHashMap<>();
+        for (MonthlyTotal total : totals) {
+            MonthlySummaryDtoResponse summary = summaries.computeIfAbsent(
+                    total.getMonth(), month -> {
+                        MonthlySummaryDtoResponse dto = new MonthlySummaryDtoResponse();
+                        dto.setMonth(YearMonth.from(month));
+                        return dto;
+                    });
+            if (Boolean.TRUE.equals(total.getType())) {
+                summary.setIncome(total.getAmount());
+                summary.setIncomeCount(total.getTransactionCount());
+            } else {
+                summary.setExpense(total.getAmount());
+                summary.setExpenseCount(total.getTransactionCount());
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    @Override
+    @Transactional
+    public void deleteForUser(long userId) {
+        rollupRepository.deleteByUser(userId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteForBill(long billId) {
+        rollupRepository.deleteByBill(billId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteForTag(long tagId) {
+        rollupRepository.deleteByTag(tagId);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRollups();
+        int rows = rollupRepository.rebuildAll();
+
+        // Итоги архивных транзакций собираются из сегментов. Теги, удаленные после
+        // архивации, в итоги не попадают.
+        Set<Long> existingTags = new HashSet<>(tagRepository.findAllIds());
+        List<ArchivedTransaction> batch = new ArrayList<>(ARCHIVE_BATCH_SIZE);
+        int[] archived = {0};
+        archiveService.forEachArchived((ArchivedTransaction row) -> {
+            batch.add(row);
+            if (batch.size() == ARCHIVE_BATCH_SIZE) {
+                archived[0] += addArchivedToRollups(batch, existingTags);
+                batch.clear();
+            }
+        });
+        archived[0] += addArchivedToRollups(batch, existingTags);
+
+        log.info("Помесячные итоги пересобраны, строк: {}, архивных транзакций: {}",
+                rows, archived[0]);
+        return rows;
+    }
+
+    // После сбоя архивации строка может остаться и в таблице, и в сегменте;
+    // rebuildAll ее уже учел, поэтому такие строки пропускаются
+    private int addArchivedToRollups(List<ArchivedTransaction> rows, Set<Long> existingTags) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Set<Long> live = new HashSet<>(transactionRepository.findExistingIds(
+                rows.stream().map(ArchivedTransaction::getId).toList()));
+        int added = 0;
+        for (ArchivedTransaction row : rows) {
+            if (live.contains(row.getId())) {
+                continue;
+            }
+            List<Long> tagIds = row.getTagIds().stream()
+                    .filter(existingTags::contains)
+                    .toList();
+            addToRollups(row.getUserId(), row.getBillId(), row.getDate(), row.isType(),
+                    tagIds, row.getAmount(), 1);
+            added++;
+        }
+        return added;
+    }
+}
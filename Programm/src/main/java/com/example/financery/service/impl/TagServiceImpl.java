@@ -1,5 +1,6 @@
 package com.example.financery.service.impl;
 
+import com.example.financery.aspect.Traced;
 import com.example.financery.dto.TagDtoRequest;
 import com.example.financery.dto.TagDtoResponse;
 import com.example.financery.dto.TransactionDtoResponse;
@@ -14,6 +15,7 @@ import com.example.financery.model.User;
 import com.example.financery.repository.TagRepository;
 import com.example.financery.repository.TransactionRepository;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
 import com.example.financery.service.TagService;
 import com.example.financery.utils.InMemoryCache;
 import jakarta.transaction.Transactional;
@@ -26,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+@Traced
 @Service
 @AllArgsConstructor
 public class TagServiceImpl implements TagService {
@@ -37,6 +40,7 @@ public class TagServiceImpl implements TagService {
     private final TransactionMapper transactionMapper;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final MonthlyRollupService rollupService;
 
     private final InMemoryCache cache;
 
@@ -177,5 +181,6 @@ public class TagServiceImpl implements TagService {
         }
 
         tagRepository.delete(tag);
+        rollupService.deleteForTag(id);
     }
 }
\ No newline at end of file
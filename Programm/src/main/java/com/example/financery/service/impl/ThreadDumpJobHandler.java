@@ -0,0 +1,47 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.model.Job;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import com.example.financery.utils.DiagnosticCommands;
+import com.example.financery.utils.TempFiles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Дамп стеков потоков с удерживаемыми блокировками в текстовый файл.
+ */
+@Service
+public class ThreadDumpJobHandler implements JobHandler {
+
+    public static final String TYPE = "THREAD_DUMP";
+
+    private final Path tempDir;
+
+    public ThreadDumpJobHandler(@Value("${app.temp.dir.path}") String tempDirPath) {
+        this.tempDir = Paths.get(tempDirPath);
+        TempFiles.ensureDirectory(tempDir);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public boolean producesFile() {
+        return true;
+    }
+
+    @Override
+    public String execute(Job job, JobContext context) throws Exception {
+        String dump = DiagnosticCommands.threadDump();
+        Path file = TempFiles.createPrivate(tempDir, "thread-dump-" + job.getId() + "-", ".txt");
+        Files.writeString(file, dump);
+        return file.toString();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.aspect.Traced;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.model.ArchivedTransaction;
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import com.example.financery.repository.TransactionRepository;
+import com.example.financery.service.TransactionArchiveService;
+import com.example.financery.utils.InMemoryCache;
+import com.example.financery.utils.TransactionSegmentCodec;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Traced
+@Service
+public class TransactionArchiveServiceImpl implements TransactionArchiveService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TransactionArchiveServiceImpl.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final DateTimeFormatter SEGMENT_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final TransactionRepository transactionRepository;
+    private final InMemoryCache cache;
+    private final Path archiveDir;
+    private final int cutoffMonths;
+
+    // Сегменты переписываются целиком; чтение идет без блокировки,
+    // так как файл подменяется атомарным переименованием
+    private final ReentrantLock segmentLock = new ReentrantLock();
+
+    public TransactionArchiveServiceImpl(
+            TransactionRepository transactionRepository,
+            InMemoryCache cache,
+            @Value("${app.archive.dir:archive}") String archiveDir,
+            @Value("${app.archive.cutoff-months:24}") int cutoffMonths) {
+        this.transactionRepository = transactionRepository;
+        this.cache = cache;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize();
+        this.cutoffMonths = cutoffMonths;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public int archiveExpired() {
+        return archiveBefore(latestCutoff());
+    }
+
+    // Граница не может быть позже срока хранения: иначе в архив уйдут свежие месяцы,
+    // которые еще меняются и читаются из таблицы
+    @Override
+    public void validateCutoff(LocalDate cutoff) {
+        LocalDate latest = latestCutoff();
+        if (cutoff.isAfter(latest)) {
+            throw new InvalidInputException(String.format(
+                    "Граница архивации не может быть позже %s (срок хранения %d мес.)",
+                    latest, cutoffMonths));
+        }
+    }
+
+    private LocalDate latestCutoff() {
+        return LocalDate.now().minusMonths(cutoffMonths);
+    }
+
+    // Переносит в архив целые месяцы строго до месяца, содержащего cutoff.
+    // Помесячные итоги остаются в базе, поэтому сводки не меняются.
+    @Override
+    @Transactional
+    public int archiveBefore(LocalDate cutoff) {
+        validateCutoff(cutoff);
+        LocalDate boundary = cutoff.withDayOfMonth(1);
+        int archived = 0;
+
+        for (Long userId : transactionRepository.findUserIdsWithTransactionsBefore(boundary)) {
+            List<Transaction> transactions =
+                    transactionRepository.findByUserIdAndDateBefore(userId, boundary);
+            Map<YearMonth, List<ArchivedTransaction>> byMonth = transactions.stream()
+                    .map(this::toArchived)
+                    .collect(Collectors.groupingBy(row -> YearMonth.from(row.getDate())));
+
+            // Сначала пишем сегменты, потом удаляем строки: при сбое удаления
+            // строка окажется и в архиве, и в таблице, а чтение отдаст ее один раз
+            segmentLock.lock();
+            try {
+                byMonth.forEach((month, rows) -> mergeIntoSegment(userId, month, rows));
+            } finally {
+                segmentLock.unlock();
+            }
+            transactionRepository.deleteTagLinksByUserIdAndDateBefore(userId, boundary);
+            transactionRepository.deleteByUserIdAndDateBefore(userId, boundary);
+            cache.clearForUser(userId);
+            archived += transactions.size();
+        }
+
+        if (archived > 0) {
+            log.info("В архив перенесено {} транзакций с датой до {}", archived, boundary);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<ArchivedTransaction> findByUser(long userId, LocalDate from, LocalDate to) {
+        return findPageByUser(userId, from, to, row -> true, Integer.MAX_VALUE);
+    }
+
+    // Сегменты читаются по возрастанию месяца, поэтому, набрав limit строк,
+    // можно остановиться: строки следующих месяцев в страницу уже не попадут
+    @Override
+    public List<ArchivedTransaction> findPageByUser(long userId, LocalDate from, LocalDate to,
+                                                    Predicate<ArchivedTransaction> filter,
+                                                    int limit) {
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(to);
+        List<ArchivedTransaction> result = new ArrayList<>();
+
+        for (Map.Entry<YearMonth, Path> segment : listSegments(userId).entrySet()) {
+            if (result.size() >= limit || segment.getKey().isAfter(lastMonth)) {
+                break;
+            }
+            if (segment.getKey().isBefore(firstMonth)) {
+                continue;
+            }
+            readSegment(segment.getValue()).stream()
+                    .filter(row -> !row.getDate().isBefore(from) && !row.getDate().isAfter(to))
+                    .filter(filter)
+                    .sorted(Comparator.comparing(ArchivedTransaction::getDate)
+                            .thenComparingLong(ArchivedTransaction::getId))
+                    .forEach(result::add);
+        }
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    @Override
+    public void forEachArchived(Consumer<ArchivedTransaction> action) {
+        if (!Files.isDirectory(archiveDir)) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(archiveDir)) {
+            dirs.filter(Files::isDirectory).forEach(dir -> {
+                try {
+                    userIds.add(Long.parseLong(dir.getFileName().toString()));
+                } catch (NumberFormatException e) {
+                    log.warn("Пропущен посторонний каталог в архиве: {}", dir);
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать каталог архива " + archiveDir, e);
+        }
+        for (Long userId : userIds) {
+            for (Path segment : listSegments(userId).values()) {
+                readSegment(segment).forEach(action);
+            }
+        }
+    }
+
+    @Override
+    public void deleteForUser(long userId) {
+        segmentLock.lock();
+        try {
+            for (Path segment : listSegments(userId).values()) {
+                Files.deleteIfExists(segment);
+            }
+            Files.deleteIfExists(userDir(userId));
+            cache.clearForUser(userId);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Не удалось удалить архив пользователя " + userId, e);
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteForBill(long userId, long billId) {
+        segmentLock.lock();
+        try {
+            for (Map.Entry<YearMonth, Path> segment : listSegments(userId).entrySet()) {
+                List<ArchivedTransaction> rows = readSegment(segment.getValue());
+                List<ArchivedTransaction> kept = rows.stream()
+                        .filter(row -> row.getBillId() != billId)
+                        .toList();
+                if (kept.size() != rows.size()) {
+                    writeSegment(userId, segment.getKey(), kept);
+                }
+            }
+            // Список транзакций пользователя в кэше содержит и архивные строки
+            cache.clearForUser(userId);
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    private void mergeIntoSegment(long userId, YearMonth month, List<ArchivedTransaction> rows) {
+        Path segment = segmentPath(userId, month);
+        Map<Long, ArchivedTransaction> merged = new LinkedHashMap<>();
+        if (Files.exists(segment)) {
+            readSegment(segment).forEach(row -> merged.put(row.getId(), row));
+        }
+        rows.forEach(row -> merged.put(row.getId(), row));
+        writeSegment(userId, month, new ArrayList<>(merged.values()));
+    }
+
+    private void writeSegment(long userId, YearMonth month, List<ArchivedTransaction> rows) {
+        Path segment = segmentPath(userId, month);
+        try {
+            if (rows.isEmpty()) {
+                Files.deleteIfExists(segment);
+                return;
+            }
+            Files.createDirectories(segment.getParent());
+            Path tempFile = Files.createTempFile(segment.getParent(), month.toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                TransactionSegmentCodec.write(out, userId, rows);
+            }
+            Files.move(tempFile, segment,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось записать архивный сегмент " + segment, e);
+        }
+    }
+
+    private List<ArchivedTransaction> readSegment(Path segment) {
+        try (InputStream in = Files.newInputStream(segment)) {
+            return TransactionSegmentCodec.read(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать архивный сегмент " + segment, e);
+        }
+    }
+
+    private Map<YearMonth, Path> listSegments(long userId) {
+        Path dir = userDir(userId);
+        Map<YearMonth, Path> segments = new TreeMap<>(Comparator.naturalOrder());
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(SEGMENT_SUFFIX)) {
+                    return;
+                }
+                try {
+                    String month = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+                    segments.put(YearMonth.parse(month, SEGMENT_MONTH), file);
+                } catch (DateTimeParseException e) {
+                    log.warn("Пропущен посторонний файл в архиве: {}", file);
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать каталог архива " + dir, e);
+        }
+        return segments;
+    }
+
+    private Path userDir(long userId) {
+        return archiveDir.resolve(Long.toString(userId));
+    }
+
+    private Path segmentPath(long userId, YearMonth month) {
+        return userDir(userId).resolve(month.format(SEGMENT_MONTH) + SEGMENT_SUFFIX);
+    }
+
+    private ArchivedTransaction toArchived(Transaction transaction) {
+        ArchivedTransaction row = new ArchivedTransaction();
+        row.setId(transaction.getId());
+        row.setName(transaction.getName());
+        row.setDescription(transaction.getDescription());
+        row.setType(transaction.isType());
+        row.setAmount(transaction.getAmount());
+        row.setDate(transaction.getDate());
+        row.setUserId(transaction.getUser().getId());
+        row.setBillId(transaction.getBill().getId());
+        row.setTagIds(transaction.getTags().stream().map(Tag::getId).collect(Collectors.toList()));
+        return row;
+    }
+}
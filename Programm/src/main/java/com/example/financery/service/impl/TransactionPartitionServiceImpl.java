@@ -0,0 +1,43 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.repository.TransactionRepository;
+import com.example.financery.service.TransactionPartitionService;
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TransactionPartitionServiceImpl implements TransactionPartitionService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TransactionPartitionServiceImpl.class);
+
+    private final TransactionRepository transactionRepository;
+    private final int monthsAhead;
+
+    public TransactionPartitionServiceImpl(
+            TransactionRepository transactionRepository,
+            @Value("${app.partition.months-ahead:3}") int monthsAhead) {
+        this.transactionRepository = transactionRepository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    // Заранее создает месячные секции transaction_table, чтобы новые транзакции
+    // не попадали в секцию по умолчанию
+    @Override
+    @Transactional
+    @Scheduled(cron = "${app.partition.cron:0 0 3 * * *}")
+    public int ensurePartitions() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        LocalDate to = from.plusMonths(monthsAhead);
+        int created = transactionRepository.createPartitions(from, to);
+        if (created > 0) {
+            log.info("Создано секций transaction_table: {} (по {})", created, to);
+        }
+        return created;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.financery.service.impl;
 
+import com.example.financery.aspect.Traced;
 import com.example.financery.dto.BillDtoResponse;
 import com.example.financery.dto.TransactionDtoRequest;
 import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.dto.TransactionFilterDtoRequest;
+import com.example.financery.dto.TransactionPageDtoResponse;
 import com.example.financery.exception.InvalidInputException;
 import com.example.financery.exception.NotFoundException;
+import com.example.financery.jfr.BalanceUpdateEvent;
+import com.example.financery.jfr.TransactionReadEvent;
+import com.example.financery.jfr.TransactionWriteEvent;
 import com.example.financery.mapper.TransactionMapper;
+import com.example.financery.model.ArchivedTransaction;
 import com.example.financery.model.Bill;
 import com.example.financery.model.Tag;
 import com.example.financery.model.Transaction;
@@ -13,7 +20,10 @@ import com.example.financery.model.User;
 import com.example.financery.repository.BillRepository;
 import com.example.financery.repository.TagRepository;
 import com.example.financery.repository.TransactionRepository;
+import com.example.financery.repository.TransactionSpecifications;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
 import com.example.financery.service.TransactionService;
 import com.example.financery.utils.InMemoryCache;
 import jakarta.transaction.Transactional;
@@ -21,12 +31,20 @@ import lombok.AllArgsConstructor;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Traced
 @Service
 @AllArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
@@ -40,11 +58,17 @@ public class TransactionServiceImpl implements TransactionService {
     private final UserRepository userRepository;
     private final BillRepository billRepository;
     private final TagRepository tagRepository;
+    private final MonthlyRollupService rollupService;
+    private final TransactionArchiveService archiveService;
 
     private final InMemoryCache cache;
 
     private static final Logger log = LoggerFactory.getLogger(TransactionServiceImpl.class);
 
+    // Период архива без ограничений: полный список и фильтр без дат
+    private static final LocalDate MIN_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
     @Override
     @Transactional
     public List<TransactionDtoResponse> getAllTransactions() {
@@ -70,16 +94,22 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public List<TransactionDtoResponse> getTransactionsByUserId(long userId) {
+        TransactionReadEvent event = new TransactionReadEvent();
+        event.begin();
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(String.format(USER_WITH_ID_NOT_FOUND, userId));
         }
 
-        // Проверяем, есть ли в кэше
+        // Проверяем, есть ли в кэше. В кэше список вместе с архивными строками:
+        // любое изменение архива пользователя сбрасывает его кэш
         List<TransactionDtoResponse> cachedTransactions = cache.get(userId);
         if (cachedTransactions != null) {
+            commitRead(event, "byUser", userId, 0, cachedTransactions.size(), true);
             return cachedTransactions;
         }
 
+        // Все транзакции пользователя: условия по дате нет, секции без его строк
+        // планировщик проходит по индексу (user_id, date, id) без чтения данных
         List<Transaction> transactions = transactionRepository.findByUserId(userId);
         // Преобразуем в изменяемый список
         List<TransactionDtoResponse> transactionsResponse = new ArrayList<>(
@@ -87,17 +117,21 @@ public class TransactionServiceImpl implements TransactionService {
                         .map(transactionMapper::toTransactionDto)
                         .toList()
         );
+        List<TransactionDtoResponse> merged = mergeArchived(
+                transactionsResponse, archiveService.findByUser(userId, MIN_DATE, MAX_DATE));
 
-        log.info("Сопоставлено {} транзакций для пользователя: {}",
-                transactionsResponse.size(), userId);
-        cache.put(userId, transactionsResponse);
-        return transactionsResponse;
+        log.info("Сопоставлено {} транзакций для пользователя: {}", merged.size(), userId);
+        cache.put(userId, merged);
+        commitRead(event, "byUser", userId, 0, merged.size(), false);
+        return merged;
     }
 
     @Override
     @Transactional
     public List<TransactionDtoResponse> getTransactionsByBillId(long billId) {
-        billRepository.findById(billId)
+        TransactionReadEvent event = new TransactionReadEvent();
+        event.begin();
+        Bill bill = billRepository.findById(billId)
                 .orElseThrow(() -> new NotFoundException(
                         String.format(BILL_WITH_ID_NOT_FOUND, billId)));
 
@@ -109,12 +143,187 @@ public class TransactionServiceImpl implements TransactionService {
                     Hibernate.initialize(transaction.getTags());
                     transactionsResponse.add(transactionMapper.toTransactionDto(transaction));
                 });
-        return transactionsResponse;
+        List<ArchivedTransaction> archived = archiveService
+                .findByUser(bill.getUser().getId(), MIN_DATE, MAX_DATE).stream()
+                .filter(row -> row.getBillId() == billId)
+                .toList();
+        List<TransactionDtoResponse> merged = mergeArchived(transactionsResponse, archived);
+        commitRead(event, "byBill", id(bill.getUser().getId()), billId, merged.size(), false);
+        return merged;
+    }
+
+    @Override
+    @Transactional
+    public List<TransactionDtoResponse> getTransactionsByUserIdAndPeriod(
+            long userId, LocalDate from, LocalDate to) {
+        TransactionReadEvent event = new TransactionReadEvent();
+        event.begin();
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format(USER_WITH_ID_NOT_FOUND, userId));
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidInputException("Начальная дата не может быть позже конечной");
+        }
+
+        List<Transaction> transactions = transactionRepository.findByUserId(userId, from, to);
+        List<TransactionDtoResponse> transactionsResponse = new ArrayList<>(transactions.stream()
+                .map(transactionMapper::toTransactionDto)
+                .toList());
+        List<TransactionDtoResponse> merged = mergeArchived(
+                transactionsResponse, archiveService.findByUser(userId, from, to));
+        commitRead(event, "byPeriod", userId, 0, merged.size(), false);
+        return merged;
+    }
+
+    private static void commitRead(TransactionReadEvent event, String operation,
+                                   long userId, long billId, int rows, boolean cached) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.userId = userId;
+            event.billId = billId;
+            event.rows = rows;
+            event.cached = cached;
+            event.commit();
+        }
+    }
+
+    // Дополняет живые транзакции архивными за тот же период. Если после сбоя архивации
+    // транзакция есть и в таблице, и в сегменте, берется строка из таблицы.
+    private List<TransactionDtoResponse> mergeArchived(
+            List<TransactionDtoResponse> live, List<ArchivedTransaction> archived) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Set<Long> liveIds = live.stream()
+                .map(TransactionDtoResponse::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Tag> tags = findArchivedTags(archived);
+
+        List<TransactionDtoResponse> merged = new ArrayList<>(live);
+        archived.stream()
+                .filter(row -> !liveIds.contains(row.getId()))
+                .map(row -> transactionMapper.toTransactionDto(row, tags))
+                .forEach(merged::add);
+        merged.sort(Comparator.comparing(TransactionDtoResponse::getDate)
+                .thenComparingLong(TransactionDtoResponse::getId));
+        return merged;
+    }
+
+    private Map<Long, Tag> findArchivedTags(List<ArchivedTransaction> archived) {
+        Set<Long> tagIds = archived.stream()
+                .flatMap(row -> row.getTagIds().stream())
+                .collect(Collectors.toSet());
+        if (tagIds.isEmpty()) {
+            return Map.of();
+        }
+        return tagRepository.findAllById(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+    }
+
+    private boolean matchesFilter(ArchivedTransaction row, TransactionFilterDtoRequest filter) {
+        if (filter.getBillId() != null && row.getBillId() != filter.getBillId()) {
+            return false;
+        }
+        if (filter.getType() != null && row.isType() != filter.getType()) {
+            return false;
+        }
+        if (filter.getMinAmount() != null && row.getAmount() < filter.getMinAmount()) {
+            return false;
+        }
+        if (filter.getMaxAmount() != null && row.getAmount() > filter.getMaxAmount()) {
+            return false;
+        }
+        if (filter.getTagIds() != null && !filter.getTagIds().isEmpty()
+                && row.getTagIds().stream().noneMatch(filter.getTagIds()::contains)) {
+            return false;
+        }
+        return filter.getAfterDate() == null
+                || row.getDate().isAfter(filter.getAfterDate())
+                || (row.getDate().isEqual(filter.getAfterDate())
+                && row.getId() > filter.getAfterId());
+    }
+
+    @Override
+    @Transactional
+    public TransactionPageDtoResponse filterTransactions(
+            long userId, TransactionFilterDtoRequest filter) {
+        TransactionReadEvent event = new TransactionReadEvent();
+        event.begin();
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format(USER_WITH_ID_NOT_FOUND, userId));
+        }
+        validateFilter(filter);
+        // Условие по дате только из фильтра: без него запрос идет по индексу всех секций
+        LocalDate from = filter.getFrom() != null ? filter.getFrom() : MIN_DATE;
+        LocalDate to = filter.getTo() != null ? filter.getTo() : MAX_DATE;
+
+        Specification<Transaction> specification = Specification
+                .where(TransactionSpecifications.forUser(userId))
+                .and(TransactionSpecifications.forBill(filter.getBillId()))
+                .and(TransactionSpecifications.dateFrom(filter.getFrom()))
+                .and(TransactionSpecifications.dateTo(filter.getTo()))
+                .and(TransactionSpecifications.ofType(filter.getType()))
+                .and(TransactionSpecifications.amountFrom(filter.getMinAmount()))
+                .and(TransactionSpecifications.amountTo(filter.getMaxAmount()))
+                .and(TransactionSpecifications.withAnyTag(filter.getTagIds()))
+                .and(TransactionSpecifications.after(filter.getAfterDate(), filter.getAfterId()));
+
+        // Запрашиваем на одну запись больше, чтобы узнать, есть ли следующая страница
+        int limit = filter.getLimit();
+        List<Transaction> transactions = transactionRepository.findBy(specification,
+                query -> query.sortBy(Sort.by("date", "id")).limit(limit + 1).all());
+
+        List<TransactionDtoResponse> candidates = new ArrayList<>();
+        transactions.forEach(transaction -> {
+            Hibernate.initialize(transaction.getTags());
+            candidates.add(transactionMapper.toTransactionDto(transaction));
+        });
+        // Архивные строки подмешиваются в тот же порядок (date, id), курсор остается общим.
+        // Сегменты до месяца курсора не читаются, чтение останавливается на limit + 1 строке
+        LocalDate archivedFrom = filter.getAfterDate() != null
+                && filter.getAfterDate().isAfter(from) ? filter.getAfterDate() : from;
+        List<ArchivedTransaction> archived = archiveService.findPageByUser(
+                userId, archivedFrom, to, row -> matchesFilter(row, filter), limit + 1);
+        List<TransactionDtoResponse> merged = mergeArchived(candidates, archived);
+
+        boolean hasNext = merged.size() > limit;
+        List<TransactionDtoResponse> transactionsResponse =
+                hasNext ? new ArrayList<>(merged.subList(0, limit)) : merged;
+
+        TransactionPageDtoResponse response = new TransactionPageDtoResponse();
+        response.setTransactions(transactionsResponse);
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            TransactionDtoResponse last = transactionsResponse.get(transactionsResponse.size() - 1);
+            response.setNextAfterDate(last.getDate());
+            response.setNextAfterId(last.getId());
+        }
+        long billId = filter.getBillId() != null ? filter.getBillId() : 0;
+        commitRead(event, "filter", userId, billId, transactionsResponse.size(), false);
+        return response;
+    }
+
+    private void validateFilter(TransactionFilterDtoRequest filter) {
+        if (filter.getFrom() != null && filter.getTo() != null
+                && filter.getFrom().isAfter(filter.getTo())) {
+            throw new InvalidInputException("Начальная дата не может быть позже конечной");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+                && filter.getMinAmount() > filter.getMaxAmount()) {
+            throw new InvalidInputException(
+                    "Минимальная сумма не может быть больше максимальной");
+        }
+        if ((filter.getAfterDate() == null) != (filter.getAfterId() == null)) {
+            throw new InvalidInputException(
+                    "Курсор страницы должен содержать и дату, и id транзакции");
+        }
     }
 
     @Override
     @Transactional
     public TransactionDtoResponse createTransaction(TransactionDtoRequest transactionDto) {
+        TransactionWriteEvent event = new TransactionWriteEvent();
+        event.begin();
         // Проверяем сумму транзакции перед обращением к репозиториям
         if (transactionDto.getAmount() > 1_000_000) {
             throw new InvalidInputException("Сумма транзакции не может превышать 1,000,000");
@@ -144,6 +353,9 @@ public class TransactionServiceImpl implements TransactionService {
         } else {
             bill.subtractAmount(transaction.getAmount());
         }
+        BalanceUpdateEvent.commit("transaction.create", user.getId(), bill.getId(),
+                transaction.isType() ? transaction.getAmount() : -transaction.getAmount(),
+                bill.getBalance());
 
         transaction.setUser(user);
         transaction.setBill(bill);
@@ -162,7 +374,9 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         transactionRepository.save(transaction);
+        rollupService.applyTransaction(transaction);
         cache.updateTransaction(user.getId(), transactionMapper.toTransactionDto(transaction));
+        commitWrite(event, "create", transaction);
         return transactionMapper.toTransactionDto(transaction);
     }
 
@@ -170,6 +384,8 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional
     public TransactionDtoResponse updateTransaction(
             long transactionId, TransactionDtoRequest transactionDto) {
+        TransactionWriteEvent event = new TransactionWriteEvent();
+        event.begin();
         Transaction existingTransaction = transactionRepository
                 .findById(transactionId)
                 .orElseThrow(() -> new NotFoundException(
@@ -209,6 +425,9 @@ public class TransactionServiceImpl implements TransactionService {
                     "Недостаточно средств на счете для новой суммы транзакции");
         }
 
+        // Снимаем старые значения с помесячных итогов до изменения транзакции
+        rollupService.revertTransaction(existingTransaction);
+
         existingTransaction.setName(transactionDto.getName());
         existingTransaction.setDescription(transactionDto.getDescription());
         existingTransaction.setType(newType);
@@ -230,13 +449,17 @@ public class TransactionServiceImpl implements TransactionService {
             balanceAdjustment -= newAmount; // Вычитаем новую сумму, если новый тип расход
         }
         bill.addAmount(balanceAdjustment);
+        BalanceUpdateEvent.commit("transaction.update", user.getId(), bill.getId(),
+                balanceAdjustment, bill.getBalance());
 
         userRepository.save(user);
         billRepository.save(bill);
         transactionRepository.save(existingTransaction);
+        rollupService.applyTransaction(existingTransaction);
         Hibernate.initialize(existingTransaction.getTags());
         cache.updateTransaction(user.getId(),
                 transactionMapper.toTransactionDto(existingTransaction));
+        commitWrite(event, "update", existingTransaction);
         return transactionMapper.toTransactionDto(existingTransaction);
     }
 
@@ -267,6 +490,8 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public void deleteTransaction(long transactionId) {
+        TransactionWriteEvent event = new TransactionWriteEvent();
+        event.begin();
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new NotFoundException(
                         String.format(TRANSACTION_WITH_ID_NOT_FOUND, transactionId)));
@@ -283,7 +508,29 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         Long userId = transaction.getUser().getId();
+        BalanceUpdateEvent.commit("transaction.delete", userId, bill.getId(),
+                transaction.isType() ? -transaction.getAmount() : transaction.getAmount(),
+                bill.getBalance());
+        rollupService.revertTransaction(transaction);
         transactionRepository.delete(transaction);
         cache.removeTransaction(userId, transactionId);
+        commitWrite(event, "delete", transaction);
+    }
+
+    private static void commitWrite(TransactionWriteEvent event, String operation,
+                                    Transaction transaction) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.userId = id(transaction.getUser().getId());
+            event.billId = id(transaction.getBill().getId());
+            event.transactionId = id(transaction.getId());
+            event.amount = transaction.getAmount();
+            event.tags = transaction.getTags() != null ? transaction.getTags().size() : 0;
+            event.commit();
+        }
+    }
+
+    private static long id(Long id) {
+        return id != null ? id : 0;
     }
 }
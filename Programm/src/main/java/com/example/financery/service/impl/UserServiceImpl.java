@@ -1,11 +1,14 @@
 package com.example.financery.service.impl;
 
+import com.example.financery.aspect.Traced;
 import com.example.financery.dto.UserDtoRequest;
 import com.example.financery.dto.UserDtoResponse;
 import com.example.financery.exception.NotFoundException;
 import com.example.financery.mapper.UserMapper;
 import com.example.financery.model.User;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
 import com.example.financery.service.UserService;
 
 import java.util.ArrayList;
@@ -18,6 +21,7 @@ import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 
 
+@Traced
 @Service
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -25,6 +29,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final InMemoryCache cache;
+    private final MonthlyRollupService rollupService;
+    private final TransactionArchiveService archiveService;
     private static final String USER_WITH_ID = "Пользователь с id ";
     private static final String NOT_FOUND = " не найден";
 
@@ -32,7 +38,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public List<UserDtoResponse> getAllUsers() {
         List<UserDtoResponse> userDtoResponses = new ArrayList<>();
-        userRepository.findAll().forEach(user -> {
+        userRepository.findAllWithBills().forEach(user -> {
             Hibernate.initialize(user.getBills());
             userDtoResponses.add(userMapper.toDto(user));
         });
@@ -84,6 +90,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException(USER_WITH_ID + id + NOT_FOUND));
 
         userRepository.deleteById(id);
+        rollupService.deleteForUser(id);
+        archiveService.deleteForUser(id);
 
         cache.clearForUser(user.getId());
     }
@@ -1,19 +1,224 @@
 package com.example.financery.service.impl;
 
-import java.util.concurrent.atomic.AtomicLong;
-
+import com.example.financery.dto.VisitStatsDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.model.VisitCounter;
+import com.example.financery.repository.VisitCounterRepository;
 import com.example.financery.service.VisitCounterService;
+import com.example.financery.utils.SlidingWindowCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Счетчики посещений по эндпоинту и пользователю. Поток запроса только читает
+ * ConcurrentHashMap и увеличивает LongAdder своей пары, общих изменяемых полей
+ * на этом пути нет. Раз в секунду накопленное переносится в скользящие окна
+ * 1m/5m/1h и общий итог, а раз в flush-interval приращения пачкой прибавляются
+ * к счетчикам в базе, откуда итоги загружаются при запуске. Пар с пользователем
+ * в памяти не больше max-keys: посещения новых пользователей сверх этого числа
+ * учитываются в счетчике эндпоинта без пользователя.
+ */
 @Service
 public class VisitCounterServiceImpl implements VisitCounterService {
-    private final AtomicLong counter = new AtomicLong(0);
 
-    public void increment() {
-        counter.incrementAndGet();
+    private static final Logger log = LoggerFactory.getLogger(VisitCounterServiceImpl.class);
+
+    private static final int WINDOW_BUCKETS = 60;
+    private static final int MAX_TOP_LIMIT = 1000;
+
+    private final VisitCounterRepository visitCounterRepository;
+    private final int maxKeys;
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    public VisitCounterServiceImpl(VisitCounterRepository visitCounterRepository,
+                                   @Value("${app.visits.max-keys:10000}") int maxKeys) {
+        this.visitCounterRepository = visitCounterRepository;
+        this.maxKeys = maxKeys;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (VisitCounter row : visitCounterRepository.findAll()) {
+            counter(row.getEndpoint(), row.getUserId()).load(row.getVisits());
+        }
+    }
+
+    @Override
+    public void record(String endpoint, Long userId) {
+        counter(endpoint, userId != null ? userId : VisitCounter.NO_USER).pending.increment();
+    }
+
+    // userId приходит из пути запроса и не проверяется, поэтому число пар ограничено;
+    // при гонке лимит может быть превышен на число одновременных запросов
+    private Counter counter(String endpoint, long userId) {
+        Key key = new Key(endpoint, userId);
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (userId != VisitCounter.NO_USER && counters.size() >= maxKeys) {
+            key = new Key(endpoint, VisitCounter.NO_USER);
+        }
+        return counters.computeIfAbsent(key, k -> new Counter());
+    }
+
+    @Override
+    public long getCount(String endpoint) {
+        return snapshot().stream()
+                .filter(stats -> endpoint == null || endpoint.equals(stats.getEndpoint()))
+                .mapToLong(VisitStatsDtoResponse::getTotal)
+                .sum();
+    }
+
+    @Override
+    public List<VisitStatsDtoResponse> getEndpointStats() {
+        Map<String, VisitStatsDtoResponse> byEndpoint = new LinkedHashMap<>();
+        for (VisitStatsDtoResponse stats : snapshot()) {
+            VisitStatsDtoResponse sum = byEndpoint.computeIfAbsent(stats.getEndpoint(),
+                    endpoint -> new VisitStatsDtoResponse(endpoint, null, 0, 0, 0, 0));
+            sum.setTotal(sum.getTotal() + stats.getTotal());
+            sum.setLastMinute(sum.getLastMinute() + stats.getLastMinute());
+            sum.setLast5Minutes(sum.getLast5Minutes() + stats.getLast5Minutes());
+            sum.setLastHour(sum.getLastHour() + stats.getLastHour());
+        }
+        List<VisitStatsDtoResponse> result = new ArrayList<>(byEndpoint.values());
+        result.sort(Comparator.comparingLong(VisitStatsDtoResponse::getTotal).reversed());
+        return result;
+    }
+
+    @Override
+    public List<VisitStatsDtoResponse> getTop(String window, int limit, String endpoint) {
+        ToLongFunction<VisitStatsDtoResponse> metric = windowMetric(window);
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            throw new InvalidInputException("Размер выборки должен быть от 1 до " + MAX_TOP_LIMIT);
+        }
+        return snapshot().stream()
+                .filter(stats -> endpoint == null || endpoint.equals(stats.getEndpoint()))
+                .filter(stats -> metric.applyAsLong(stats) > 0)
+                .sorted(Comparator.comparingLong(metric).reversed())
+                .limit(limit)
+                .toList();
     }
 
-    public Long getCounter() {
-        return counter.get();
+    private static ToLongFunction<VisitStatsDtoResponse> windowMetric(String window) {
+        return switch (window) {
+            case "1m" -> VisitStatsDtoResponse::getLastMinute;
+            case "5m" -> VisitStatsDtoResponse::getLast5Minutes;
+            case "1h" -> VisitStatsDtoResponse::getLastHour;
+            case "total" -> VisitStatsDtoResponse::getTotal;
+            default -> throw new InvalidInputException(
+                    "Неизвестное окно: " + window + ". Допустимо 1m, 5m, 1h, total");
+        };
+    }
+
+    private List<VisitStatsDtoResponse> snapshot() {
+        long now = Instant.now().getEpochSecond();
+        List<VisitStatsDtoResponse> result = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> result.add(counter.stats(key, now)));
+        return result;
+    }
+
+    @Override
+    @Scheduled(fixedRate = 1000)
+    public void rollWindows() {
+        long now = Instant.now().getEpochSecond();
+        for (Counter counter : counters.values()) {
+            counter.roll(now);
+        }
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.visits.flush-interval:PT30S}",
+            initialDelayString = "${app.visits.flush-interval:PT30S}")
+    public int flush() {
+        long now = Instant.now().getEpochSecond();
+        Map<Counter, Long> written = new LinkedHashMap<>();
+        counters.forEach((key, counter) -> {
+            long delta = counter.unpersisted(now);
+            if (delta > 0) {
+                visitCounterRepository.add(key.endpoint(), key.userId(), delta);
+                written.put(counter, delta);
+            }
+        });
+        // Отмечаем сохраненное только после всех вставок: при ошибке пачка повторится целиком
+        written.forEach(Counter::persisted);
+        if (!written.isEmpty()) {
+            log.debug("Сохранены счетчики посещений: {}", written.size());
+        }
+        return written.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить счетчики посещений при остановке: {}",
+                    e.getMessage());
+        }
+    }
+
+    private record Key(String endpoint, long userId) {
+    }
+
+    private static final class Counter {
+        private final LongAdder pending = new LongAdder();
+        private final SlidingWindowCounter minute =
+                new SlidingWindowCounter(Duration.ofMinutes(1), WINDOW_BUCKETS);
+        private final SlidingWindowCounter fiveMinutes =
+                new SlidingWindowCounter(Duration.ofMinutes(5), WINDOW_BUCKETS);
+        private final SlidingWindowCounter hour =
+                new SlidingWindowCounter(Duration.ofHours(1), WINDOW_BUCKETS);
+        private long total;
+        private long persisted;
+
+        private synchronized void roll(long now) {
+            long count = pending.sumThenReset();
+            if (count != 0) {
+                minute.add(now, count);
+                fiveMinutes.add(now, count);
+                hour.add(now, count);
+                total += count;
+            }
+        }
+
+        private synchronized VisitStatsDtoResponse stats(Key key, long now) {
+            roll(now);
+            return new VisitStatsDtoResponse(key.endpoint(),
+                    key.userId() == VisitCounter.NO_USER ? null : key.userId(), total,
+                    minute.sum(now), fiveMinutes.sum(now), hour.sum(now));
+        }
+
+        private synchronized long unpersisted(long now) {
+            roll(now);
+            return total - persisted;
+        }
+
+        private synchronized void persisted(long delta) {
+            persisted += delta;
+        }
+
+        private synchronized void load(long visits) {
+            total += visits;
+            persisted += visits;
+        }
     }
 }
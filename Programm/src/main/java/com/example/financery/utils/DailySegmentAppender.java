@@ -0,0 +1,133 @@
+package com.example.financery.utils;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Аппендер logback, который пишет каждый календарный день в отдельный сегмент
+ * {@code <directory>/<prefix>-yyyy-MM-dd.log}. После смены дня предыдущий сегмент
+ * в фоне запечатывается в gzip с индексом часов (если включено compress) и удаляются
+ * сегменты старше maxHistory дней. Выгрузка логов за день сводится к отдаче одного файла.
+ *
+ * <p>День определяется по времени события в часовом поясе JVM, как и в %d шаблона.
+ * Запоздавшее событие прошлого дня после смены сегмента пишется в текущий сегмент.
+ */
+public class DailySegmentAppender extends FileAppender<ILoggingEvent> {
+
+    private String directory = "log/segments";
+    private String prefix = "app";
+    private boolean compress = true;
+    // 0 - хранить сегменты бессрочно
+    private int maxHistory = 30;
+
+    private volatile LocalDate currentDay;
+    private ExecutorService sealer;
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+
+    @Override
+    public void start() {
+        currentDay = LocalDate.now();
+        setFile(LogSegments.plainPath(Paths.get(directory), prefix, currentDay).toString());
+        sealer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-segment-sealer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        super.start();
+        // Сегменты, не запечатанные до остановки приложения
+        sealer.execute(this::housekeeping);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (sealer != null) {
+            sealer.shutdown();
+            try {
+                if (!sealer.awaitTermination(30, TimeUnit.SECONDS)) {
+                    addWarn("Запечатывание сегментов логов не завершилось за 30 секунд");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    protected void subAppend(ILoggingEvent event) {
+        LocalDate day = LocalDate.ofInstant(
+                Instant.ofEpochMilli(event.getTimeStamp()), ZoneId.systemDefault());
+        if (day.isAfter(currentDay)) {
+            rollover(day);
+        }
+        super.subAppend(event);
+    }
+
+    private void rollover(LocalDate day) {
+        streamWriteLock.lock();
+        try {
+            if (!day.isAfter(currentDay)) {
+                return;
+            }
+            String next = LogSegments.plainPath(Paths.get(directory), prefix, day).toString();
+            closeOutputStream();
+            setFile(next);
+            openFile(next);
+            currentDay = day;
+        } catch (IOException e) {
+            addError("Не удалось открыть сегмент логов " + getFile(), e);
+        } finally {
+            streamWriteLock.unlock();
+        }
+        sealer.execute(this::housekeeping);
+    }
+
+    // Запечатывает закрытые сегменты и удаляет устаревшие
+    private void housekeeping() {
+        Path dir = Paths.get(directory);
+        LocalDate today = currentDay;
+        LocalDate oldest = today.minusDays(maxHistory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "-*.log*")) {
+            for (Path file : files) {
+                LocalDate day = LogSegments.dayOf(file, prefix);
+                if (day == null || !day.isBefore(today)) {
+                    continue;
+                }
+                if (maxHistory > 0 && day.isBefore(oldest)) {
+                    Files.deleteIfExists(file);
+                } else if (compress && file.toString().endsWith(LogSegments.PLAIN_SUFFIX)) {
+                    LogSegments.seal(file);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            addError("Ошибка обслуживания сегментов логов в " + dir, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.financery.utils;
+
+import com.example.financery.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение числа запросов, одновременно работающих с базой, по размеру пула
+ * соединений. С виртуальными потоками Tomcat больше не ограничивает число запросов
+ * в работе, и без него лишние запросы ждали бы соединения в Hikari до таймаута
+ * и падали с 500; здесь они ждут не дольше acquireTimeout и получают 429.
+ * На платформенных потоках число запросов ограничивает пул Tomcat, и bulkhead
+ * не создается. Часть соединений оставляется фоновым задачам (планировщик,
+ * очередь задач, сохранение счетчиков), которые через bulkhead не проходят.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DbBulkhead {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    // Справедливый семафор: при перегрузке запросы обслуживаются в порядке прихода
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public DbBulkhead(
+            @Value("${app.bulkhead.max-concurrent:10}") int poolSize,
+            @Value("${app.bulkhead.reserved:2}") int reserved,
+            @Value("${app.bulkhead.acquire-timeout:PT2S}") Duration acquireTimeout) {
+        this.maxConcurrent = Math.max(1, poolSize - reserved);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException(
+                    "Все соединения с базой заняты, повторите запрос позже", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
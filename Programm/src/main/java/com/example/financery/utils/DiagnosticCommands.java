@@ -0,0 +1,39 @@
+package com.example.financery.utils;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Вызов диагностических команд JVM (те же, что у jcmd) через MBean DiagnosticCommand,
+ * без доступа к оболочке сервера.
+ */
+public final class DiagnosticCommands {
+
+    private static final String MBEAN = "com.sun.management:type=DiagnosticCommand";
+
+    private DiagnosticCommands() {
+    }
+
+    // Гистограмма объектов кучи по классам; команда выполняет полную сборку мусора
+    public static String heapHistogram() {
+        return invoke("gcClassHistogram");
+    }
+
+    // Стеки всех платформенных потоков с удерживаемыми блокировками
+    public static String threadDump() {
+        return invoke("threadPrint", "-l");
+    }
+
+    private static String invoke(String command, String... arguments) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            return (String) server.invoke(new ObjectName(MBEAN), command,
+                    new Object[] {arguments}, new String[] {String[].class.getName()});
+        } catch (JMException e) {
+            throw new IllegalStateException(
+                    "Не удалось выполнить диагностическую команду " + command, e);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.financery.utils;
 
 import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.jfr.CacheEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+// Вызывается из потоков запросов одновременно, а LinkedHashMap с порядком доступа
+// меняется даже при get, поэтому все операции под монитором кэша. Списки хранятся
+// неизменяемыми и при обновлении заменяются копией, поэтому отданный get список
+// можно читать вне монитора, а изменить кэш в обход него нельзя
 @Component
 public class InMemoryCache {
 
@@ -27,6 +33,8 @@ public class InMemoryCache {
                     Map.Entry<Long,
                             List<TransactionDtoResponse>> eldest) {
                 if (size() > maxSize) {
+                    CacheEvent.commit(CacheEvent.EVICT, eldest.getKey(),
+                            eldest.getValue().size(), size() - 1);
                     logger.info(
                             "Удаление кеша для пользователя используемого давно userId: {}",
                             eldest.getKey());
@@ -39,47 +47,57 @@ public class InMemoryCache {
     }
 
 
-    public List<TransactionDtoResponse> get(Long userId) {
+    public synchronized List<TransactionDtoResponse> get(Long userId) {
         List<TransactionDtoResponse> transactions = cache.get(userId);
+        CacheEvent.commit(transactions != null ? CacheEvent.HIT : CacheEvent.MISS, userId,
+                transactions != null ? transactions.size() : 0, cache.size());
         logger.info("Кеш {} для пользователя: {}",
                 transactions != null ? "найден" : "не найден", userId);
         return transactions;
     }
 
-    public void put(Long userId, List<TransactionDtoResponse> transactions) {
-        cache.put(userId, transactions);
+    public synchronized void put(Long userId, List<TransactionDtoResponse> transactions) {
+        cache.put(userId, List.copyOf(transactions));
+        CacheEvent.commit(CacheEvent.PUT, userId, transactions.size(), cache.size());
         logger.info("Закешированы транзакции для пользователя: {}, размером: {}",
                 userId, transactions.size());
     }
 
-    public void updateTransaction(Long userId, TransactionDtoResponse transaction) {
-        List<TransactionDtoResponse> transactions = cache.get(userId);
-        if (transactions != null) {
+    public synchronized void updateTransaction(Long userId, TransactionDtoResponse transaction) {
+        List<TransactionDtoResponse> cached = cache.get(userId);
+        if (cached != null) {
+            List<TransactionDtoResponse> transactions = new ArrayList<>(cached);
             transactions.removeIf(
                     t -> t.getId() == transaction.getId());
             transactions.add(transaction);
-            cache.put(userId, transactions);
+            cache.put(userId, List.copyOf(transactions));
+            CacheEvent.commit(CacheEvent.UPDATE, userId, transactions.size(), cache.size());
             logger.info("Обновление транзакции {} в кеше для пользователя: {}",
                     transaction.getId(), userId);
         }
     }
 
-    public void removeTransaction(Long userId, Long transactionId) {
-        List<TransactionDtoResponse> transactions = cache.get(userId);
-        if (transactions != null) {
+    public synchronized void removeTransaction(Long userId, Long transactionId) {
+        List<TransactionDtoResponse> cached = cache.get(userId);
+        if (cached != null) {
+            List<TransactionDtoResponse> transactions = new ArrayList<>(cached);
             transactions.removeIf(t -> t.getId() == transactionId);
-            cache.put(userId, transactions);
+            cache.put(userId, List.copyOf(transactions));
+            CacheEvent.commit(CacheEvent.UPDATE, userId, transactions.size(), cache.size());
             logger.info("Удаление транзакции {} из кеша пользователя: {}",
                     transactionId, userId);
         }
     }
 
-    public void clearForUser(Long userId) {
-        cache.remove(userId);
+    public synchronized void clearForUser(Long userId) {
+        List<TransactionDtoResponse> removed = cache.remove(userId);
+        CacheEvent.commit(CacheEvent.CLEAR, userId,
+                removed != null ? removed.size() : 0, cache.size());
         logger.info("Очистка кеша для пользователя: {}", userId);
     }
 
-    public void clear() {
+    public synchronized void clear() {
+        CacheEvent.commit(CacheEvent.CLEAR, null, cache.size(), 0);
         cache.clear();
         logger.info("Очистка всего кеша");
     }
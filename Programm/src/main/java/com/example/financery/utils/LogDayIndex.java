@@ -0,0 +1,371 @@
+package com.example.financery.utils;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Индекс файла логов: для каждого дня хранит диапазоны байт в текущем и ротированных файлах.
+ * Индекс лежит рядом с логом (app.log.idx) и дописывается по мере роста файла,
+ * поэтому выгрузка за день сводится к чтению нужных диапазонов без просмотра всего файла.
+ *
+ * <p>Файлы опознаются по контрольной сумме первой строки, а не по имени:
+ * при ротации app.log становится app.1.log, и его уже проиндексированная часть
+ * повторно не читается.
+ */
+@Component
+public class LogDayIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LogDayIndex.class);
+
+    private static final int MAGIC = 0x4C444958;
+    private static final int VERSION = 1;
+    private static final int FINGERPRINT_LIMIT = 4096;
+    private static final long NO_DAY = LogFileScanner.NO_DAY;
+
+    public record Region(Path file, long start, long end) {
+        public long length() {
+            return end - start;
+        }
+    }
+
+    private static final class DayRange {
+        private final long day;
+        private final long start;
+        private long end;
+
+        private DayRange(long day, long start, long end) {
+            this.day = day;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class FileEntry {
+        private final long fingerprint;
+        private long indexedBytes;
+        private long lastDay = NO_DAY;
+        private final List<DayRange> ranges = new ArrayList<>();
+        private Path path;
+
+        private FileEntry(long fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final Path logFile;
+    private final Path indexFile;
+    private final int rotatedCount;
+    private final ForkJoinPool scanPool;
+    private final LogFileScanner scanner;
+    // Не synchronized: обновление читает файлы под блокировкой, а монитор
+    // закрепил бы виртуальный поток за потоком-носителем на все время чтения
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private List<FileEntry> entries;
+
+    public LogDayIndex(
+            @Value("${app.log.file.path}") String logFilePath,
+            @Value("${app.log.file.rotated-count:3}") int rotatedCount,
+            @Value("${app.log.scan.parallelism:0}") int parallelism,
+            @Value("${app.log.scan.chunk-size:4194304}") int chunkSize) {
+        this.logFile = Paths.get(logFilePath);
+        this.indexFile = logFile.resolveSibling(logFile.getFileName() + ".idx");
+        this.rotatedCount = rotatedCount;
+        this.scanPool = new ForkJoinPool(parallelism > 0
+                ? parallelism
+                : Runtime.getRuntime().availableProcessors());
+        this.scanner = new LogFileScanner(scanPool, chunkSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdown();
+    }
+
+    /**
+     * Диапазоны строк за день во всех файлах, от самого старого файла к текущему.
+     */
+    public List<Region> regionsFor(LocalDate day) {
+        indexLock.lock();
+        try {
+            refresh();
+            long epochDay = day.toEpochDay();
+            List<Region> regions = new ArrayList<>();
+            for (FileEntry entry : entries) {
+                for (DayRange range : entry.ranges) {
+                    if (range.day != epochDay) {
+                        continue;
+                    }
+                    Region last = regions.isEmpty() ? null : regions.get(regions.size() - 1);
+                    if (last != null && last.file().equals(entry.path)
+                            && last.end() == range.start) {
+                        regions.set(regions.size() - 1,
+                                new Region(entry.path, last.start(), range.end));
+                    } else {
+                        regions.add(new Region(entry.path, range.start, range.end));
+                    }
+                }
+            }
+            return regions;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Копирует диапазоны в файл и возвращает число записанных байт.
+     */
+    public long copyRegions(List<Region> regions, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transferRegions(regions, 0, totalLength(regions), out);
+        }
+    }
+
+    public static long totalLength(List<Region> regions) {
+        return regions.stream().mapToLong(Region::length).sum();
+    }
+
+    /**
+     * Передает байты [from, to) склеенных диапазонов в канал через FileChannel.transferTo.
+     */
+    public static long transferRegions(List<Region> regions, long from, long to,
+                                       WritableByteChannel out) throws IOException {
+        long written = 0;
+        long offset = 0;
+        for (Region region : regions) {
+            long regionFrom = Math.max(from, offset);
+            long regionTo = Math.min(to, offset + region.length());
+            if (regionFrom < regionTo) {
+                try (FileChannel in = FileChannel.open(region.file(), StandardOpenOption.READ)) {
+                    long position = region.start() + regionFrom - offset;
+                    long end = region.start() + regionTo - offset;
+                    while (position < end) {
+                        long copied = in.transferTo(position, end - position, out);
+                        if (copied <= 0) {
+                            break;
+                        }
+                        position += copied;
+                        written += copied;
+                    }
+                }
+            }
+            offset += region.length();
+        }
+        return written;
+    }
+
+    /**
+     * Участок файла, если байты [from, to) склеенных диапазонов лежат в одном диапазоне.
+     */
+    public static Region sliceOfSingleRegion(List<Region> regions, long from, long to) {
+        long offset = 0;
+        for (Region region : regions) {
+            if (from >= offset && to <= offset + region.length()) {
+                return new Region(region.file(),
+                        region.start() + from - offset, region.start() + to - offset);
+            }
+            offset += region.length();
+        }
+        return null;
+    }
+
+    /**
+     * Дочитывает новые строки во всех файлах логов и сохраняет индекс, если он изменился.
+     */
+    public void refresh() {
+        indexLock.lock();
+        try {
+            if (entries == null) {
+                entries = load();
+            }
+            Map<Long, FileEntry> previous = new HashMap<>();
+            entries.forEach(entry -> previous.put(entry.fingerprint, entry));
+
+            List<FileEntry> updated = new ArrayList<>();
+            boolean changed = false;
+            try {
+                for (Path file : logFiles()) {
+                    Long fingerprint = fingerprint(file);
+                    if (fingerprint == null) {
+                        continue;
+                    }
+                    long size = Files.size(file);
+                    FileEntry entry = previous.remove(fingerprint);
+                    if (entry == null || size < entry.indexedBytes) {
+                        entry = new FileEntry(fingerprint);
+                        changed = true;
+                    }
+                    entry.path = file;
+                    if (size > entry.indexedBytes) {
+                        changed |= scan(entry, file, size);
+                    }
+                    updated.add(entry);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Ошибка при индексации файла логов: "
+                        + e.getMessage());
+            }
+            changed |= !previous.isEmpty();
+            entries = updated;
+            if (changed) {
+                persist();
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Текущий файл и ротированные app.1.log ... app.N.log, от самого старого к текущему
+    private List<Path> logFiles() {
+        String name = logFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+
+        List<Path> files = new ArrayList<>();
+        for (int i = rotatedCount; i >= 1; i--) {
+            Path rotated = logFile.resolveSibling(base + "." + i + extension);
+            if (Files.isRegularFile(rotated)) {
+                files.add(rotated);
+            }
+        }
+        if (Files.isRegularFile(logFile)) {
+            files.add(logFile);
+        }
+        return files;
+    }
+
+    // Контрольная сумма первой строки; null, пока первая строка не дописана
+    private Long fingerprint(Path file) throws IOException {
+        byte[] head = new byte[FINGERPRINT_LIMIT];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        int length = -1;
+        for (int i = 0; i < read; i++) {
+            if (head[i] == '\n') {
+                length = i;
+                break;
+            }
+        }
+        if (length < 0) {
+            if (read < FINGERPRINT_LIMIT) {
+                return null;
+            }
+            length = read;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(head, 0, length);
+        return (crc.getValue() << 16) | (length & 0xFFFF);
+    }
+
+    // Индексирует только завершенные строки: неполная последняя строка дочитается позже.
+    // Ротированные файлы больше не меняются и отображаются в память целиком.
+    private boolean scan(FileEntry entry, Path file, long size) throws IOException {
+        boolean rotated = !file.equals(logFile);
+        LogFileScanner.ScanResult result =
+                scanner.scan(file, entry.indexedBytes, size, rotated, entry.lastDay);
+        for (LogFileScanner.DayRun run : result.runs()) {
+            extend(entry, run.day(), run.start(), run.end());
+            entry.lastDay = run.day();
+        }
+        boolean changed = result.scannedTo() != entry.indexedBytes;
+        entry.indexedBytes = result.scannedTo();
+        return changed;
+    }
+
+    private void extend(FileEntry entry, long day, long start, long end) {
+        DayRange last = entry.ranges.isEmpty() ? null : entry.ranges.get(entry.ranges.size() - 1);
+        if (last != null && last.day == day && last.end == start) {
+            last.end = end;
+        } else {
+            entry.ranges.add(new DayRange(day, start, end));
+        }
+    }
+
+    private List<FileEntry> load() {
+        List<FileEntry> loaded = new ArrayList<>();
+        if (!Files.exists(indexFile)) {
+            return loaded;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Индекс логов {} имеет неизвестный формат и будет перестроен", indexFile);
+                return new ArrayList<>();
+            }
+            int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                FileEntry entry = new FileEntry(in.readLong());
+                entry.indexedBytes = in.readLong();
+                entry.lastDay = in.readLong();
+                int rangeCount = in.readInt();
+                for (int j = 0; j < rangeCount; j++) {
+                    entry.ranges.add(new DayRange(in.readLong(), in.readLong(), in.readLong()));
+                }
+                loaded.add(entry);
+            }
+            return loaded;
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать индекс логов {}, он будет перестроен: {}",
+                    indexFile, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private void persist() {
+        try {
+            Path tempFile = Files.createTempFile(
+                    indexFile.toAbsolutePath().getParent(), "app-log-index", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile);
+                 DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+                data.writeInt(MAGIC);
+                data.writeInt(VERSION);
+                data.writeInt(entries.size());
+                for (FileEntry entry : entries) {
+                    data.writeLong(entry.fingerprint);
+                    data.writeLong(entry.indexedBytes);
+                    data.writeLong(entry.lastDay);
+                    data.writeInt(entry.ranges.size());
+                    for (DayRange range : entry.ranges) {
+                        data.writeLong(range.day);
+                        data.writeLong(range.start);
+                        data.writeLong(range.end);
+                    }
+                }
+            }
+            Files.move(tempFile, indexFile,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Индекс можно перестроить, поэтому ошибка записи не мешает выгрузке
+            log.warn("Не удалось сохранить индекс логов {}: {}", indexFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.financery.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Параллельный разбор файла логов на дни. Файл делится на куски, выровненные по концу строки,
+ * куски разбираются на пуле fork-join, а результаты склеиваются в порядке следования в файле.
+ *
+ * <p>Строки без даты в начале (продолжение записи, например стек исключения) относятся
+ * к дню предыдущей записи, в том числе если она осталась в предыдущем куске.
+ */
+public class LogFileScanner {
+
+    public static final long NO_DAY = LogLinePrefix.NO_DAY;
+
+    // День строк в начале куска, который станет известен только после склейки
+    private static final long CONTINUATION = Long.MIN_VALUE + 1;
+    private static final int PROBE_SIZE = 8 * 1024;
+
+    public record DayRun(long day, long start, long end) {
+    }
+
+    /**
+     * Диапазоны дней и позиция сразу после последней завершенной строки.
+     */
+    public record ScanResult(List<DayRun> runs, long scannedTo) {
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public LogFileScanner(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Разбирает завершенные строки в [from, size).
+     *
+     * @param mapFile  отображать файл в память; для активного файла логов отключается,
+     *                 так как на Windows отображенный файл нельзя переименовать при ротации
+     * @param carryDay день последней записи перед from или {@link #NO_DAY}
+     */
+    public ScanResult scan(Path file, long from, long size, boolean mapFile, long carryDay)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long limit = lastLineEnd(channel, from, size);
+            if (limit <= from) {
+                return new ScanResult(List.of(), from);
+            }
+            List<long[]> chunks = chunks(channel, from, limit);
+            List<List<DayRun>> chunkRuns;
+            try {
+                chunkRuns = pool.invoke(new ChunkTask(channel, chunks, 0, chunks.size(), mapFile));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            List<DayRun> runs = new ArrayList<>();
+            long day = carryDay;
+            for (List<DayRun> chunk : chunkRuns) {
+                for (DayRun run : chunk) {
+                    long runDay = run.day() == CONTINUATION ? day : run.day();
+                    if (runDay != NO_DAY) {
+                        append(runs, runDay, run.start(), run.end());
+                        day = runDay;
+                    }
+                }
+            }
+            return new ScanResult(runs, limit);
+        }
+    }
+
+    // Позиция после последнего перевода строки в [from, size)
+    private long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(PROBE_SIZE);
+        long windowEnd = size;
+        while (windowEnd > from) {
+            long windowStart = Math.max(from, windowEnd - PROBE_SIZE);
+            buffer.clear().limit((int) (windowEnd - windowStart));
+            readFully(channel, buffer, windowStart);
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return windowStart + i + 1;
+                }
+            }
+            windowEnd = windowStart;
+        }
+        return from;
+    }
+
+    // Границы кусков сдвигаются до ближайшего конца строки
+    private List<long[]> chunks(FileChannel channel, long from, long limit) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(PROBE_SIZE);
+        long start = from;
+        while (start < limit) {
+            long end = start + chunkSize;
+            if (end >= limit) {
+                end = limit;
+            } else {
+                end = nextLineEnd(channel, buffer, end - 1, limit);
+            }
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private long nextLineEnd(FileChannel channel, ByteBuffer buffer, long position, long limit)
+            throws IOException {
+        while (position < limit) {
+            int length = (int) Math.min(PROBE_SIZE, limit - position);
+            buffer.clear().limit(length);
+            readFully(channel, buffer, position);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return limit;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Файл логов укоротился во время чтения");
+            }
+        }
+    }
+
+    private static List<DayRun> scanChunk(ByteBuffer buffer, long base) {
+        List<DayRun> runs = new ArrayList<>();
+        long day = CONTINUATION;
+        int lineStart = 0;
+        int length = buffer.limit();
+        while (lineStart < length) {
+            int newline = LogLinePrefix.indexOfNewline(buffer, lineStart, length);
+            if (newline < 0) {
+                break;
+            }
+            long lineDay = LogLinePrefix.parseDay(buffer, lineStart, newline - lineStart);
+            if (lineDay != NO_DAY) {
+                day = lineDay;
+            }
+            append(runs, day, base + lineStart, base + newline + 1);
+            lineStart = newline + 1;
+        }
+        return runs;
+    }
+
+    private static void append(List<DayRun> runs, long day, long start, long end) {
+        int last = runs.size() - 1;
+        if (last >= 0 && runs.get(last).day() == day && runs.get(last).end() == start) {
+            runs.set(last, new DayRun(day, runs.get(last).start(), end));
+        } else {
+            runs.add(new DayRun(day, start, end));
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<List<List<DayRun>>> {
+
+        private final transient FileChannel channel;
+        private final transient List<long[]> chunks;
+        private final int from;
+        private final int to;
+        private final boolean mapFile;
+
+        private ChunkTask(FileChannel channel, List<long[]> chunks,
+                          int from, int to, boolean mapFile) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.mapFile = mapFile;
+        }
+
+        @Override
+        protected List<List<DayRun>> compute() {
+            if (to - from == 1) {
+                return List.of(scanOne(chunks.get(from)));
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(channel, chunks, from, middle, mapFile);
+            ChunkTask right = new ChunkTask(channel, chunks, middle, to, mapFile);
+            left.fork();
+            List<List<DayRun>> rightRuns = right.compute();
+            List<List<DayRun>> result = new ArrayList<>(left.join());
+            result.addAll(rightRuns);
+            return result;
+        }
+
+        private List<DayRun> scanOne(long[] chunk) {
+            long start = chunk[0];
+            int length = (int) (chunk[1] - chunk[0]);
+            try {
+                ByteBuffer buffer;
+                if (mapFile) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                } else {
+                    buffer = ByteBuffer.allocate(length);
+                    readFully(channel, buffer, start);
+                    buffer.flip();
+                }
+                return scanChunk(buffer, start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
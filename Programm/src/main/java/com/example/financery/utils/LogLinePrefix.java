@@ -0,0 +1,109 @@
+package com.example.financery.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Разбор префикса строки лога {@code dd-MM-yyyy HH:mm:ss.SSS} из LOG_PATTERN прямо по байтам:
+ * поля стоят на фиксированных смещениях от начала строки, поэтому строку не нужно
+ * декодировать в String. Дата в тексте сообщения не учитывается.
+ */
+public final class LogLinePrefix {
+
+    public static final long NO_DAY = Long.MIN_VALUE;
+    public static final int NO_TIME = -1;
+
+    public static final int DATE_LENGTH = 10;
+    public static final int TIMESTAMP_LENGTH = 23;
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private LogLinePrefix() {
+    }
+
+    /**
+     * Позиция первого '\n' в [from, to) или -1. Ищет по восемь байт за шаг (SWAR).
+     */
+    public static int indexOfNewline(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            // Абсолютный getLong читает в порядке буфера; по умолчанию это BIG_ENDIAN,
+            // и первый байт строки оказывается старшим
+            long word = buffer.getLong(i);
+            long x = word ^ NEWLINES;
+            long found = ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+            if (found != 0) {
+                int index = buffer.order() == ByteOrder.BIG_ENDIAN
+                        ? Long.numberOfLeadingZeros(found) >>> 3
+                        : Long.numberOfTrailingZeros(found) >>> 3;
+                return i + index;
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * День записи, начинающейся в offset, или {@link #NO_DAY} для строки-продолжения.
+     */
+    public static long parseDay(ByteBuffer buffer, int offset, int lineLength) {
+        if (lineLength < DATE_LENGTH
+                || buffer.get(offset + 2) != '-' || buffer.get(offset + 5) != '-') {
+            return NO_DAY;
+        }
+        int day = twoDigits(buffer, offset);
+        int month = twoDigits(buffer, offset + 3);
+        int century = twoDigits(buffer, offset + 6);
+        int yearOfCentury = twoDigits(buffer, offset + 8);
+        if (day < 1 || month < 1 || month > 12 || century < 0 || yearOfCentury < 0) {
+            return NO_DAY;
+        }
+        try {
+            return LocalDate.of(century * 100 + yearOfCentury, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NO_DAY;
+        }
+    }
+
+    /**
+     * Миллисекунда суток записи или {@link #NO_TIME}, если префикса времени нет.
+     */
+    public static int parseMillisOfDay(ByteBuffer buffer, int offset, int lineLength) {
+        if (lineLength < TIMESTAMP_LENGTH || buffer.get(offset + 10) != ' '
+                || buffer.get(offset + 13) != ':' || buffer.get(offset + 16) != ':'
+                || buffer.get(offset + 19) != '.') {
+            return NO_TIME;
+        }
+        int hours = twoDigits(buffer, offset + 11);
+        int minutes = twoDigits(buffer, offset + 14);
+        int seconds = twoDigits(buffer, offset + 17);
+        int hundreds = digit(buffer, offset + 20);
+        int millis = twoDigits(buffer, offset + 21);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59
+                || seconds < 0 || seconds > 59 || hundreds < 0 || millis < 0) {
+            return NO_TIME;
+        }
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + hundreds * 100 + millis;
+    }
+
+    private static int twoDigits(ByteBuffer buffer, int offset) {
+        int high = digit(buffer, offset);
+        int low = digit(buffer, offset + 1);
+        if (high < 0 || low < 0) {
+            return -1;
+        }
+        return high * 10 + low;
+    }
+
+    private static int digit(ByteBuffer buffer, int offset) {
+        int value = buffer.get(offset) - '0';
+        return value >= 0 && value <= 9 ? value : -1;
+    }
+}
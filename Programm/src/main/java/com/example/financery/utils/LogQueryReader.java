@@ -0,0 +1,352 @@
+package com.example.financery.utils;
+
+import com.example.financery.dto.LogRecordDtoResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Выборка записей лога за день по окну времени, уровню, логгеру и потоку.
+ *
+ * <p>Начало окна ищется двоичным поиском по байтовым смещениям внутри диапазонов дня,
+ * а чтение останавливается на первой записи после конца окна, поэтому стоимость запроса
+ * зависит от размера окна, а не файла. Строка разбирается по разметке LOG_PATTERN
+ * лениво: сначала время и уровень прямо по байтам, имена потока и логгера декодируются
+ * только для подходящих строк, а сообщение — только для записей, прошедших все фильтры.
+ */
+public class LogQueryReader {
+
+    // Запись получает время до захвата блокировки аппендера, поэтому строки соседних
+    // потоков могут идти в файле не строго по времени
+    private static final int CLOCK_SKEW_MILLIS = 2000;
+    private static final int SEEK_THRESHOLD = 64 * 1024;
+    private static final int PROBE_SIZE = 8 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LEVEL_WIDTH = 5;
+
+    private final int fromMillis;
+    private final int toMillis;
+    private final byte[] level;
+    private final String logger;
+    private final String thread;
+    private final int limit;
+
+    /**
+     * @param fromMillis начало окна, миллисекунда суток включительно
+     * @param toMillis   конец окна, миллисекунда суток не включительно
+     * @param level      уровень или null
+     * @param logger     подстрока имени логгера или null
+     * @param thread     подстрока имени потока или null
+     */
+    public LogQueryReader(int fromMillis, int toMillis, String level,
+                          String logger, String thread, int limit) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.level = level == null || level.isBlank() ? null
+                : level.trim().toUpperCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+        this.logger = logger == null || logger.isBlank() ? null : logger.trim();
+        this.thread = thread == null || thread.isBlank() ? null : thread.trim();
+        this.limit = limit;
+    }
+
+    /**
+     * Передает подходящие записи из диапазонов дня в порядке файла и возвращает их число.
+     */
+    public int read(List<LogDayIndex.Region> regions, Consumer<LogRecordDtoResponse> sink)
+            throws IOException {
+        Cursor cursor = new Cursor(sink);
+        for (LogDayIndex.Region region : regions) {
+            try (FileChannel channel = FileChannel.open(region.file(), StandardOpenOption.READ)) {
+                long start = seek(channel, region.start(), region.end());
+                if (start > region.start()) {
+                    // Строки-продолжения до найденного места относятся к записям вне окна
+                    cursor.flush();
+                }
+                channel.position(start);
+                readLines(channel, region.end() - start, cursor);
+            }
+            if (cursor.done) {
+                break;
+            }
+        }
+        cursor.flush();
+        return cursor.emitted;
+    }
+
+    /**
+     * То же для последовательного потока строк, например распакованных часов
+     * запечатанного сегмента, где двоичный поиск по смещениям невозможен.
+     */
+    public int read(InputStream in, Consumer<LogRecordDtoResponse> sink) throws IOException {
+        Cursor cursor = new Cursor(sink);
+        readLines(Channels.newChannel(in), Long.MAX_VALUE, cursor);
+        cursor.flush();
+        return cursor.emitted;
+    }
+
+    /**
+     * Первая миллисекунда суток, с которой нужно читать, с учетом расхождения времени потоков.
+     */
+    public int scanFromMillis() {
+        return Math.max(0, fromMillis - CLOCK_SKEW_MILLIS);
+    }
+
+    /**
+     * Миллисекунда суток, после которой чтение можно прекратить.
+     */
+    public int scanToMillis() {
+        return toMillis + CLOCK_SKEW_MILLIS;
+    }
+
+    // Начало строки, раньше которого все записи точно до начала окна
+    private long seek(FileChannel channel, long start, long end) throws IOException {
+        long target = (long) fromMillis - CLOCK_SKEW_MILLIS;
+        if (target <= 0) {
+            return start;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(PROBE_SIZE);
+        long lo = start;
+        long hi = end;
+        while (hi - lo > SEEK_THRESHOLD) {
+            long mid = lo + (hi - lo) / 2;
+            long[] header = nextHeader(channel, buffer, mid, hi);
+            if (header != null && header[1] < target) {
+                lo = header[0];
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Позиция и время первой строки с префиксом времени, начинающейся после position
+    private long[] nextHeader(FileChannel channel, ByteBuffer buffer, long position, long end)
+            throws IOException {
+        boolean atLineStart = false;
+        long offset = position - 1;
+        while (offset < end) {
+            int length = (int) Math.min(PROBE_SIZE, end - offset);
+            buffer.clear().limit(length);
+            readFully(channel, buffer, offset);
+            int lineStart = 0;
+            if (!atLineStart) {
+                int newline = LogLinePrefix.indexOfNewline(buffer, 0, length);
+                if (newline < 0) {
+                    offset += length;
+                    continue;
+                }
+                lineStart = newline + 1;
+                atLineStart = true;
+            }
+            while (lineStart < length) {
+                int newline = LogLinePrefix.indexOfNewline(buffer, lineStart, length);
+                if (newline < 0) {
+                    break;
+                }
+                int millis = LogLinePrefix.parseMillisOfDay(
+                        buffer, lineStart, newline - lineStart);
+                if (millis != LogLinePrefix.NO_TIME) {
+                    return new long[] {offset + lineStart, millis};
+                }
+                lineStart = newline + 1;
+            }
+            if (offset + length >= end) {
+                return null;
+            }
+            if (lineStart == 0) {
+                // Строка длиннее окна пробы: пропускаем ее целиком
+                atLineStart = false;
+                offset += length;
+            } else {
+                offset += lineStart;
+            }
+        }
+        return null;
+    }
+
+    private void readLines(ReadableByteChannel source, long length, Cursor cursor)
+            throws IOException {
+        ByteBuffer buffer = cursor.buffer;
+        buffer.clear();
+        long remaining = length;
+        while (!cursor.done) {
+            boolean last = remaining <= 0;
+            if (!last) {
+                if (buffer.remaining() > remaining) {
+                    buffer.limit(buffer.position() + (int) remaining);
+                }
+                int read = source.read(buffer);
+                if (read < 0) {
+                    last = true;
+                } else {
+                    remaining -= read;
+                }
+            }
+            buffer.flip();
+            int limit = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < limit && !cursor.done) {
+                int newline = LogLinePrefix.indexOfNewline(buffer, lineStart, limit);
+                if (newline < 0) {
+                    break;
+                }
+                line(buffer, lineStart, newline - lineStart, cursor);
+                lineStart = newline + 1;
+            }
+            if (last) {
+                // Индекс и сегменты содержат только завершенные строки, хвоста без '\n' нет
+                return;
+            }
+            buffer.position(lineStart);
+            buffer.limit(limit);
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+                cursor.buffer = larger;
+            }
+        }
+    }
+
+    private void line(ByteBuffer buffer, int offset, int length, Cursor cursor) {
+        byte[] bytes = buffer.array();
+        int millis = LogLinePrefix.parseMillisOfDay(buffer, offset, length);
+        if (millis == LogLinePrefix.NO_TIME) {
+            if (cursor.pending != null) {
+                cursor.continuation.append('\n')
+                        .append(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            }
+            return;
+        }
+        cursor.flush();
+        if (cursor.done) {
+            return;
+        }
+        if (millis >= (long) toMillis + CLOCK_SKEW_MILLIS) {
+            cursor.done = true;
+            return;
+        }
+        if (millis < fromMillis || millis >= toMillis) {
+            return;
+        }
+        LogRecordDtoResponse record = parse(bytes, offset, length);
+        if (record != null) {
+            cursor.pending = record;
+        }
+    }
+
+    // "dd-MM-yyyy HH:mm:ss.SSS [thread] LEVEL logger - message"
+    private LogRecordDtoResponse parse(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int threadStart = offset + LogLinePrefix.TIMESTAMP_LENGTH + 2;
+        if (threadStart > end || bytes[threadStart - 2] != ' ' || bytes[threadStart - 1] != '[') {
+            return null;
+        }
+        int threadEnd = indexOf(bytes, threadStart, end, (byte) ']', (byte) ' ');
+        if (threadEnd < 0) {
+            return null;
+        }
+        int levelStart = threadEnd + 2;
+        int levelEnd = levelStart;
+        while (levelEnd < end && bytes[levelEnd] != ' ') {
+            levelEnd++;
+        }
+        if (level != null && !rangeEquals(bytes, levelStart, levelEnd, level)) {
+            return null;
+        }
+        int loggerStart = Math.min(end, Math.max(levelEnd, levelStart + LEVEL_WIDTH) + 1);
+        int loggerEnd = indexOf(bytes, loggerStart, end, (byte) ' ', (byte) '-');
+        if (loggerEnd < 0) {
+            return null;
+        }
+        String loggerName = new String(bytes, loggerStart, loggerEnd - loggerStart,
+                StandardCharsets.UTF_8);
+        if (logger != null && !loggerName.contains(logger)) {
+            return null;
+        }
+        String threadName = new String(bytes, threadStart, threadEnd - threadStart,
+                StandardCharsets.UTF_8);
+        if (thread != null && !threadName.contains(thread)) {
+            return null;
+        }
+        int messageStart = Math.min(end, loggerEnd + 3);
+        return new LogRecordDtoResponse(
+                new String(bytes, offset, LogLinePrefix.TIMESTAMP_LENGTH,
+                        StandardCharsets.US_ASCII),
+                threadName,
+                new String(bytes, levelStart, levelEnd - levelStart, StandardCharsets.US_ASCII),
+                loggerName,
+                new String(bytes, messageStart, end - messageStart, StandardCharsets.UTF_8));
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte first, byte second) {
+        for (int i = from; i + 1 < to; i++) {
+            if (bytes[i] == first && bytes[i + 1] == second) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean rangeEquals(byte[] bytes, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Файл логов укоротился во время чтения");
+            }
+        }
+    }
+
+    // Состояние выборки между диапазонами: недописанная запись и число отданных
+    private final class Cursor {
+        private final Consumer<LogRecordDtoResponse> sink;
+        private final StringBuilder continuation = new StringBuilder();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private LogRecordDtoResponse pending;
+        private int emitted;
+        private boolean done;
+
+        private Cursor(Consumer<LogRecordDtoResponse> sink) {
+            this.sink = sink;
+        }
+
+        private void flush() {
+            if (pending == null) {
+                return;
+            }
+            if (!continuation.isEmpty()) {
+                pending.setMessage(pending.getMessage() + continuation);
+                continuation.setLength(0);
+            }
+            sink.accept(pending);
+            pending = null;
+            if (++emitted >= limit) {
+                done = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.financery.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+/**
+ * Поиск посуточных сегментов, которые пишет {@link DailySegmentAppender}.
+ * Путь сегмента вычисляется по дате, поэтому поиск не зависит от числа дней в каталоге.
+ */
+@Component
+public class LogSegmentStore {
+
+    public record Segment(Path file, boolean sealed) {
+    }
+
+    private final Path directory;
+    private final String prefix;
+
+    public LogSegmentStore(
+            @Value("${app.log.segments.directory:log/segments}") String directory,
+            @Value("${app.log.segments.prefix:app}") String prefix) {
+        this.directory = Paths.get(directory);
+        this.prefix = prefix;
+    }
+
+    /**
+     * Сегмент за день или null. Запечатанный сегмент важнее: исходный файл удаляется
+     * только после того, как сжатый появился целиком.
+     */
+    public Segment find(LocalDate day) {
+        Path sealed = LogSegments.sealedPath(directory, prefix, day);
+        if (Files.isRegularFile(sealed)) {
+            return new Segment(sealed, true);
+        }
+        Path plain = LogSegments.plainPath(directory, prefix, day);
+        if (Files.isRegularFile(plain)) {
+            return new Segment(plain, false);
+        }
+        return null;
+    }
+
+    /**
+     * Текст сегмента; запечатанный сегмент распаковывается на лету.
+     */
+    public InputStream openPlain(Segment segment) throws IOException {
+        if (!segment.sealed()) {
+            return Files.newInputStream(segment.file());
+        }
+        LogSegments.Footer footer = LogSegments.readFooter(segment.file());
+        if (footer.members().isEmpty()) {
+            return InputStream.nullInputStream();
+        }
+        return LogSegments.openMembers(segment.file(), footer, 0, footer.members().size());
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.financery.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Формат посуточных сегментов логов: app-yyyy-MM-dd.log пишется аппендером в течение дня,
+ * а после смены дня запечатывается в app-yyyy-MM-dd.log.gz.
+ *
+ * <p>Запечатанный сегмент — обычный многочленный gzip: по члену на каждый час, который
+ * встречается в сегменте, и последний пустой член, в поле FEXTRA заголовка которого
+ * лежит индекс часов. Такой файл распаковывает любой gunzip, а по индексу можно
+ * распаковать только нужные часы и узнать исходный размер без распаковки.
+ */
+public final class LogSegments {
+
+    public static final String PLAIN_SUFFIX = ".log";
+    public static final String SEALED_SUFFIX = ".log.gz";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int MAGIC = 0x4C534731;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MILLIS_PER_HOUR = 60 * 60 * 1000;
+    // Пустой deflate-блок и нулевые CRC32 и ISIZE в конце индексного члена
+    private static final byte[] EMPTY_MEMBER_TAIL = {3, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    /**
+     * Член gzip с записями одного часа: смещение в сжатом файле и в исходном тексте.
+     */
+    public record Member(int hour, long compressedOffset, long plainOffset) {
+    }
+
+    /**
+     * Индекс запечатанного сегмента; compressedEnd — конец последнего члена с данными.
+     */
+    public record Footer(long plainLength, long compressedEnd, List<Member> members) {
+
+        public long plainEnd(int memberIndex) {
+            return memberIndex + 1 < members.size()
+                    ? members.get(memberIndex + 1).plainOffset() : plainLength;
+        }
+
+        public long compressedEnd(int memberIndex) {
+            return memberIndex + 1 < members.size()
+                    ? members.get(memberIndex + 1).compressedOffset() : compressedEnd;
+        }
+    }
+
+    private LogSegments() {
+    }
+
+    public static Path plainPath(Path directory, String prefix, LocalDate day) {
+        return directory.resolve(prefix + "-" + DAY_FORMAT.format(day) + PLAIN_SUFFIX);
+    }
+
+    public static Path sealedPath(Path directory, String prefix, LocalDate day) {
+        return directory.resolve(prefix + "-" + DAY_FORMAT.format(day) + SEALED_SUFFIX);
+    }
+
+    /**
+     * День сегмента по имени файла или null, если файл не является сегментом.
+     */
+    public static LocalDate dayOf(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        String start = prefix + "-";
+        if (!name.startsWith(start)) {
+            return null;
+        }
+        String rest = name.substring(start.length());
+        String day;
+        if (rest.endsWith(SEALED_SUFFIX)) {
+            day = rest.substring(0, rest.length() - SEALED_SUFFIX.length());
+        } else if (rest.endsWith(PLAIN_SUFFIX)) {
+            day = rest.substring(0, rest.length() - PLAIN_SUFFIX.length());
+        } else {
+            return null;
+        }
+        try {
+            return LocalDate.parse(day, DAY_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Сжимает сегмент в запечатанную форму рядом с ним и удаляет исходный файл.
+     * Сжатый файл сначала пишется во временный и появляется под своим именем целиком.
+     */
+    public static Path seal(Path plain) throws IOException {
+        String name = plain.getFileName().toString();
+        Path sealed = plain.resolveSibling(
+                name.substring(0, name.length() - PLAIN_SUFFIX.length()) + SEALED_SUFFIX);
+        Path tempFile = Files.createTempFile(plain.toAbsolutePath().getParent(), name, ".tmp");
+        try {
+            try (FileChannel in = FileChannel.open(plain, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeSealed(in, out);
+                out.force(true);
+            }
+            Files.move(tempFile, sealed,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        Files.delete(plain);
+        return sealed;
+    }
+
+    // Новый член начинается на первой записи следующего часа; строки-продолжения
+    // остаются в члене своей записи
+    private static void writeSealed(FileChannel in, FileChannel channel) throws IOException {
+        OutputStream target = new FilterOutputStream(Channels.newOutputStream(channel)) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() {
+                // Члены gzip закрываются по одному, файл закрывает вызывающий код
+            }
+        };
+        List<Member> members = new ArrayList<>();
+        GZIPOutputStream member = null;
+        int hour = -1;
+        long plainOffset = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        long size = in.size();
+        while (true) {
+            if (position < size) {
+                position += Math.max(in.read(buffer, position), 0);
+            }
+            boolean last = position >= size;
+            buffer.flip();
+            int length = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < length) {
+                int newline = LogLinePrefix.indexOfNewline(buffer, lineStart, length);
+                if (newline < 0 && !last) {
+                    break;
+                }
+                int lineEnd = newline < 0 ? length : newline + 1;
+                int millis = LogLinePrefix.parseMillisOfDay(
+                        buffer, lineStart, lineEnd - lineStart);
+                int lineHour = millis == LogLinePrefix.NO_TIME ? hour : millis / MILLIS_PER_HOUR;
+                if (member == null || lineHour > hour) {
+                    if (member != null) {
+                        member.finish();
+                    }
+                    hour = Math.max(lineHour, 0);
+                    members.add(new Member(hour, channel.position(), plainOffset));
+                    member = new GZIPOutputStream(target, BUFFER_SIZE);
+                }
+                member.write(buffer.array(), lineStart, lineEnd - lineStart);
+                plainOffset += lineEnd - lineStart;
+                lineStart = lineEnd;
+            }
+            buffer.position(lineStart);
+            buffer.compact();
+            if (last) {
+                break;
+            }
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+        if (member != null) {
+            member.finish();
+        }
+        writeFooter(target, new Footer(plainOffset, channel.position(), members));
+    }
+
+    private static void writeFooter(OutputStream out, Footer footer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(MAGIC);
+        data.writeLong(footer.plainLength());
+        data.writeLong(footer.compressedEnd());
+        data.writeInt(footer.members().size());
+        for (Member member : footer.members()) {
+            data.writeInt(member.hour());
+            data.writeLong(member.compressedOffset());
+            data.writeLong(member.plainOffset());
+        }
+        int indexLength = data.size();
+        data.writeInt(indexLength);
+        byte[] index = bytes.toByteArray();
+
+        // Заголовок gzip с FEXTRA: подполе 'L','I' с индексом
+        int subfieldLength = index.length;
+        int extraLength = subfieldLength + 4;
+        byte[] header = {
+            0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 255,
+            (byte) extraLength, (byte) (extraLength >>> 8),
+            'L', 'I', (byte) subfieldLength, (byte) (subfieldLength >>> 8)
+        };
+        out.write(header);
+        out.write(index);
+        out.write(EMPTY_MEMBER_TAIL);
+    }
+
+    /**
+     * Читает индекс запечатанного сегмента с конца файла.
+     */
+    public static Footer readFooter(Path sealed) throws IOException {
+        try (FileChannel channel = FileChannel.open(sealed, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer tail = ByteBuffer.allocate(EMPTY_MEMBER_TAIL.length + Integer.BYTES);
+            readFully(channel, tail, size - tail.capacity());
+            int indexLength = tail.getInt(0);
+            long indexStart = size - tail.capacity() - indexLength;
+            if (indexLength < 0 || indexStart < 0) {
+                throw new IOException("Поврежден индекс сегмента логов " + sealed);
+            }
+            ByteBuffer index = ByteBuffer.allocate(indexLength);
+            readFully(channel, index, indexStart);
+            try (DataInputStream data = new DataInputStream(
+                    new ByteArrayInputStream(index.array()))) {
+                if (data.readInt() != MAGIC) {
+                    throw new IOException("Поврежден индекс сегмента логов " + sealed);
+                }
+                long plainLength = data.readLong();
+                long compressedEnd = data.readLong();
+                int count = data.readInt();
+                List<Member> members = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    members.add(new Member(data.readInt(), data.readLong(), data.readLong()));
+                }
+                return new Footer(plainLength, compressedEnd, members);
+            }
+        }
+    }
+
+    /**
+     * Распакованные байты членов [fromMember, toMember) запечатанного сегмента.
+     */
+    public static InputStream openMembers(Path sealed, Footer footer,
+                                         int fromMember, int toMember) throws IOException {
+        long start = footer.members().get(fromMember).compressedOffset();
+        long end = footer.compressedEnd(toMember - 1);
+        FileChannel channel = FileChannel.open(sealed, StandardOpenOption.READ);
+        channel.position(start);
+        InputStream compressed = new BufferedInputStream(
+                boundedStream(Channels.newInputStream(channel), end - start), BUFFER_SIZE);
+        return new GZIPInputStream(compressed, BUFFER_SIZE);
+    }
+
+    /**
+     * Номер последнего члена, начинающегося не позже plainOffset.
+     */
+    public static int memberAt(Footer footer, long plainOffset) {
+        int result = 0;
+        for (int i = 0; i < footer.members().size(); i++) {
+            if (footer.members().get(i).plainOffset() <= plainOffset) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    private static InputStream boundedStream(InputStream in, long length) {
+        return new InputStream() {
+            private long remaining = length;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int value = in.read();
+                if (value >= 0) {
+                    remaining--;
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int count) throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int read = in.read(bytes, offset, (int) Math.min(count, remaining));
+                if (read > 0) {
+                    remaining -= read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Файл сегмента логов укоротился во время чтения");
+            }
+        }
+    }
+}
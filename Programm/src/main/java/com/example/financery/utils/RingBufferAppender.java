@@ -0,0 +1,274 @@
+package com.example.financery.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный аппендер logback на ограниченном кольцевом буфере без блокировок.
+ * Потоки запросов только кладут событие в буфер, а один фоновый поток пачками передает
+ * события вложенным аппендерам и сбрасывает их потоки вывода один раз на пачку,
+ * поэтому запись на диск не задерживает запросы.
+ *
+ * <p>При переполнении события уровня ниже neverDropLevel отбрасываются (политика DROP)
+ * или поток ждет свободного места (BLOCK); события уровня neverDropLevel и выше
+ * никогда не теряются. Глубина очереди и число отброшенных событий доступны через геттеры.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private Level neverDropLevel = Level.WARN;
+    private int maxFlushTime = 5000;
+
+    // Очередь Вьюкова: номер в слоте показывает, свободен ли он для записи или чтения
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    private AtomicLongArray sequences;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean workerSleeping;
+    private Thread worker;
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = OverflowPolicy.valueOf(
+                overflowPolicy.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public void setNeverDropLevel(String neverDropLevel) {
+        this.neverDropLevel = Level.toLevel(neverDropLevel, Level.WARN);
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public int getCapacity() {
+        return slots != null ? slots.length() : capacity;
+    }
+
+    public int getQueueDepth() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (capacity < 2 || batchSize < 1) {
+            addError("Размер буфера должен быть не меньше 2, размер пачки не меньше 1");
+            return;
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        worker = new Thread(this::drainLoop, "log-ring-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+            if (worker.isAlive()) {
+                addWarn("Не все события записаны за " + maxFlushTime + " мс, осталось "
+                        + getQueueDepth());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Имя потока и MDC нужно снять в потоке запроса, до передачи в фоновый поток
+        event.prepareForDeferredProcessing();
+        boolean mayDrop = overflowPolicy == OverflowPolicy.DROP
+                && !event.getLevel().isGreaterOrEqual(neverDropLevel);
+        while (!offer(event)) {
+            if (mayDrop || !isStarted()) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        if (workerSleeping) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private boolean offer(ILoggingEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, event);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // Читает только фоновый поток, поэтому head меняется без CAS
+    private ILoggingEvent poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        ILoggingEvent event = slots.get(index);
+        slots.set(index, null);
+        sequences.lazySet(index, position + slots.length());
+        head.lazySet(position + 1);
+        return event;
+    }
+
+    private void drainLoop() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            ILoggingEvent event;
+            while (batch.size() < batchSize && (event = poll()) != null) {
+                batch.add(event);
+            }
+            if (!batch.isEmpty()) {
+                for (ILoggingEvent item : batch) {
+                    appenders.appendLoopOnAppenders(item);
+                }
+                batch.clear();
+                flushAppenders();
+                continue;
+            }
+            if (!isStarted()) {
+                return;
+            }
+            workerSleeping = true;
+            if (getQueueDepth() == 0 && isStarted()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            workerSleeping = false;
+        }
+    }
+
+    // Вложенные аппендеры настраиваются с immediateFlush=false и сбрасываются раз на пачку
+    private void flushAppenders() {
+        Iterator<Appender<ILoggingEvent>> iterator = appenders.iteratorForAppenders();
+        while (iterator.hasNext()) {
+            Appender<ILoggingEvent> appender = iterator.next();
+            if (appender instanceof OutputStreamAppender<ILoggingEvent> stream
+                    && !stream.isImmediateFlush()) {
+                OutputStream out = stream.getOutputStream();
+                if (out == null) {
+                    continue;
+                }
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    addError("Не удалось сбросить вывод аппендера " + appender.getName(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
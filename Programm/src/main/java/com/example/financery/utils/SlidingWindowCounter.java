@@ -0,0 +1,45 @@
+package com.example.financery.utils;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Число событий за скользящее окно: окно делится на корзины, старые корзины
+ * обнуляются при повторном использовании. Сумма покрывает от (n-1) до n корзин,
+ * то есть погрешность границы окна — одна корзина. Не потокобезопасен.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketSeconds;
+    private final long[] counts;
+    // Номер корзины от начала эпохи, которой сейчас принадлежит ячейка; -1 - пустая
+    private final long[] buckets;
+
+    public SlidingWindowCounter(Duration window, int bucketCount) {
+        this.bucketSeconds = Math.max(1, window.getSeconds() / bucketCount);
+        this.counts = new long[bucketCount];
+        this.buckets = new long[bucketCount];
+        Arrays.fill(buckets, -1);
+    }
+
+    public void add(long epochSecond, long count) {
+        long bucket = epochSecond / bucketSeconds;
+        int index = (int) (bucket % counts.length);
+        if (buckets[index] != bucket) {
+            buckets[index] = bucket;
+            counts[index] = 0;
+        }
+        counts[index] += count;
+    }
+
+    public long sum(long epochSecond) {
+        long current = epochSecond / bucketSeconds;
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (buckets[i] > current - counts.length && buckets[i] <= current) {
+                sum += counts[i];
+            }
+        }
+        return sum;
+    }
+}
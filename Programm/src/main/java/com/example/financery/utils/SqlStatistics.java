@@ -0,0 +1,96 @@
+package com.example.financery.utils;
+
+/**
+ * Счетчики запросов к базе в текущем потоке: число выполненных выражений JDBC,
+ * прочитанных строк и суммарное время выполнения. Считает SqlStatisticsDataSource,
+ * но только пока в потоке открыт хотя бы один замер; замеры вкладываются,
+ * и запрос учитывается во всех открытых.
+ *
+ * <pre>
+ * try (SqlStatistics sql = SqlStatistics.begin()) {
+ *     userService.getAllUsers();
+ *     sql.getStatements();
+ * }
+ * </pre>
+ */
+public final class SqlStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics parent;
+    private final Thread owner;
+    private long statements;
+    private long rows;
+    private long nanos;
+    private boolean closed;
+
+    private SqlStatistics(SqlStatistics parent) {
+        this.parent = parent;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Открывает замер в текущем потоке; закрыть его нужно в том же потоке.
+     */
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Самый внутренний открытый замер или null, если замеров нет.
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    static void recordStatement(long elapsedNanos) {
+        for (SqlStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.statements++;
+            s.nanos += elapsedNanos;
+        }
+    }
+
+    static void recordRow() {
+        for (SqlStatistics s = CURRENT.get(); s != null; s = s.parent) {
+            s.rows++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    @Override
+    public void close() {
+        if (closed || Thread.currentThread() != owner) {
+            return;
+        }
+        closed = true;
+        // Замеры закрываются в обратном порядке, но незакрытые вложенные тоже снимаются
+        SqlStatistics current = CURRENT.get();
+        while (current != null && current != this) {
+            current.closed = true;
+            current = current.parent;
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return statements + " запросов, " + rows + " строк, " + getMillis() + " мс";
+    }
+}
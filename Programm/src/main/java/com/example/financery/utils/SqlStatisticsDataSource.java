@@ -0,0 +1,182 @@
+package com.example.financery.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource, оборачивающий соединения, выражения и результаты JDBC в прокси.
+ * Каждый вызов execute* считается одним запросом к базе, его время прибавляется
+ * к открытым в потоке замерам SqlStatistics, каждый успешный ResultSet.next() —
+ * прочитанной строкой. Запросы дольше slowThreshold пишутся в лог вместе с SQL
+ * в любом потоке, в том числе без открытого замера.
+ */
+@Slf4j
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    private static final int MAX_LOGGED_SQL = 1000;
+
+    private final long slowThresholdNanos;
+    private final AtomicLong slow = new AtomicLong();
+
+    public SqlStatisticsDataSource(DataSource target, Duration slowThreshold) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    public long getSlowCount() {
+        return slow.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class,
+                new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private void executed(String sql, long elapsedNanos) {
+        SqlStatistics.recordStatement(elapsedNanos);
+        if (slowThresholdNanos > 0 && elapsedNanos >= slowThresholdNanos) {
+            slow.incrementAndGet();
+            log.warn("Медленный запрос {} мс: {}", elapsedNanos / 1_000_000, abbreviate(sql));
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "<пакет>";
+        }
+        String line = sql.replaceAll("\\s+", " ").trim();
+        return line.length() <= MAX_LOGGED_SQL ? line
+                : line.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+
+    // Общая часть прокси: equals/hashCode по самому прокси, исключения цели без обертки
+    private abstract static class Handler implements InvocationHandler {
+
+        private final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends Handler {
+
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(result, null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class,
+                            new StatementHandler(result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class,
+                            new StatementHandler(result, (String) args[0]));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private final class StatementHandler extends Handler {
+
+        private final String sql;
+
+        StatementHandler(Object statement, String sql) {
+            super(statement);
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = call(method, args);
+                return name.equals("getResultSet") && result != null
+                        ? proxy(ResultSet.class, new ResultSetHandler(result))
+                        : result;
+            }
+            long start = System.nanoTime();
+            try {
+                Object result = call(method, args);
+                return result instanceof ResultSet
+                        ? proxy(ResultSet.class, new ResultSetHandler(result))
+                        : result;
+            } finally {
+                String text = args != null && args.length > 0 && args[0] instanceof String s
+                        ? s : sql;
+                executed(text, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+
+        ResultSetHandler(Object resultSet) {
+            super(resultSet);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                SqlStatistics.recordRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.financery.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Файлы результатов задач во временной директории, доступные только владельцу.
+ */
+public final class TempFiles {
+
+    private TempFiles() {
+    }
+
+    public static void ensureDirectory(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Не удаётся создать защищённую временную директорию", e);
+        }
+    }
+
+    public static Path createPrivate(Path dir, String prefix, String suffix) throws IOException {
+        String osName = System.getProperty("os.name").toLowerCase();
+        if (osName.contains("win")) {
+            Path tempFilePath = Files.createTempFile(dir, prefix, suffix);
+            File tempFile = tempFilePath.toFile();
+            if (!tempFile.setReadable(true, true) || !tempFile.setWritable(true, true)) {
+                throw new IllegalStateException(
+                        "Не удалось установить права для файла: " + tempFile);
+            }
+            if (tempFile.canExecute()) {
+                tempFile.setExecutable(false, false);
+            }
+            return tempFilePath;
+        }
+        FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString("rw-------"));
+        return Files.createTempFile(dir, prefix, suffix, attr);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.financery.utils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Память, выделенная текущим потоком, и процессорное время потока с момента
+ * {@link #start()}. Значения берутся из com.sun.management.ThreadMXBean и стоят
+ * порядка сотни наносекунд; если JVM их не поддерживает, а также для виртуальных
+ * потоков, методы возвращают -1.
+ */
+public final class ThreadResourceUsage {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+    private static final boolean ALLOCATION_SUPPORTED = THREADS != null
+            && THREADS.isThreadAllocatedMemorySupported()
+            && THREADS.isThreadAllocatedMemoryEnabled();
+    private static final boolean CPU_SUPPORTED = THREADS != null
+            && THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    private final Thread owner;
+    private final long allocatedAtStart;
+    private final long cpuAtStart;
+
+    private ThreadResourceUsage() {
+        this.owner = Thread.currentThread();
+        this.allocatedAtStart = currentAllocatedBytes();
+        this.cpuAtStart = currentCpuNanos();
+    }
+
+    public static ThreadResourceUsage start() {
+        return new ThreadResourceUsage();
+    }
+
+    /**
+     * Байты, выделенные потоком с начала замера, или -1.
+     */
+    public long allocatedBytes() {
+        return delta(allocatedAtStart, currentAllocatedBytes());
+    }
+
+    /**
+     * Процессорное время потока с начала замера в наносекундах, или -1.
+     */
+    public long cpuNanos() {
+        return delta(cpuAtStart, currentCpuNanos());
+    }
+
+    // Замер имеет смысл только в том же потоке, где начат
+    private long delta(long start, long now) {
+        if (start < 0 || now < 0 || Thread.currentThread() != owner) {
+            return -1;
+        }
+        return now - start;
+    }
+
+    private static long currentAllocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) {
+            return -1;
+        }
+        try {
+            return THREADS.getCurrentThreadAllocatedBytes();
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private static long currentCpuNanos() {
+        if (!CPU_SUPPORTED) {
+            return -1;
+        }
+        try {
+            return THREADS.getCurrentThreadCpuTime();
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        return ManagementFactory.getThreadMXBean()
+                instanceof com.sun.management.ThreadMXBean threads ? threads : null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.financery.utils;
+
+import com.example.financery.model.ArchivedTransaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Формат архивного сегмента: сжатые gzip колонки одного пользователя за один месяц.
+ * Строки упорядочены по дате и id, даты хранятся разностями от предыдущей строки.
+ */
+public final class TransactionSegmentCodec {
+
+    private static final int MAGIC = 0x46545347;
+    private static final short VERSION = 1;
+
+    private TransactionSegmentCodec() {
+    }
+
+    public static void write(OutputStream out, long userId, List<ArchivedTransaction> rows)
+            throws IOException {
+        List<ArchivedTransaction> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(ArchivedTransaction::getDate)
+                .thenComparingLong(ArchivedTransaction::getId));
+        int count = sorted.size();
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeLong(userId);
+        data.writeInt(count);
+
+        for (ArchivedTransaction row : sorted) {
+            data.writeLong(row.getId());
+        }
+        long previousDay = 0;
+        for (ArchivedTransaction row : sorted) {
+            long day = row.getDate().toEpochDay();
+            data.writeInt((int) (day - previousDay));
+            previousDay = day;
+        }
+        BitSet types = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            types.set(i, sorted.get(i).isType());
+        }
+        byte[] typeBytes = types.toByteArray();
+        data.writeInt(typeBytes.length);
+        data.write(typeBytes);
+        for (ArchivedTransaction row : sorted) {
+            data.writeDouble(row.getAmount());
+        }
+        for (ArchivedTransaction row : sorted) {
+            data.writeLong(row.getBillId());
+        }
+        for (ArchivedTransaction row : sorted) {
+            data.writeUTF(row.getName());
+        }
+        for (ArchivedTransaction row : sorted) {
+            data.writeBoolean(row.getDescription() != null);
+            if (row.getDescription() != null) {
+                data.writeUTF(row.getDescription());
+            }
+        }
+        for (ArchivedTransaction row : sorted) {
+            data.writeShort(row.getTagIds().size());
+            for (Long tagId : row.getTagIds()) {
+                data.writeLong(tagId);
+            }
+        }
+        data.flush();
+        gzip.finish();
+    }
+
+    public static List<ArchivedTransaction> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(in)));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Файл не является архивным сегментом транзакций");
+        }
+        short version = data.readShort();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия архивного сегмента: " + version);
+        }
+        long userId = data.readLong();
+        int count = data.readInt();
+
+        List<ArchivedTransaction> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ArchivedTransaction row = new ArchivedTransaction();
+            row.setUserId(userId);
+            row.setId(data.readLong());
+            rows.add(row);
+        }
+        long day = 0;
+        for (ArchivedTransaction row : rows) {
+            day += data.readInt();
+            row.setDate(LocalDate.ofEpochDay(day));
+        }
+        byte[] typeBytes = new byte[data.readInt()];
+        data.readFully(typeBytes);
+        BitSet types = BitSet.valueOf(typeBytes);
+        for (int i = 0; i < count; i++) {
+            rows.get(i).setType(types.get(i));
+        }
+        for (ArchivedTransaction row : rows) {
+            row.setAmount(data.readDouble());
+        }
+        for (ArchivedTransaction row : rows) {
+            row.setBillId(data.readLong());
+        }
+        for (ArchivedTransaction row : rows) {
+            row.setName(data.readUTF());
+        }
+        for (ArchivedTransaction row : rows) {
+            row.setDescription(data.readBoolean() ? data.readUTF() : null);
+        }
+        for (ArchivedTransaction row : rows) {
+            int tagCount = data.readShort();
+            for (int i = 0; i < tagCount; i++) {
+                row.getTagIds().add(data.readLong());
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,49 @@
+-- Исходная схема, которую раньше создавал hibernate.ddl-auto=update
+
+CREATE TABLE user_table (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name    VARCHAR(50)      NOT NULL,
+    email   VARCHAR(255)     NOT NULL,
+    balance DOUBLE PRECISION NOT NULL,
+    CONSTRAINT user_table_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_user_table_email UNIQUE (email)
+);
+
+CREATE TABLE bill_table (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name    VARCHAR(50)      NOT NULL,
+    balance DOUBLE PRECISION NOT NULL,
+    user_id BIGINT           NOT NULL,
+    CONSTRAINT bill_table_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_bill_user FOREIGN KEY (user_id) REFERENCES user_table (id)
+);
+
+CREATE TABLE transaction_table (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(50)      NOT NULL,
+    description VARCHAR(255),
+    type        BOOLEAN          NOT NULL,
+    amount      DOUBLE PRECISION NOT NULL,
+    date        DATE             NOT NULL,
+    user_id     BIGINT           NOT NULL,
+    bill_id     BIGINT           NOT NULL,
+    CONSTRAINT transaction_table_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES user_table (id),
+    CONSTRAINT fk_transaction_bill FOREIGN KEY (bill_id) REFERENCES bill_table (id)
+);
+
+CREATE TABLE tag_table (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title   VARCHAR(15) NOT NULL,
+    user_id BIGINT      NOT NULL,
+    CONSTRAINT tag_table_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_tag_user FOREIGN KEY (user_id) REFERENCES user_table (id)
+);
+
+CREATE TABLE transaction_tag (
+    transaction_id BIGINT NOT NULL,
+    tag_id         BIGINT NOT NULL,
+    CONSTRAINT fk_transaction_tag_transaction
+        FOREIGN KEY (transaction_id) REFERENCES transaction_table (id),
+    CONSTRAINT fk_transaction_tag_tag FOREIGN KEY (tag_id) REFERENCES tag_table (id)
+);
@@ -0,0 +1,14 @@
+-- Помесячные итоги; на базах после ddl-auto=update таблица уже может существовать
+
+CREATE TABLE IF NOT EXISTS monthly_rollup_table (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id           BIGINT           NOT NULL,
+    bill_id           BIGINT           NOT NULL,
+    tag_id            BIGINT           NOT NULL,
+    month             DATE             NOT NULL,
+    type              BOOLEAN          NOT NULL,
+    amount            DOUBLE PRECISION NOT NULL,
+    transaction_count BIGINT           NOT NULL,
+    CONSTRAINT monthly_rollup_table_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_monthly_rollup_key UNIQUE (user_id, bill_id, tag_id, month, type)
+);
@@ -0,0 +1,19 @@
+-- Индексы под внешние ключи и выборки репозиториев
+
+CREATE INDEX IF NOT EXISTS idx_bill_user ON bill_table (user_id);
+CREATE INDEX IF NOT EXISTS idx_tag_user ON tag_table (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_tag_transaction ON transaction_tag (transaction_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_tag_tag ON transaction_tag (tag_id);
+
+-- Keyset-пагинация и выборки по пользователю/счету, упорядоченные по дате
+CREATE INDEX IF NOT EXISTS idx_transaction_user_date_id
+    ON transaction_table (user_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_transaction_bill_date_id
+    ON transaction_table (bill_id, date, id);
+
+-- Сводки по счету и по тегу; сводка пользователя использует префикс уникального ключа
+CREATE INDEX IF NOT EXISTS idx_monthly_rollup_bill
+    ON monthly_rollup_table (bill_id, tag_id, month);
+CREATE INDEX IF NOT EXISTS idx_monthly_rollup_tag
+    ON monthly_rollup_table (tag_id, month);
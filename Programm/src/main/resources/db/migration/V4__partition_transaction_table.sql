@@ -0,0 +1,110 @@
+-- Помесячное секционирование transaction_table по дате транзакции.
+-- Первичный ключ секционированной таблицы обязан содержать ключ секционирования,
+-- поэтому он становится (id, date), а внешний ключ transaction_tag -> transaction_table
+-- удаляется: строки связки удаляет Hibernate вместе с транзакцией.
+
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'transaction_tag'::regclass
+          AND confrelid = 'transaction_table'::regclass
+          AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE transaction_tag DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE transaction_table RENAME TO transaction_table_legacy;
+
+CREATE SEQUENCE transaction_table_id_seq AS BIGINT;
+
+CREATE TABLE transaction_table (
+    id          BIGINT           NOT NULL DEFAULT nextval('transaction_table_id_seq'),
+    name        VARCHAR(50)      NOT NULL,
+    description VARCHAR(255),
+    type        BOOLEAN          NOT NULL,
+    amount      DOUBLE PRECISION NOT NULL,
+    date        DATE             NOT NULL,
+    user_id     BIGINT           NOT NULL,
+    bill_id     BIGINT           NOT NULL,
+    CONSTRAINT transaction_table_part_pkey PRIMARY KEY (id, date),
+    CONSTRAINT fk_transaction_part_user FOREIGN KEY (user_id) REFERENCES user_table (id),
+    CONSTRAINT fk_transaction_part_bill FOREIGN KEY (bill_id) REFERENCES bill_table (id)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE transaction_table_id_seq OWNED BY transaction_table.id;
+
+-- Строки вне созданных месяцев (очень старые или далекие будущие даты)
+CREATE TABLE transaction_table_default PARTITION OF transaction_table DEFAULT;
+
+-- Создает недостающие месячные секции в диапазоне [p_from, p_to].
+-- Строки, уже попавшие за этот месяц в секцию по умолчанию, переносятся в новую секцию.
+CREATE OR REPLACE FUNCTION create_transaction_partitions(p_from DATE, p_to DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start    DATE := date_trunc('month', p_from)::date;
+    month_end      DATE;
+    partition_name TEXT;
+    created        INTEGER := 0;
+BEGIN
+    WHILE month_start <= p_to LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        partition_name := format('transaction_table_%s', to_char(month_start, 'YYYY_MM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            DROP TABLE IF EXISTS transaction_partition_moving;
+            CREATE TEMP TABLE transaction_partition_moving ON COMMIT DROP AS
+                SELECT * FROM transaction_table_default
+                WHERE date >= month_start AND date < month_end;
+            DELETE FROM transaction_table_default
+                WHERE date >= month_start AND date < month_end;
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF transaction_table FOR VALUES FROM (%L) TO (%L)',
+                partition_name, month_start, month_end);
+            INSERT INTO transaction_table SELECT * FROM transaction_partition_moving;
+            DROP TABLE transaction_partition_moving;
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Секции за последние пять лет истории и на три месяца вперед
+SELECT create_transaction_partitions(
+    GREATEST(
+        COALESCE((SELECT MIN(date) FROM transaction_table_legacy), CURRENT_DATE),
+        (CURRENT_DATE - INTERVAL '5 years')::date),
+    (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO transaction_table (id, name, description, type, amount, date, user_id, bill_id)
+SELECT id, name, description, type, amount, date, user_id, bill_id
+FROM transaction_table_legacy;
+
+SELECT setval('transaction_table_id_seq',
+              COALESCE((SELECT MAX(id) FROM transaction_table), 0) + 1, false);
+
+DROP TABLE transaction_table_legacy;
+
+-- Индексы на родительской таблице создаются во всех секциях
+CREATE INDEX idx_transaction_user_date_id ON transaction_table (user_id, date, id);
+CREATE INDEX idx_transaction_bill_date_id ON transaction_table (bill_id, date, id);
+
+-- Запросы за весь период берут границы из помесячных итогов, поэтому они должны быть заполнены
+INSERT INTO monthly_rollup_table
+    (user_id, bill_id, tag_id, month, type, amount, transaction_count)
+SELECT t.user_id, t.bill_id, 0, date_trunc('month', t.date)::date, t.type,
+       SUM(t.amount), COUNT(*)
+FROM transaction_table t
+WHERE NOT EXISTS (SELECT 1 FROM monthly_rollup_table)
+GROUP BY t.user_id, t.bill_id, date_trunc('month', t.date)::date, t.type
+UNION ALL
+SELECT t.user_id, t.bill_id, tt.tag_id, date_trunc('month', t.date)::date, t.type,
+       SUM(t.amount), COUNT(*)
+FROM transaction_table t
+JOIN transaction_tag tt ON tt.transaction_id = t.id
+WHERE NOT EXISTS (SELECT 1 FROM monthly_rollup_table)
+GROUP BY t.user_id, t.bill_id, tt.tag_id, date_trunc('month', t.date)::date, t.type;
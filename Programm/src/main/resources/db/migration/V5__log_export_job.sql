@@ -0,0 +1,20 @@
+-- Задачи асинхронной выгрузки логов; раньше хранились в памяти одного экземпляра
+
+CREATE TABLE log_export_job (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    log_date      DATE                     NOT NULL,
+    status        VARCHAR(20)              NOT NULL,
+    file_path     VARCHAR(1024),
+    error_message VARCHAR(1024),
+    created_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished_at   TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT log_export_job_pkey PRIMARY KEY (id)
+);
+
+-- Одновременные запросы одной даты сводятся к одной выполняющейся задаче
+CREATE UNIQUE INDEX uk_log_export_job_running
+    ON log_export_job (log_date) WHERE status = 'IN_PROGRESS';
+
+-- Поиск завершенных задач с истекшим сроком хранения
+CREATE INDEX idx_log_export_job_finished
+    ON log_export_job (finished_at) WHERE finished_at IS NOT NULL;
@@ -0,0 +1,46 @@
+-- Общая таблица фоновых задач; задачи выгрузки логов переносятся из log_export_job
+
+CREATE TABLE job_table (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    type             VARCHAR(50)              NOT NULL,
+    job_key          VARCHAR(255),
+    payload          VARCHAR(1024),
+    priority         INTEGER                  NOT NULL DEFAULT 0,
+    status           VARCHAR(20)              NOT NULL,
+    progress         INTEGER                  NOT NULL DEFAULT 0,
+    cancel_requested BOOLEAN                  NOT NULL DEFAULT FALSE,
+    result           VARCHAR(1024),
+    error_message    VARCHAR(1024),
+    created_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at       TIMESTAMP WITH TIME ZONE,
+    heartbeat_at     TIMESTAMP WITH TIME ZONE,
+    finished_at      TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT job_table_pkey PRIMARY KEY (id)
+);
+
+-- Незавершенные выгрузки прерваны остановкой приложения на время миграции
+INSERT INTO job_table (id, type, job_key, payload, status, progress, result,
+                       error_message, created_at, finished_at)
+SELECT id, 'LOG_EXPORT', log_date::text, log_date::text,
+       CASE WHEN status = 'IN_PROGRESS' THEN 'FAILED' ELSE status END,
+       CASE WHEN status = 'COMPLETED' THEN 100 ELSE 0 END,
+       file_path,
+       CASE WHEN status = 'IN_PROGRESS' THEN 'Задача прервана обновлением' ELSE error_message END,
+       created_at, COALESCE(finished_at, now())
+FROM log_export_job;
+
+SELECT setval(pg_get_serial_sequence('job_table', 'id'),
+              COALESCE((SELECT MAX(id) FROM job_table), 0) + 1, false);
+
+DROP TABLE log_export_job;
+
+-- Одинаковые активные задачи сводятся к одной
+CREATE UNIQUE INDEX uk_job_active_key
+    ON job_table (type, job_key) WHERE status IN ('QUEUED', 'RUNNING');
+
+-- Выбор следующей задачи типа по приоритету
+CREATE INDEX idx_job_queued
+    ON job_table (type, priority DESC, id) WHERE status = 'QUEUED';
+
+CREATE INDEX idx_job_finished
+    ON job_table (finished_at) WHERE finished_at IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Клиент, поставивший задачу; по нему считается квота активных задач
+
+ALTER TABLE job_table ADD COLUMN client_id VARCHAR(100);
+
+CREATE INDEX idx_job_active_client
+    ON job_table (client_id) WHERE status IN ('QUEUED', 'RUNNING');
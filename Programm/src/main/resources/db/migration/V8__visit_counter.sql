@@ -0,0 +1,11 @@
+-- Счетчики посещений по эндпоинту и пользователю; user_id = 0 — запросы без пользователя.
+-- Экземпляры прибавляют свои приращения, поэтому таблица хранит сумму по всем
+
+CREATE TABLE visit_counter_table (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    endpoint VARCHAR(255) NOT NULL,
+    user_id  BIGINT       NOT NULL,
+    visits   BIGINT       NOT NULL,
+    CONSTRAINT visit_counter_table_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_visit_counter_key UNIQUE (endpoint, user_id)
+);
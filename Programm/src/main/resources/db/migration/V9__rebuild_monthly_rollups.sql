@@ -0,0 +1,27 @@
+-- Пересчет помесячных итогов по строкам transaction_table. V4 заполняла итоги, только
+-- если таблица была пустой, поэтому на базах, где итоги копились с V2, они могут
+-- покрывать лишь транзакции, созданные после их появления.
+-- Архивация переносит месяцы пользователя целиком, поэтому итоги пересчитываются
+-- только за месяцы, в которых у пользователя есть строки в таблице; итоги архивных
+-- месяцев остаются как есть.
+
+DELETE FROM monthly_rollup_table r
+WHERE EXISTS (
+    SELECT 1 FROM transaction_table t
+    WHERE t.user_id = r.user_id
+      AND t.date >= r.month
+      AND t.date < (r.month + INTERVAL '1 month')::date
+);
+
+INSERT INTO monthly_rollup_table
+    (user_id, bill_id, tag_id, month, type, amount, transaction_count)
+SELECT t.user_id, t.bill_id, 0, date_trunc('month', t.date)::date, t.type,
+       SUM(t.amount), COUNT(*)
+FROM transaction_table t
+GROUP BY t.user_id, t.bill_id, date_trunc('month', t.date)::date, t.type
+UNION ALL
+SELECT t.user_id, t.bill_id, tt.tag_id, date_trunc('month', t.date)::date, t.type,
+       SUM(t.amount), COUNT(*)
+FROM transaction_table t
+JOIN transaction_tag tt ON tt.transaction_id = t.id
+GROUP BY t.user_id, t.bill_id, tt.tag_id, date_trunc('month', t.date)::date, t.type;
@@ -0,0 +1,87 @@
+package com.example.financery.aspect;
+
+import com.example.financery.config.TracingConfig;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    private <T> T proxy(T target, double sampleRate) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(TracingConfig.advisor(
+                new TracingInterceptor(() -> registry, sampleRate)));
+        @SuppressWarnings("unchecked")
+        T proxy = (T) factory.getProxy();
+        return proxy;
+    }
+
+    private Timer timer(String span, String outcome) {
+        return registry.find("method.traced").tag("span", span).tag("outcome", outcome).timer();
+    }
+
+    @Test
+    void invoke_recordsSpansOfAnnotatedType() {
+        TracedService service = proxy(new TracedService(), 1.0);
+
+        service.find();
+        service.find();
+        assertThrows(IllegalStateException.class, service::fail);
+
+        assertEquals(2, timer("TracedService.find", "SUCCESS").count());
+        assertEquals(1, timer("TracedService.fail", "ERROR").count());
+    }
+
+    @Test
+    void invoke_usesNameFromAnnotationAndSkipsOtherMethods() {
+        PartlyTracedService service = proxy(new PartlyTracedService(), 1.0);
+
+        service.create();
+        service.plain();
+
+        assertEquals(1, timer("transactions.create", "SUCCESS").count());
+        assertNull(registry.find("method.traced").tag("span", "PartlyTracedService.plain")
+                .timer());
+    }
+
+    @Test
+    void invoke_zeroRateRecordsNothing() {
+        TracedService service = proxy(new TracedService(), 0);
+
+        assertEquals("ok", service.find());
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Traced
+    public static class TracedService {
+        public String find() {
+            return "ok";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("ошибка");
+        }
+    }
+
+    public static class PartlyTracedService {
+        @Traced("transactions.create")
+        public void create() {
+        }
+
+        public void plain() {
+        }
+    }
+}
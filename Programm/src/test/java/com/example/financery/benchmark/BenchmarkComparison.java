@@ -0,0 +1,159 @@
+package com.example.financery.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сравнение двух результатов JMH в формате JSON (-rf json), например до и после
+ * коммита. Бенчмарки сопоставляются по имени и параметрам; регрессия — результат
+ * хуже базового больше чем на порог и больше суммарной погрешности обоих замеров,
+ * или рост памяти на операцию (-prof gc) больше порога. При регрессиях код выхода 1.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@compare -Djmh.baseline=base.json
+ *     -Djmh.results=new.json
+ * </pre>
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 5;
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public record Result(String key, String mode, String unit, double score, double error,
+                         Double bytesPerOp) {
+    }
+
+    public record Row(String key, Result baseline, Result current, double changePercent,
+                      Double allocationChangePercent, boolean regression) {
+    }
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Использование: BenchmarkComparison base.json new.json [порог, %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2])
+                : DEFAULT_THRESHOLD_PERCENT;
+        List<Row> rows = compare(read(Path.of(args[0])), read(Path.of(args[1])), threshold);
+        print(rows, threshold, System.out);
+        if (rows.stream().anyMatch(Row::regression)) {
+            System.exit(1);
+        }
+    }
+
+    public static Map<String, Result> read(Path file) throws IOException {
+        return parse(new ObjectMapper().readTree(file.toFile()));
+    }
+
+    public static Map<String, Result> parse(JsonNode results) {
+        Map<String, Result> parsed = new LinkedHashMap<>();
+        for (JsonNode run : results) {
+            String key = key(run);
+            JsonNode primary = run.path("primaryMetric");
+            parsed.put(key, new Result(key, run.path("mode").asText(),
+                    primary.path("scoreUnit").asText(), primary.path("score").asDouble(),
+                    error(primary), allocation(run.path("secondaryMetrics"))));
+        }
+        return parsed;
+    }
+
+    public static List<Row> compare(Map<String, Result> baseline, Map<String, Result> current,
+                                    double thresholdPercent) {
+        List<Row> rows = new ArrayList<>();
+        for (Result now : current.values()) {
+            Result before = baseline.get(now.key());
+            if (before == null || before.score() == 0) {
+                rows.add(new Row(now.key(), before, now, Double.NaN, null, false));
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // В режиме thrpt больше — лучше, в остальных (avgt, sample, ss) — меньше
+            double worse = now.mode().equals("thrpt") ? -change : change;
+            boolean slower = worse > thresholdPercent
+                    && Math.abs(now.score() - before.score()) > before.error() + now.error();
+            Double allocationChange = null;
+            boolean moreGarbage = false;
+            if (before.bytesPerOp() != null && now.bytesPerOp() != null
+                    && before.bytesPerOp() > 0) {
+                allocationChange = (now.bytesPerOp() - before.bytesPerOp())
+                        / before.bytesPerOp() * 100;
+                moreGarbage = allocationChange > thresholdPercent;
+            }
+            rows.add(new Row(now.key(), before, now, change, allocationChange,
+                    slower || moreGarbage));
+        }
+        return rows;
+    }
+
+    public static void print(List<Row> rows, double thresholdPercent, PrintStream out) {
+        int width = rows.stream().mapToInt(row -> row.key().length()).max().orElse(10);
+        String format = "%-" + width + "s %18s %18s %9s %9s  %s%n";
+        out.printf(Locale.ROOT, format, "Бенчмарк", "База", "Сейчас", "Изм., %", "Память, %",
+                "");
+        int regressions = 0;
+        for (Row row : rows) {
+            if (row.regression()) {
+                regressions++;
+            }
+            out.printf(Locale.ROOT, format, row.key(),
+                    row.baseline() == null ? "-" : score(row.baseline()),
+                    score(row.current()),
+                    Double.isNaN(row.changePercent()) ? "новый"
+                            : String.format(Locale.ROOT, "%+.1f", row.changePercent()),
+                    row.allocationChangePercent() == null ? "-"
+                            : String.format(Locale.ROOT, "%+.1f", row.allocationChangePercent()),
+                    row.regression() ? "РЕГРЕССИЯ" : "");
+        }
+        out.printf(Locale.ROOT, "%nПорог %.1f%%, регрессий: %d%n", thresholdPercent,
+                regressions);
+    }
+
+    private static String score(Result result) {
+        return String.format(Locale.ROOT, "%.3f %s", result.score(), result.unit());
+    }
+
+    // Имя метода без пакета и параметры в порядке имени
+    private static String key(JsonNode run) {
+        String benchmark = run.path("benchmark").asText();
+        String name = benchmark.substring(benchmark.lastIndexOf('.',
+                benchmark.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    // В разных версиях JMH имя метрики начинается с «·» или без него
+    private static Double allocation(JsonNode secondary) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = secondary.fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.financery.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkComparisonTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static JsonNode run(String method, String mode, double score, double error,
+                                Double bytesPerOp) {
+        String secondary = bytesPerOp == null ? "{}"
+                : "{\"·gc.alloc.rate.norm\": {\"score\": " + bytesPerOp + "}}";
+        String json = "{\"benchmark\": \"com.example.financery.benchmark.MapperBenchmark."
+                + method + "\", \"mode\": \"" + mode + "\", "
+                + "\"params\": {\"transactions\": \"100\", \"tagsPerTransaction\": \"3\"}, "
+                + "\"primaryMetric\": {\"score\": " + score + ", \"scoreError\": " + error
+                + ", \"scoreUnit\": \"us/op\"}, \"secondaryMetrics\": " + secondary + "}";
+        try {
+            return MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, BenchmarkComparison.Result> results(JsonNode... runs) {
+        return BenchmarkComparison.parse(MAPPER.createArrayNode().addAll(List.of(runs)));
+    }
+
+    @Test
+    void compare_slowerBeyondThresholdAndErrorIsRegression() {
+        List<BenchmarkComparison.Row> rows = BenchmarkComparison.compare(
+                results(run("userToDto", "avgt", 10, 0.5, 4000.0),
+                        run("transactionToDto", "avgt", 1, 0.2, 300.0)),
+                results(run("userToDto", "avgt", 12, 0.5, 4000.0),
+                        run("transactionToDto", "avgt", 1.1, 0.2, 300.0)),
+                5);
+
+        assertEquals("MapperBenchmark.userToDto{tagsPerTransaction=3, transactions=100}",
+                rows.get(0).key());
+        assertTrue(rows.get(0).regression());
+        assertEquals(20, rows.get(0).changePercent(), 1e-9);
+        // +10%, но в пределах погрешности замеров
+        assertFalse(rows.get(1).regression());
+    }
+
+    @Test
+    void compare_throughputDropAndAllocationGrowthAreRegressions() {
+        List<BenchmarkComparison.Row> rows = BenchmarkComparison.compare(
+                results(run("userToDto", "thrpt", 1000, 1, null),
+                        run("transactionToDto", "avgt", 1, 0, 300.0)),
+                results(run("userToDto", "thrpt", 800, 1, null),
+                        run("transactionToDto", "avgt", 1, 0, 400.0)),
+                5);
+
+        assertTrue(rows.get(0).regression());
+        assertTrue(rows.get(1).regression());
+        assertEquals(100.0 / 3, rows.get(1).allocationChangePercent(), 1e-9);
+    }
+
+    @Test
+    void print_marksNewBenchmarksAndRegressions() {
+        List<BenchmarkComparison.Row> rows = BenchmarkComparison.compare(
+                results(run("userToDto", "avgt", 10, 0, null)),
+                results(run("userToDto", "avgt", 20, 0, null),
+                        run("transactionToDto", "avgt", 1, 0, null)),
+                5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BenchmarkComparison.print(rows, 5, new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("РЕГРЕССИЯ"), report);
+        assertTrue(report.contains("новый"), report);
+        assertTrue(report.contains("регрессий: 1"), report);
+    }
+}
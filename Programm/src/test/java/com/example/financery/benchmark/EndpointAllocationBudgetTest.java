@@ -0,0 +1,160 @@
+package com.example.financery.benchmark;
+
+import com.example.financery.config.MetricsConfig;
+import com.example.financery.controller.BillController;
+import com.example.financery.controller.UserController;
+import com.example.financery.mapper.BillMapper;
+import com.example.financery.mapper.TagMapper;
+import com.example.financery.mapper.TransactionMapper;
+import com.example.financery.mapper.UserMapper;
+import com.example.financery.model.Bill;
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import com.example.financery.model.User;
+import com.example.financery.repository.BillRepository;
+import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
+import com.example.financery.service.impl.BillServiceImpl;
+import com.example.financery.service.impl.UserServiceImpl;
+import com.example.financery.utils.InMemoryCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджеты памяти на запрос для эндпоинтов с тяжелым преобразованием графа сущностей
+ * в DTO: запросы проходят через фильтр из MetricsConfig, а проверяется среднее
+ * http.server.allocation после прогрева. Сервисы и мапперы настоящие, репозитории
+ * отдают граф из памяти; бюджет включает сериализацию ответа и накладные MockMvc.
+ * Запускается только в профиле benchmark.
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+class EndpointAllocationBudgetTest {
+
+    private static final int USERS = 20;
+    private static final int BILLS_PER_USER = 3;
+    private static final int TRANSACTIONS_PER_BILL = 20;
+    private static final int TAGS_PER_TRANSACTION = 2;
+
+    private static final int WARMUP = 30;
+    private static final int MEASURED = 20;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BillRepository billRepository = mock(BillRepository.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        TransactionMapper transactionMapper = new TransactionMapper(new TagMapper());
+        BillMapper billMapper = new BillMapper(transactionMapper);
+        UserMapper userMapper = new UserMapper(billMapper, transactionMapper);
+        MonthlyRollupService rollups = mock(MonthlyRollupService.class);
+        TransactionArchiveService archive = mock(TransactionArchiveService.class);
+
+        UserController users = new UserController(new UserServiceImpl(userRepository,
+                userMapper, mock(InMemoryCache.class), rollups, archive));
+        BillController bills = new BillController(new BillServiceImpl(billRepository,
+                billMapper, userRepository, rollups, archive));
+        mvc = MockMvcBuilders.standaloneSetup(users, bills)
+                .addFilters(new MetricsConfig(registry).requestResourceFilter())
+                .build();
+
+        List<User> graph = graph();
+        when(userRepository.findAll()).thenReturn(graph);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(graph.get(0)));
+        when(billRepository.findByUser(1L)).thenReturn(graph.get(0).getBills());
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        // 20 пользователей, 1200 транзакций: около 2,2 МБ на запрос
+        assertAllocationBudget(get("/users/get-all-users"), "/users/get-all-users",
+                3 * 1024 * 1024);
+    }
+
+    @Test
+    void getUserBills() throws Exception {
+        // 3 счета, 60 транзакций: около 100 КБ на запрос
+        assertAllocationBudget(get("/bills/get-all-user-bills/1"),
+                "/bills/get-all-user-bills/{userId}", 192 * 1024);
+    }
+
+    private void assertAllocationBudget(RequestBuilder request, String uri, long budgetBytes)
+            throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            mvc.perform(request).andExpect(status().isOk());
+        }
+        DistributionSummary summary = registry.find("http.server.allocation")
+                .tags("method", "GET", "uri", uri).summary();
+        assertNotNull(summary, "Фильтр не записал память для " + uri);
+        double warmupTotal = summary.totalAmount();
+
+        for (int i = 0; i < MEASURED; i++) {
+            mvc.perform(request).andExpect(status().isOk());
+        }
+        long perRequest = (long) ((summary.totalAmount() - warmupTotal) / MEASURED);
+
+        assumeTrue(perRequest > 0, "Память потока не измеряется в этой JVM");
+        assertTrue(perRequest <= budgetBytes, () -> "GET " + uri + ": " + perRequest
+                + " байт на запрос при бюджете " + budgetBytes);
+    }
+
+    private static List<User> graph() {
+        List<User> users = new ArrayList<>();
+        long transactionId = 1;
+        for (long u = 1; u <= USERS; u++) {
+            User user = new User();
+            user.setId(u);
+            user.setName("Пользователь " + u);
+            user.setEmail("user" + u + "@example.com");
+            List<Tag> tags = new ArrayList<>();
+            for (long t = 1; t <= TAGS_PER_TRANSACTION; t++) {
+                Tag tag = new Tag();
+                tag.setId(u * 10 + t);
+                tag.setTitle("тег " + t);
+                tag.setUser(user);
+                tags.add(tag);
+            }
+            for (long b = 1; b <= BILLS_PER_USER; b++) {
+                Bill bill = new Bill();
+                bill.setId(u * 10 + b);
+                bill.setName("Счет " + b);
+                bill.setBalance(1000);
+                bill.setUser(user);
+                for (int i = 0; i < TRANSACTIONS_PER_BILL; i++) {
+                    Transaction transaction = new Transaction();
+                    transaction.setId(transactionId++);
+                    transaction.setName("Покупка " + i);
+                    transaction.setDescription("Описание покупки " + i);
+                    transaction.setAmount(10.5 * i);
+                    transaction.setDate(LocalDate.of(2025, 1, 1).plusDays(i));
+                    transaction.setUser(user);
+                    transaction.setBill(bill);
+                    transaction.setTags(new ArrayList<>(tags));
+                    bill.getTransactions().add(transaction);
+                }
+                user.getBills().add(bill);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.financery.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.utils.InMemoryCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции InMemoryCache по одной и под конкуренцией: группа contended — три потока
+ * читают и один обновляет транзакции тех же пользователей. Лог кэша приглушен, его
+ * стоимость измеряет LogAppenderBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryCacheBenchmark {
+
+    // Столько пользователей помещается в кэш, остальные вытесняют друг друга
+    private static final int CACHED_USERS = 3;
+
+    // Транзакций в закэшированном списке пользователя
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private InMemoryCache cache;
+    private List<TransactionDtoResponse> transactions;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(InMemoryCache.class))
+                .setLevel(Level.WARN);
+        cache = new InMemoryCache();
+        transactions = new ArrayList<>();
+        for (long i = 0; i < size; i++) {
+            transactions.add(transaction(i));
+        }
+        for (long user = 1; user <= CACHED_USERS; user++) {
+            cache.put(user, new ArrayList<>(transactions));
+        }
+    }
+
+    private static TransactionDtoResponse transaction(long id) {
+        TransactionDtoResponse transaction = new TransactionDtoResponse();
+        transaction.setId(id);
+        transaction.setName("Покупка " + id);
+        transaction.setAmount(10.5 * id);
+        transaction.setDate(LocalDate.of(2025, 1, 1));
+        transaction.setTags(List.of());
+        return transaction;
+    }
+
+    private static long cachedUser() {
+        return ThreadLocalRandom.current().nextLong(1, CACHED_USERS + 1);
+    }
+
+    @Benchmark
+    public Object get() {
+        return cache.get(cachedUser());
+    }
+
+    // Пользователь вне кэша: каждая запись вытесняет самого давнего
+    @Benchmark
+    public void putEvicting() {
+        cache.put(ThreadLocalRandom.current().nextLong(CACHED_USERS + 1, 1000), transactions);
+    }
+
+    @Benchmark
+    public void updateTransaction() {
+        cache.updateTransaction(cachedUser(),
+                transaction(ThreadLocalRandom.current().nextLong(size)));
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Object contendedGet() {
+        return cache.get(cachedUser());
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void contendedUpdate() {
+        cache.updateTransaction(cachedUser(),
+                transaction(ThreadLocalRandom.current().nextLong(size)));
+    }
+}
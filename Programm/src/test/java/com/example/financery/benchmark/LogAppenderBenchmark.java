@@ -0,0 +1,108 @@
+package com.example.financery.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.financery.utils.RingBufferAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка обработки «запроса», который пишет в лог столько же строк, сколько
+ * прежний LoggingAspect и сервис на один вызов: синхронный файловый аппендер, как было,
+ * и кольцевой буфер с политиками DROP и BLOCK.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LogAppenderBenchmark {
+
+    @Param({"sync", "ring-drop", "ring-block"})
+    public String appender;
+
+    private Path file;
+    private LoggerContext context;
+    private Logger logger;
+    private RingBufferAppender ring;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("log-appender-benchmark", ".log");
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{dd-MM-yyyy HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.setImmediateFlush(appender.equals("sync"));
+        fileAppender.start();
+
+        Appender<ILoggingEvent> root = fileAppender;
+        if (!appender.equals("sync")) {
+            ring = new RingBufferAppender();
+            ring.setContext(context);
+            ring.setName("ASYNC");
+            ring.setOverflowPolicy(appender.equals("ring-drop") ? "DROP" : "BLOCK");
+            ring.addAppender(fileAppender);
+            ring.start();
+            root = ring;
+        }
+        logger = context.getLogger("com.example.financery.service.impl.TransactionServiceImpl");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(root);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws IOException {
+        if (ring != null) {
+            System.out.println("Отброшено событий: " + ring.getDroppedCount());
+        }
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void request(Blackhole blackhole) {
+        long userId = Thread.currentThread().getId();
+        logger.debug("Вызов метода: getTransactionsByUserId с аргументами: [{}]", userId);
+        // Работа обработчика запроса без логирования
+        Blackhole.consumeCPU(2000);
+        logger.info("Получено транзакций для пользователя {}: {}", userId, 12);
+        logger.debug("Метод getTransactionsByUserId выполнен, результат: [12 транзакций]");
+        blackhole.consume(userId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.financery.benchmark;
+
+import com.example.financery.utils.LogDayIndex;
+import com.example.financery.utils.LogQueryReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выборка записей лога за день через LogQueryReader: окно времени разной ширины
+ * без фильтров, с фильтром по уровню и по логгеру и потоку. Показывает, что стоимость
+ * зависит от ширины окна, а не от размера файла, и во что обходятся фильтры.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogQueryBenchmark {
+
+    private static final String[] LEVELS = {"INFO ", "DEBUG", "WARN ", "ERROR"};
+    private static final int DAY_MILLIS = 24 * 60 * 60_000;
+    private static final int WINDOW_START = 12 * 60 * 60_000;
+
+    // Записей за день, равномерно по времени
+    @Param({"100000", "1000000"})
+    public int lines;
+
+    @Param({"1", "60", "720"})
+    public int windowMinutes;
+
+    @Param({"none", "level", "logger-thread"})
+    public String filter;
+
+    private Path file;
+    private List<LogDayIndex.Region> regions;
+    private LogQueryReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("log-query-benchmark", ".log");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < lines; i++) {
+                int millis = (int) ((long) i * DAY_MILLIS / lines);
+                String logger = i % 5 == 0
+                        ? "c.e.f.service.impl.TransactionServiceImpl"
+                        : "c.e.f.service.impl.BillServiceImpl";
+                writer.write(String.format("28-04-2025 %02d:%02d:%02d.%03d [exec-%d] %s %s - "
+                                + "событие %d пользователя %d%n",
+                        millis / 3_600_000, millis / 60_000 % 60, millis / 1000 % 60,
+                        millis % 1000, i % 8, LEVELS[i % LEVELS.length], logger, i, i % 100));
+            }
+        }
+        regions = List.of(new LogDayIndex.Region(file, 0, Files.size(file)));
+        int from = WINDOW_START;
+        int to = from + windowMinutes * 60_000;
+        reader = switch (filter) {
+            case "level" -> new LogQueryReader(from, to, "ERROR", null, null, Integer.MAX_VALUE);
+            case "logger-thread" -> new LogQueryReader(from, to, null,
+                    "TransactionServiceImpl", "exec-3", Integer.MAX_VALUE);
+            default -> new LogQueryReader(from, to, null, null, null, Integer.MAX_VALUE);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int query(Blackhole blackhole) throws IOException {
+        return reader.read(regions, blackhole::consume);
+    }
+}
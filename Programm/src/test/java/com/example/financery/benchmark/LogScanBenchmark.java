@@ -0,0 +1,158 @@
+package com.example.financery.benchmark;
+
+import com.example.financery.utils.LogFileScanner;
+import com.example.financery.utils.LogLinePrefix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение отбора строк лога за день: построчное чтение с String.contains, как было
+ * в LogServiceImpl, и разбор префикса по байтам в одном потоке и на пуле fork-join.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogScanBenchmark {
+
+    private static final int DAYS = 30;
+    private static final int LINES_PER_DAY = 20_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 4, 1);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final LocalDate TARGET_DAY = FIRST_DAY.plusDays(DAYS / 2);
+
+    private Path file;
+    private ByteBuffer mapped;
+    private ForkJoinPool pool;
+    private ForkJoinPool singlePool;
+    private LogFileScanner parallelScanner;
+    private LogFileScanner singleScanner;
+    private FileChannel channel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("log-scan-benchmark", ".log");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int d = 0; d < DAYS; d++) {
+                String date = DATE_FORMAT.format(FIRST_DAY.plusDays(d));
+                for (int i = 0; i < LINES_PER_DAY; i++) {
+                    writer.write(String.format("%s %02d:%02d:%02d.%03d [http-nio-8080-exec-%d] "
+                                    + "INFO  c.e.f.service.impl.TransactionServiceImpl - "
+                                    + "Транзакция %d создана для пользователя %d%n",
+                            date, i / 3600 % 24, i / 60 % 60, i % 60, i % 1000, i % 10,
+                            i, i % 97));
+                    if (i % 500 == 0) {
+                        writer.write("\tat com.example.financery.Trace.method(Trace.java:42)\n");
+                    }
+                }
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        singlePool = new ForkJoinPool(1);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        parallelScanner = new LogFileScanner(pool, 4 * 1024 * 1024);
+        singleScanner = new LogFileScanner(singlePool, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        singlePool.shutdown();
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long stringContains() throws IOException {
+        String formattedDate = DATE_FORMAT.format(TARGET_DAY);
+        long bytes = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(formattedDate)) {
+                    bytes += line.length();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long bytePrefix() {
+        long target = TARGET_DAY.toEpochDay();
+        long bytes = 0;
+        int length = mapped.limit();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int newline = LogLinePrefix.indexOfNewline(mapped, lineStart, length);
+            if (newline < 0) {
+                break;
+            }
+            if (LogLinePrefix.parseDay(mapped, lineStart, newline - lineStart) == target) {
+                bytes += newline - lineStart;
+            }
+            lineStart = newline + 1;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public Object scannerSingleThread() throws IOException {
+        return singleScanner.scan(file, 0, channel.size(), true, LogFileScanner.NO_DAY);
+    }
+
+    @Benchmark
+    public Object scannerParallel() throws IOException {
+        return parallelScanner.scan(file, 0, channel.size(), true, LogFileScanner.NO_DAY);
+    }
+
+    @Benchmark
+    public int newlinesSwar() {
+        int count = 0;
+        int length = mapped.limit();
+        int i = LogLinePrefix.indexOfNewline(mapped, 0, length);
+        while (i >= 0) {
+            count++;
+            i = LogLinePrefix.indexOfNewline(mapped, i + 1, length);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int newlinesScalar() {
+        int count = 0;
+        int length = mapped.limit();
+        for (int i = 0; i < length; i++) {
+            if (mapped.get(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
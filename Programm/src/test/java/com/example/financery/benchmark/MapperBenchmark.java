@@ -0,0 +1,125 @@
+package com.example.financery.benchmark;
+
+import com.example.financery.mapper.BillMapper;
+import com.example.financery.mapper.TagMapper;
+import com.example.financery.mapper.TransactionMapper;
+import com.example.financery.mapper.UserMapper;
+import com.example.financery.model.Bill;
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import com.example.financery.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO: одна транзакция с тегами и пользователь со всеми
+ * счетами и транзакциями, как в /users/get-all-users. Граф строится в памяти,
+ * без Hibernate; выделение памяти на вызов видно с -prof gc.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int BILLS = 5;
+
+    private static final TransactionMapper TRANSACTION_MAPPER =
+            new TransactionMapper(new TagMapper());
+    private static final UserMapper USER_MAPPER =
+            new UserMapper(new BillMapper(TRANSACTION_MAPPER), TRANSACTION_MAPPER);
+
+    @State(Scope.Benchmark)
+    public static class SingleTransaction {
+
+        @Param({"0", "3"})
+        public int tagsPerTransaction;
+
+        private Transaction transaction;
+
+        @Setup
+        public void setUp() {
+            transaction = user(1, tagsPerTransaction).getTransactions().get(0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UserGraph {
+
+        // Транзакций у пользователя, поровну по счетам
+        @Param({"10", "100", "1000"})
+        public int transactions;
+
+        @Param({"0", "3"})
+        public int tagsPerTransaction;
+
+        private User user;
+
+        @Setup
+        public void setUp() {
+            user = user(transactions, tagsPerTransaction);
+        }
+    }
+
+    private static User user(int transactions, int tagsPerTransaction) {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Пользователь");
+        user.setEmail("user@example.com");
+        List<Tag> tags = new ArrayList<>();
+        for (long t = 1; t <= tagsPerTransaction; t++) {
+            Tag tag = new Tag();
+            tag.setId(t);
+            tag.setTitle("тег " + t);
+            tag.setUser(user);
+            tags.add(tag);
+        }
+        for (long b = 1; b <= BILLS; b++) {
+            Bill bill = new Bill();
+            bill.setId(b);
+            bill.setName("Счет " + b);
+            bill.setUser(user);
+            user.getBills().add(bill);
+        }
+        for (int i = 0; i < transactions; i++) {
+            Bill bill = user.getBills().get(i % BILLS);
+            Transaction item = new Transaction();
+            item.setId((long) i);
+            item.setName("Покупка " + i);
+            item.setDescription("Описание покупки " + i);
+            item.setAmount(10.5 * i);
+            item.setDate(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+            item.setUser(user);
+            item.setBill(bill);
+            item.setTags(new ArrayList<>(tags));
+            bill.getTransactions().add(item);
+            user.getTransactions().add(item);
+        }
+        return user;
+    }
+
+    @Benchmark
+    public Object transactionToDto(SingleTransaction state) {
+        return TRANSACTION_MAPPER.toTransactionDto(state.transaction);
+    }
+
+    @Benchmark
+    public Object userToDto(UserGraph state) {
+        return USER_MAPPER.toDto(state.user);
+    }
+}
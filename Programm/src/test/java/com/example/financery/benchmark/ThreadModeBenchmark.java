@@ -0,0 +1,166 @@
+package com.example.financery.benchmark;
+
+import com.example.financery.utils.DbBulkhead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность при всплеске запросов, которые ждут внешний ввод-вывод
+ * и затем коротко работают с базой через DbBulkhead: пул Tomcat из 200 платформенных
+ * потоков и поток на запрос в режиме виртуальных потоков. После замера печатается
+ * память на один запрос в работе (heap и RSS процесса). Режим virtual требует Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 1000;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int DB_POOL_SIZE = 10;
+    private static final long IO_MILLIS = 50;
+    private static final long DB_MICROS = 500;
+    private static final int IN_FLIGHT = 2000;
+    private static final int STACK_DEPTH = 32;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    private ExecutorService pool;
+    private SimpleAsyncTaskExecutor virtual;
+    private DbBulkhead bulkhead;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bulkhead = new DbBulkhead(DB_POOL_SIZE, 0, Duration.ofSeconds(30));
+        if (mode.equals("virtual")) {
+            virtual = new SimpleAsyncTaskExecutor("bench-");
+            virtual.setVirtualThreads(true);
+        } else {
+            pool = Executors.newFixedThreadPool(TOMCAT_THREADS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        measureInFlightMemory();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            submit(() -> {
+                try {
+                    request();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void submit(Runnable task) {
+        if (virtual != null) {
+            virtual.execute(task);
+        } else {
+            pool.execute(task);
+        }
+    }
+
+    // Внешний вызов без соединения с базой, затем короткий запрос под bulkhead
+    private void request() throws InterruptedException {
+        Thread.sleep(IO_MILLIS);
+        bulkhead.acquire();
+        try {
+            TimeUnit.MICROSECONDS.sleep(DB_MICROS);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // Поток на запрос в обоих режимах: каждый запрос стоит на защелке с небольшим стеком
+    private void measureInFlightMemory() throws Exception {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("in-flight-");
+        executor.setVirtualThreads(mode.equals("virtual"));
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long rssBefore = rss();
+
+        CountDownLatch started = new CountDownLatch(IN_FLIGHT);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            executor.execute(() -> park(STACK_DEPTH, started, release));
+        }
+        started.await();
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        long rssAfter = rss();
+        release.countDown();
+
+        System.out.printf("Память на запрос в работе (%s): heap %d Б, RSS %d Б%n", mode,
+                (heapAfter - heapBefore) / IN_FLIGHT,
+                rssBefore < 0 ? -1 : (rssAfter - rssBefore) / IN_FLIGHT);
+    }
+
+    private static void park(int frames, CountDownLatch started, CountDownLatch release) {
+        if (frames > 0) {
+            park(frames - 1, started, release);
+            return;
+        }
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long rss() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.financery.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.example.financery.aspect.Traced;
+import com.example.financery.aspect.TracingInterceptor;
+import com.example.financery.config.TracingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость вызова сервиса без прокси, через прежний LoggingAspect (три совета на
+ * каждый метод пакета, тело пропускается по isDebugEnabled) и через трассировку
+ * {@link Traced} с разной долей выборки. Выделение памяти видно с -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingBenchmark {
+
+    @Param({"none", "catch-all-aspect", "traced-0", "traced-1pct", "traced-all"})
+    public String mode;
+
+    private AccountService service;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        quiet(CatchAllAspect.class);
+        quiet(TracingInterceptor.class);
+        AccountService target = new AccountService();
+        switch (mode) {
+            case "none" -> service = target;
+            case "catch-all-aspect" -> {
+                AspectJProxyFactory factory = new AspectJProxyFactory(target);
+                factory.setProxyTargetClass(true);
+                factory.addAspect(new CatchAllAspect());
+                service = factory.getProxy();
+            }
+            default -> {
+                double rate = switch (mode) {
+                    case "traced-0" -> 0;
+                    case "traced-1pct" -> 0.01;
+                    default -> 1;
+                };
+                SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                ProxyFactory factory = new ProxyFactory(target);
+                factory.setProxyTargetClass(true);
+                factory.addAdvisor(TracingConfig.advisor(
+                        new TracingInterceptor(() -> registry, rate)));
+                service = (AccountService) factory.getProxy();
+            }
+        }
+    }
+
+    private static void quiet(Class<?> type) {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(type)).setLevel(Level.INFO);
+    }
+
+    @Benchmark
+    public void call(Blackhole blackhole) {
+        blackhole.consume(service.balance(id++));
+    }
+
+    // Небольшая работа, сравнимая с маппингом DTO в сервисе
+    @Traced
+    public static class AccountService {
+        public double balance(long id) {
+            Blackhole.consumeCPU(50);
+            return id * 0.5;
+        }
+    }
+
+    @Aspect
+    public static class CatchAllAspect {
+        private static final Logger logger = LoggerFactory.getLogger(CatchAllAspect.class);
+
+        @Before("execution(* com.example.financery..*(..))")
+        public void logBefore(JoinPoint joinPoint) {
+            if (logger.isDebugEnabled()) {
+                logger.info("Началось выполнение: {}", joinPoint.getSignature().toShortString());
+            }
+        }
+
+        @AfterReturning(pointcut = "execution(* com.example.financery..*(..))",
+                returning = "result")
+        public void logAfterReturning(JoinPoint joinPoint, Object result) {
+            if (logger.isDebugEnabled()) {
+                logger.info("Закончилось выполнение: {} с результатом: {}",
+                        joinPoint.getSignature().toShortString(), result);
+            }
+        }
+
+        @AfterThrowing(pointcut = "execution(* com.example.financery..*(..))",
+                throwing = "error")
+        public void logAfterThrowing(JoinPoint joinPoint, Throwable error) {
+            if (logger.isDebugEnabled()) {
+                logger.error("Исключение в: {} с причиной: {}",
+                        joinPoint.getSignature().toShortString(), error.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.financery.jfr;
+
+import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.utils.InMemoryCache;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinanceryEventsTest {
+
+    @TempDir
+    Path dir;
+
+    private List<RecordedEvent> record(String eventName, Runnable action) throws Exception {
+        Path file = dir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = new ArrayList<>(RecordingFile.readAllEvents(file));
+        events.removeIf(event -> !event.getEventType().getName().equals(eventName));
+        return events;
+    }
+
+    @Test
+    void cache_recordsMissPutHitAndEviction() throws Exception {
+        InMemoryCache cache = new InMemoryCache();
+
+        List<RecordedEvent> events = record("com.example.financery.Cache", () -> {
+            cache.get(1L);
+            cache.put(1L, new ArrayList<>(List.of(new TransactionDtoResponse())));
+            cache.get(1L);
+            for (long userId = 2; userId <= 4; userId++) {
+                cache.put(userId, new ArrayList<>());
+            }
+        });
+
+        assertEquals(List.of("MISS", "PUT", "HIT", "PUT", "PUT", "EVICT", "PUT"),
+                events.stream().map(event -> event.getString("operation")).toList());
+        RecordedEvent eviction = events.get(5);
+        assertEquals(1L, eviction.getLong("userId"));
+        assertEquals(1, eviction.getInt("entries"));
+    }
+
+    @Test
+    void balanceUpdate_carriesIdsAndAmounts() throws Exception {
+        List<RecordedEvent> events = record("com.example.financery.BalanceUpdate",
+                () -> BalanceUpdateEvent.commit("transaction.create", 7L, 3L, -25.0, 75.0));
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(7L, event.getLong("userId"));
+        assertEquals(3L, event.getLong("billId"));
+        assertEquals(-25.0, event.getDouble("delta"));
+        assertEquals(75.0, event.getDouble("balance"));
+    }
+
+    @Test
+    void events_notCommittedWithoutRecording() {
+        assertFalse(new TransactionReadEvent().shouldCommit());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.financery.repository;
+
+import com.example.financery.dto.TransactionFilterDtoRequest;
+import com.example.financery.service.TransactionService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Проверка планов на реальной БД: запускается, только если задан пароль к PostgreSQL.
+// Объясняется SQL, который на самом деле генерирует Hibernate: его перехватывает
+// StatementInspector, а параметры подставляются через PREPARE/EXECUTE.
+// transaction_table секционирована по месяцам, поэтому в плане должны быть только секции
+// периода запроса, индексы этих секций и никакой сортировки поверх них
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.financery.repository.TransactionIndexPlanTest$CapturingInspector")
+@Transactional
+@EnabledIfEnvironmentVariable(named = "PASSWORD_BD", matches = ".+")
+class TransactionIndexPlanTest {
+
+    private static final Pattern PARTITION_SCAN =
+            Pattern.compile(" on (transaction_table_\\w+)");
+    private static final DateTimeFormatter PARTITION_SUFFIX =
+            DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    // Секции создаются на пять лет назад и три месяца вперед от даты миграции,
+    // поэтому период берется относительно текущего месяца
+    private final LocalDate from = LocalDate.now().withDayOfMonth(1).minusMonths(1);
+    private final LocalDate to = LocalDate.now().withDayOfMonth(1).plusMonths(1).minusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        // На маленьких таблицах планировщик предпочитает seq scan, отключаем его в транзакции
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByUserId_prunesPartitionsAndUsesUserDateIdIndexWithoutSort() {
+        transactionRepository.findByUserId(1L, from, to);
+
+        String plan = explain(capturedTransactionQuery(), 1L, from, to);
+
+        assertEquals(expectedPartitions(), scannedPartitions(plan), plan);
+        assertTrue(plan.contains("_user_id_date_id_idx"), plan);
+    }
+
+    // Все транзакции счета читаются без условия по дате: секции не отсекаются,
+    // но каждая проходится по своему индексу (bill_id, date, id)
+    @Test
+    void findByBill_usesBillDateIdIndexInEveryPartition() {
+        transactionRepository.findByBill(1L);
+
+        String plan = explain(capturedTransactionQuery(), 1L);
+
+        assertTrue(plan.contains("_bill_id_date_id_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void filterKeysetPage_prunesPartitionsAndUsesIndexOrderingWithoutSort() {
+        long userId = jdbcTemplate.queryForObject("INSERT INTO user_table (name, email, balance) "
+                + "VALUES ('plan', 'plan-test@example.com', 0) RETURNING id", Long.class);
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setAfterDate(from);
+        filter.setAfterId(10L);
+        filter.setLimit(50);
+
+        transactionService.filterTransactions(userId, filter);
+
+        // Порядок параметров: forUser, dateFrom, dateTo, after (дата дважды и id), limit + 1
+        String plan = explain(capturedTransactionQuery(),
+                userId, from, to, from, from, 10L, 51);
+
+        assertEquals(expectedPartitions(), scannedPartitions(plan), plan);
+        assertTrue(plan.contains("_user_id_date_id_idx"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private static String capturedTransactionQuery() {
+        List<String> queries = CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select"))
+                .filter(sql -> sql.contains("transaction_table"))
+                .toList();
+        assertEquals(1, queries.size(), () -> String.join("\n", CapturingInspector.STATEMENTS));
+        return queries.get(0);
+    }
+
+    private Set<String> expectedPartitions() {
+        Set<String> partitions = new TreeSet<>();
+        for (LocalDate month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            partitions.add("transaction_table_" + month.format(PARTITION_SUFFIX));
+        }
+        return partitions;
+    }
+
+    private static Set<String> scannedPartitions(String plan) {
+        Set<String> partitions = new TreeSet<>();
+        Matcher matcher = PARTITION_SCAN.matcher(plan);
+        while (matcher.find()) {
+            partitions.add(matcher.group(1));
+        }
+        return partitions;
+    }
+
+    // Параметры JDBC (?) превращаются в $1..$n подготовленного выражения, значения
+    // передаются строковыми литералами, тип им назначает PostgreSQL по контексту
+    private String explain(String sql, Object... parameters) {
+        StringBuilder prepared = new StringBuilder();
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                prepared.append('$').append(++index);
+            } else {
+                prepared.append(c);
+            }
+        }
+        assertEquals(parameters.length, index, sql);
+        String values = List.of(parameters).stream()
+                .map(value -> "'" + value + "'")
+                .collect(Collectors.joining(", "));
+
+        jdbcTemplate.execute("PREPARE plan_probe AS " + prepared);
+        try {
+            List<String> lines = jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE plan_probe(" + values + ")", String.class);
+            return String.join("\n", lines);
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE plan_probe");
+        }
+    }
+
+    /**
+     * Запоминает весь SQL, который Hibernate отправляет в базу.
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
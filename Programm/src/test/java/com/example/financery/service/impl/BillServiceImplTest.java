@@ -9,6 +9,8 @@ import com.example.financery.model.Bill;
 import com.example.financery.model.User;
 import com.example.financery.repository.BillRepository;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
 import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +41,12 @@ class BillServiceImplTest {
     @Mock
     private BillMapper billMapper;
 
+    @Mock
+    private MonthlyRollupService rollupService;
+
+    @Mock
+    private TransactionArchiveService archiveService;
+
     @InjectMocks
     private BillServiceImpl billService;
 
@@ -480,6 +488,7 @@ class BillServiceImplTest {
         verify(userRepository).findById(1L);
         verify(userRepository).save(user);
         verify(billRepository).deleteById(1L);
+        verify(rollupService).deleteForBill(1L);
     }
 
     @Test
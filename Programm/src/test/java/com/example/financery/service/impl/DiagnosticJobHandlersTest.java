@@ -0,0 +1,90 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.model.Job;
+import com.example.financery.service.JobContext;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticJobHandlersTest {
+
+    @TempDir
+    Path dir;
+
+    private static Job job(String type, String payload) {
+        Job job = new Job(type, null, payload, 0, null);
+        job.setId(1L);
+        return job;
+    }
+
+    private static JobContext context(boolean cancelled) {
+        return new JobContext() {
+            @Override
+            public Long getJobId() {
+                return 1L;
+            }
+
+            @Override
+            public void setProgress(int percent) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        };
+    }
+
+    @Test
+    void threadDump_writesStacksOfCurrentThread() throws Exception {
+        ThreadDumpJobHandler handler = new ThreadDumpJobHandler(dir.toString());
+
+        Path file = Path.of(handler.execute(job(ThreadDumpJobHandler.TYPE, null),
+                context(false)));
+
+        assertTrue(Files.readString(file).contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void heapHistogram_listsClasses() throws Exception {
+        HeapHistogramJobHandler handler = new HeapHistogramJobHandler(dir.toString());
+
+        Path file = Path.of(handler.execute(job(HeapHistogramJobHandler.TYPE, null),
+                context(false)));
+
+        assertTrue(Files.readString(file).contains("java.lang.String"));
+    }
+
+    @Test
+    void jfrRecording_dumpsReadableRecording() throws Exception {
+        JfrRecordingJobHandler handler = new JfrRecordingJobHandler(dir.toString());
+        String payload = JfrRecordingJobHandler.payload("default", Duration.ofSeconds(1));
+
+        Path file = Path.of(handler.execute(job(JfrRecordingJobHandler.TYPE, payload),
+                context(false)));
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            assertTrue(recording.hasMoreEvents());
+        }
+    }
+
+    @Test
+    void jfrRecording_cancelledLeavesNoFile() throws Exception {
+        JfrRecordingJobHandler handler = new JfrRecordingJobHandler(dir.toString());
+        String payload = JfrRecordingJobHandler.payload("default", Duration.ofSeconds(5));
+
+        assertThrows(CancellationException.class,
+                () -> handler.execute(job(JfrRecordingJobHandler.TYPE, payload), context(true)));
+
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
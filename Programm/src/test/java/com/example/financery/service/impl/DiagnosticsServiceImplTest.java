@@ -0,0 +1,75 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.service.JobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DiagnosticsServiceImplTest {
+
+    private static final String CLIENT = "10.0.0.1";
+
+    @Mock
+    private JobService jobService;
+
+    private DiagnosticsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DiagnosticsServiceImpl(jobService, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void startRecording_submitsJobKeyedByProfileAndDuration() {
+        when(jobService.submit(JfrRecordingJobHandler.TYPE, "profile:30", "profile:30",
+                JobService.DEFAULT_PRIORITY, CLIENT)).thenReturn(4L);
+
+        assertEquals(4L, service.startRecording(Duration.ofSeconds(30), "profile", CLIENT));
+    }
+
+    @Test
+    void startRecording_rejectsInvalidArguments() {
+        assertThrows(InvalidInputException.class,
+                () -> service.startRecording(Duration.ofMinutes(11), "profile", CLIENT));
+        assertThrows(InvalidInputException.class,
+                () -> service.startRecording(Duration.ZERO, "profile", CLIENT));
+        assertThrows(InvalidInputException.class,
+                () -> service.startRecording(Duration.ofSeconds(5), "custom", CLIENT));
+        verify(jobService, never()).submit(anyString(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void captureThreadDump_coalescesActiveRequests() {
+        when(jobService.submit(eq(ThreadDumpJobHandler.TYPE), eq("snapshot"), isNull(),
+                anyInt(), eq(CLIENT))).thenReturn(7L);
+
+        assertEquals(7L, service.captureThreadDump(CLIENT));
+    }
+
+    @Test
+    void getStatus_rejectsOtherJobTypes() {
+        JobDtoResponse job = new JobDtoResponse();
+        job.setType(LogExportJobHandler.TYPE);
+        when(jobService.getJob(3L)).thenReturn(job);
+
+        assertThrows(NotFoundException.class, () -> service.getStatus(3L));
+        assertThrows(NotFoundException.class, () -> service.download(3L));
+        verify(jobService, never()).getResultFile(any());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.HibernateEntityStatsDtoResponse;
+import com.example.financery.dto.HibernateQueryStatsDtoResponse;
+import com.example.financery.dto.HibernateStatisticsDtoResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheableDataStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HibernateStatisticsServiceImplTest {
+
+    private static final String BILL = "com.example.financery.model.Bill";
+    private static final String USER = "com.example.financery.model.User";
+    private static final String BILL_TRANSACTIONS = BILL + ".transactions";
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    private HibernateStatisticsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        service = new HibernateStatisticsServiceImpl(entityManagerFactory);
+    }
+
+    private static EntityStatistics entity(long loads, long fetches, long hits, long misses) {
+        EntityStatistics entity = mock(EntityStatistics.class);
+        when(entity.getLoadCount()).thenReturn(loads);
+        when(entity.getFetchCount()).thenReturn(fetches);
+        when(entity.getCacheHitCount()).thenReturn(hits);
+        when(entity.getCacheMissCount()).thenReturn(misses);
+        return entity;
+    }
+
+    private static QueryStatistics query(long executions, long maxMillis) {
+        QueryStatistics query = mock(QueryStatistics.class);
+        when(query.getExecutionCount()).thenReturn(executions);
+        when(query.getExecutionMaxTime()).thenReturn(maxMillis);
+        return query;
+    }
+
+    @Test
+    void getStatistics_reportsEntitiesCollectionsAndSlowestQueriesFirst() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getEntityFetchCount()).thenReturn(40L);
+        when(statistics.getCollectionFetchCount()).thenReturn(20L);
+        when(statistics.getQueryPlanCacheHitCount()).thenReturn(3L);
+        when(statistics.getQueryPlanCacheMissCount()).thenReturn(1L);
+        when(statistics.getEntityNames()).thenReturn(new String[] {USER, BILL});
+        EntityStatistics user = entity(5, 0, CacheableDataStatistics.NOT_CACHED_COUNT,
+                CacheableDataStatistics.NOT_CACHED_COUNT);
+        EntityStatistics bill = entity(7, 40, 9, 1);
+        when(statistics.getEntityStatistics(USER)).thenReturn(user);
+        when(statistics.getEntityStatistics(BILL)).thenReturn(bill);
+        when(statistics.getCollectionRoleNames()).thenReturn(new String[] {BILL_TRANSACTIONS});
+        CollectionStatistics transactions = mock(CollectionStatistics.class);
+        when(transactions.getFetchCount()).thenReturn(20L);
+        when(statistics.getCollectionStatistics(BILL_TRANSACTIONS)).thenReturn(transactions);
+        when(statistics.getQueries()).thenReturn(new String[] {"fast", "slow"});
+        QueryStatistics fast = query(100, 2);
+        QueryStatistics slow = query(1, 250);
+        when(statistics.getQueryStatistics("fast")).thenReturn(fast);
+        when(statistics.getQueryStatistics("slow")).thenReturn(slow);
+
+        HibernateStatisticsDtoResponse response = service.getStatistics();
+
+        assertTrue(response.isEnabled());
+        assertEquals(40, response.getEntityFetches());
+        assertEquals(20, response.getCollectionFetches());
+        assertEquals(0.75, response.getQueryPlanCacheHitRatio());
+        assertNull(response.getSecondLevelCacheHitRatio());
+
+        List<HibernateEntityStatsDtoResponse> entities = response.getEntities();
+        assertEquals(List.of(BILL, USER),
+                entities.stream().map(HibernateEntityStatsDtoResponse::getEntity).toList());
+        assertEquals(0.9, entities.get(0).getCacheHitRatio());
+        assertEquals(0, entities.get(1).getCacheHits());
+        assertNull(entities.get(1).getCacheHitRatio());
+
+        assertEquals(20, response.getCollections().get(0).getFetches());
+        assertEquals(List.of("slow", "fast"),
+                response.getQueries().stream().map(HibernateQueryStatsDtoResponse::getQuery)
+                        .toList());
+    }
+
+    @Test
+    void reset_clearsStatistics() {
+        service.reset();
+
+        verify(statistics).clear();
+    }
+}
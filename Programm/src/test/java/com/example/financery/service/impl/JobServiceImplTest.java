@@ -0,0 +1,292 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.exception.FileNotReadyException;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.TooManyRequestsException;
+import com.example.financery.mapper.JobMapper;
+import com.example.financery.model.Job;
+import com.example.financery.model.JobStatus;
+import com.example.financery.repository.JobRepository;
+import com.example.financery.service.JobContext;
+import com.example.financery.service.JobHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobServiceImplTest {
+
+    private static final String TYPE = "TEST";
+    private static final String CLIENT = "10.0.0.1";
+
+    @Mock
+    private JobRepository jobs;
+
+    @TempDir
+    Path dir;
+
+    private JobServiceImpl service(JobHandler handler, Executor executor) {
+        return new JobServiceImpl(jobs, new JobMapper(), List.of(handler), executor,
+                Duration.ofHours(1), Duration.ofMinutes(10), 2, 1, Duration.ofSeconds(30));
+    }
+
+    private static JobHandler handler(boolean producesFile, Work work) {
+        return new JobHandler() {
+            @Override
+            public String getType() {
+                return TYPE;
+            }
+
+            @Override
+            public boolean producesFile() {
+                return producesFile;
+            }
+
+            @Override
+            public String execute(Job job, JobContext context) throws Exception {
+                return work.run(context);
+            }
+        };
+    }
+
+    private interface Work {
+        String run(JobContext context) throws Exception;
+    }
+
+    private static Job job(Long id, JobStatus status) {
+        Job job = new Job(TYPE, "key", "payload", 0, CLIENT);
+        job.setId(id);
+        job.setStatus(status);
+        return job;
+    }
+
+    // Новая задача попадает в очередь и сразу забирается этим экземпляром
+    private void queueNewJob(Job job) {
+        when(jobs.findFirstByTypeAndJobKeyAndStatusIn(eq(TYPE), eq("key"), anyCollection()))
+                .thenReturn(Optional.empty());
+        when(jobs.saveAndFlush(any(Job.class))).thenReturn(job);
+        when(jobs.findByTypeAndStatusOrderByPriorityDescIdAsc(
+                eq(TYPE), eq(JobStatus.QUEUED), any(Pageable.class)))
+                .thenReturn(List.of(job))
+                .thenReturn(List.of());
+        when(jobs.claim(eq(job.getId()), any(Instant.class))).thenReturn(1);
+    }
+
+    @Test
+    void submit_runsHandlerAndStoresResult() {
+        queueNewJob(job(1L, JobStatus.QUEUED));
+        JobServiceImpl service = service(handler(false, context -> {
+            context.setProgress(40);
+            return "готово";
+        }), Runnable::run);
+
+        assertEquals(1L, service.submit(TYPE, "key", "payload", 0, CLIENT));
+
+        verify(jobs).updateProgress(eq(1L), eq(40), any(Instant.class));
+        verify(jobs).finish(eq(1L), eq(JobStatus.COMPLETED), eq(100), eq("готово"),
+                isNull(), any(Instant.class));
+    }
+
+    @Test
+    void submit_handlerFailureMarksJobFailed() {
+        queueNewJob(job(1L, JobStatus.QUEUED));
+        JobServiceImpl service = service(handler(false, context -> {
+            throw new IllegalStateException("нет данных");
+        }), Runnable::run);
+
+        service.submit(TYPE, "key", "payload", 0, CLIENT);
+
+        verify(jobs).finish(eq(1L), eq(JobStatus.FAILED), eq(0), isNull(),
+                eq("нет данных"), any(Instant.class));
+    }
+
+    @Test
+    void submit_joinsActiveJobWithSameKey() {
+        when(jobs.findFirstByTypeAndJobKeyAndStatusIn(eq(TYPE), eq("key"), anyCollection()))
+                .thenReturn(Optional.of(job(3L, JobStatus.RUNNING)));
+        JobServiceImpl service = service(handler(false, context -> "x"), Runnable::run);
+
+        assertEquals(3L, service.submit(TYPE, "key", "payload", 0, CLIENT));
+        verify(jobs, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void submit_lostInsertRaceJoinsWinner() {
+        when(jobs.findFirstByTypeAndJobKeyAndStatusIn(eq(TYPE), eq("key"), anyCollection()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(job(5L, JobStatus.QUEUED)));
+        when(jobs.saveAndFlush(any(Job.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_job_active_key"));
+        JobServiceImpl service = service(handler(false, context -> "x"), Runnable::run);
+
+        assertEquals(5L, service.submit(TYPE, "key", "payload", 0, CLIENT));
+        verify(jobs, never()).claim(anyLong(), any());
+    }
+
+    @Test
+    void submit_unknownType() {
+        JobServiceImpl service = service(handler(false, context -> "x"), Runnable::run);
+
+        assertThrows(InvalidInputException.class,
+                () -> service.submit("OTHER", null, null, 0, CLIENT));
+        verifyNoInteractions(jobs);
+    }
+
+    @Test
+    void dispatch_jobClaimedElsewhereIsNotRun() {
+        when(jobs.findByTypeAndStatusOrderByPriorityDescIdAsc(
+                eq(TYPE), eq(JobStatus.QUEUED), any(Pageable.class)))
+                .thenReturn(List.of(job(1L, JobStatus.QUEUED)));
+        when(jobs.claim(eq(1L), any(Instant.class))).thenReturn(0);
+        JobServiceImpl service = service(handler(false, context -> fail("не должна запускаться")),
+                Runnable::run);
+
+        service.dispatch();
+        service.dispatch();
+
+        // Слот освобожден: второй проход снова запрашивает одну задачу
+        verify(jobs, times(2)).claim(eq(1L), any(Instant.class));
+        verify(jobs, never()).finish(anyLong(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void cancel_queuedJob() {
+        when(jobs.findById(2L)).thenReturn(Optional.of(job(2L, JobStatus.QUEUED)))
+                .thenReturn(Optional.of(job(2L, JobStatus.CANCELLED)));
+        when(jobs.cancelQueued(eq(2L), any(Instant.class))).thenReturn(1);
+        JobServiceImpl service = service(handler(false, context -> "x"), Runnable::run);
+
+        assertEquals("CANCELLED", service.cancel(2L).getStatus());
+        verify(jobs, never()).requestCancel(any());
+    }
+
+    @Test
+    void cancel_runningJobInterruptsHandler() throws Exception {
+        queueNewJob(job(1L, JobStatus.QUEUED));
+        when(jobs.findById(1L)).thenReturn(Optional.of(job(1L, JobStatus.RUNNING)));
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            JobServiceImpl service = service(handler(false, context -> {
+                started.countDown();
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                return "x";
+            }), pool);
+            service.submit(TYPE, "key", "payload", 0, CLIENT);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            service.cancel(1L);
+
+            verify(jobs).requestCancel(1L);
+            verify(jobs, timeout(5000)).finish(eq(1L), eq(JobStatus.CANCELLED), eq(0),
+                    isNull(), isNull(), any(Instant.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void getResultFile_notReady() {
+        when(jobs.findById(1L)).thenReturn(Optional.of(job(1L, JobStatus.RUNNING)));
+        JobServiceImpl service = service(handler(true, context -> "x"), Runnable::run);
+
+        assertThrows(FileNotReadyException.class, () -> service.getResultFile(1L));
+    }
+
+    @Test
+    void getJob_hidesFilePath() {
+        Job done = job(1L, JobStatus.COMPLETED);
+        done.setResult("/tmp/secret.log");
+        when(jobs.findById(1L)).thenReturn(Optional.of(done));
+        JobServiceImpl service = service(handler(true, context -> "x"), Runnable::run);
+
+        assertNull(service.getJob(1L).getResult());
+    }
+
+    @Test
+    void evictExpiredJobs_removesFilesAndFailsStaleJobs() throws Exception {
+        Path result = Files.writeString(dir.resolve("result.log"), "данные");
+        Job finished = job(1L, JobStatus.COMPLETED);
+        finished.setResult(result.toString());
+        when(jobs.findByStatusAndHeartbeatAtBefore(eq(JobStatus.RUNNING), any(Instant.class)))
+                .thenReturn(List.of(job(2L, JobStatus.RUNNING)));
+        when(jobs.findByFinishedAtBefore(any(Instant.class))).thenReturn(List.of(finished));
+        JobServiceImpl service = service(handler(true, context -> "x"), Runnable::run);
+
+        assertEquals(1, service.evictExpiredJobs());
+
+        assertFalse(Files.exists(result));
+        verify(jobs).deleteAll(List.of(finished));
+        verify(jobs).finish(eq(2L), eq(JobStatus.FAILED), eq(0), isNull(), any(),
+                any(Instant.class));
+    }
+
+    @Test
+    void submit_queueFullRejectedWithRetryAfter() {
+        when(jobs.findFirstByTypeAndJobKeyAndStatusIn(eq(TYPE), eq("key"), anyCollection()))
+                .thenReturn(Optional.empty());
+        when(jobs.countByTypeAndStatus(TYPE, JobStatus.QUEUED)).thenReturn(2L);
+        JobServiceImpl service = service(handler(false, context -> "x"), Runnable::run);
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> service.submit(TYPE, "key", "payload", 0, CLIENT));
+
+        assertEquals(30, e.getRetryAfterSeconds());
+        assertEquals(1, service.getStats().getRejectedQueueFull());
+        verify(jobs, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void submit_clientQuotaExceeded() {
+        when(jobs.findFirstByTypeAndJobKeyAndStatusIn(eq(TYPE), eq("key"), anyCollection()))
+                .thenReturn(Optional.empty());
+        when(jobs.countByClientIdAndStatusIn(eq(CLIENT), anyCollection())).thenReturn(1L);
+        JobServiceImpl service = service(handler(false, context -> "x"), Runnable::run);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> service.submit(TYPE, "key", "payload", 0, CLIENT));
+
+        assertEquals(1, service.getStats().getRejectedClientQuota());
+        verify(jobs, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void submit_rejectedByPoolIsRequeued() {
+        queueNewJob(job(1L, JobStatus.QUEUED));
+        JobServiceImpl service = service(handler(false, context -> "x"), task -> {
+            throw new RejectedExecutionException("пул заполнен");
+        });
+
+        service.submit(TYPE, "key", "payload", 0, CLIENT);
+
+        verify(jobs).requeue(1L);
+        assertEquals(1, service.getStats().getExecutorRejected());
+        assertEquals(0, service.getStats().getTypes().get(0).getRunning());
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.JobDtoResponse;
+import com.example.financery.dto.LogQueryDtoRequest;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.service.JobService;
+import com.example.financery.utils.LogDayIndex;
+import com.example.financery.utils.LogSegmentStore;
+import com.example.financery.utils.LogSegments;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogServiceImplTest {
+
+    private static final String DAY_LINES =
+            "28-04-2025 10:00:00.000 [main] INFO  Test - первая\n"
+                    + "28-04-2025 11:00:00.000 [main] INFO  Test - вторая\n";
+
+    @Mock
+    private JobService jobService;
+
+    @TempDir
+    Path dir;
+
+    private LogServiceImpl logService;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private long total;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path logFile = dir.resolve("app.log");
+        Files.writeString(logFile,
+                "27-04-2025 23:00:00.000 [main] INFO  Test - вчера\n" + DAY_LINES
+                        + "29-04-2025 00:00:00.000 [main] INFO  Test - завтра\n",
+                StandardCharsets.UTF_8);
+        total = DAY_LINES.getBytes(StandardCharsets.UTF_8).length;
+
+        logService = new LogServiceImpl(logFile.toString(), jobService,
+                new LogDayIndex(logFile.toString(), 3, 2, 64),
+                new LogSegmentStore(dir.resolve("segments").toString(), "app"),
+                new ObjectMapper());
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void writeLogs_fullDay() {
+        logService.writeLogs("28-04-2025", false, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(total, response.getContentLengthLong());
+        assertEquals(DAY_LINES, body());
+    }
+
+    @Test
+    void writeLogs_range_returnsPartialContent() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+
+        logService.writeLogs("28-04-2025", false, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/" + total, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(10, response.getContentLengthLong());
+        assertArrayEquals(slice(10, 20), response.getContentAsByteArray());
+    }
+
+    @Test
+    void writeLogs_suffixRange() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-5");
+
+        logService.writeLogs("28-04-2025", false, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(slice((int) total - 5, (int) total), response.getContentAsByteArray());
+    }
+
+    @Test
+    void writeLogs_unsatisfiableRange_returns416() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + (total + 10) + "-");
+
+        logService.writeLogs("28-04-2025", false, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + total, response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void writeLogs_staleIfRange_returnsFullContent() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"устаревший\"");
+
+        logService.writeLogs("28-04-2025", false, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(DAY_LINES, body());
+    }
+
+    @Test
+    void writeLogs_sendfileSupported_setsContainerAttributes() {
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        logService.writeLogs("28-04-2025", false, request, response);
+
+        assertEquals(dir.resolve("app.log").toAbsolutePath().toString(),
+                request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        long start = (long) request.getAttribute("org.apache.tomcat.sendfile.start");
+        long end = (long) request.getAttribute("org.apache.tomcat.sendfile.end");
+        assertEquals(total, end - start);
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void writeLogs_gzip() throws IOException {
+        logService.writeLogs("28-04-2025", true, request, response);
+
+        assertEquals("application/gzip", response.getContentType());
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(DAY_LINES, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void writeLogs_noLinesForDay_throwsNotFound() {
+        assertThrows(NotFoundException.class,
+                () -> logService.writeLogs("01-01-2020", false, request, response));
+    }
+
+    @Test
+    void writeLogs_invalidDate_throwsInvalidInput() {
+        assertThrows(InvalidInputException.class,
+                () -> logService.writeLogs("2025-04-28", false, request, response));
+    }
+
+    @Test
+    void queryLogs_streamsNdjsonForWindow() {
+        LogQueryDtoRequest query = new LogQueryDtoRequest();
+        query.setDate(LocalDate.of(2025, 4, 28));
+        query.setFrom(LocalTime.of(10, 30));
+        query.setLevel("info");
+
+        logService.queryLogs(query, response);
+
+        assertTrue(response.getContentType().startsWith("application/x-ndjson"));
+        assertEquals("{\"timestamp\":\"28-04-2025 11:00:00.000\",\"thread\":\"main\","
+                + "\"level\":\"INFO\",\"logger\":\"Test\",\"message\":\"вторая\"}\n", body());
+    }
+
+    @Test
+    void queryLogs_emptyWindow_throwsInvalidInput() {
+        LogQueryDtoRequest query = new LogQueryDtoRequest();
+        query.setDate(LocalDate.of(2025, 4, 28));
+        query.setFrom(LocalTime.of(12, 0));
+        query.setTo(LocalTime.of(11, 0));
+
+        assertThrows(InvalidInputException.class, () -> logService.queryLogs(query, response));
+    }
+
+    @Test
+    void writeLogs_plainSegment_servedAsFile() throws IOException {
+        Path segment = segment(LocalDate.of(2025, 5, 1), "01-05-2025 10:00:00.000 [main] INFO  Test - день\n");
+
+        logService.writeLogs("01-05-2025", false, request, response);
+
+        assertEquals(Files.size(segment), response.getContentLengthLong());
+        assertEquals(Files.readString(segment), body());
+    }
+
+    @Test
+    void writeLogs_sealedSegment_rangeDecompressesFromHour() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int hour = 0; hour < 24; hour += 6) {
+            text.append(String.format("01-05-2025 %02d:00:00.000 [main] INFO  Test - час %d%n",
+                    hour, hour));
+        }
+        LogSegments.seal(segment(LocalDate.of(2025, 5, 1), text.toString()));
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-149");
+
+        logService.writeLogs("01-05-2025", false, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-149/" + bytes.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(new String(bytes, 100, 50, StandardCharsets.UTF_8), body());
+    }
+
+    @Test
+    void writeLogs_sealedSegment_gzipServesFileAsIs() throws IOException {
+        String text = "01-05-2025 10:00:00.000 [main] INFO  Test - день\n";
+        Path sealed = LogSegments.seal(segment(LocalDate.of(2025, 5, 1), text));
+
+        logService.writeLogs("01-05-2025", true, request, response);
+
+        assertEquals("application/gzip", response.getContentType());
+        assertArrayEquals(Files.readAllBytes(sealed), response.getContentAsByteArray());
+    }
+
+    @Test
+    void queryLogs_sealedSegment_readsOnlyWindowHours() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int hour = 0; hour < 24; hour++) {
+            text.append(String.format("01-05-2025 %02d:30:00.000 [main] %s Test - час %d%n",
+                    hour, hour == 14 ? "ERROR" : "INFO ", hour));
+        }
+        LogSegments.seal(segment(LocalDate.of(2025, 5, 1), text.toString()));
+        LogQueryDtoRequest query = new LogQueryDtoRequest();
+        query.setDate(LocalDate.of(2025, 5, 1));
+        query.setFrom(LocalTime.of(13, 0));
+        query.setTo(LocalTime.of(16, 0));
+        query.setLevel("ERROR");
+
+        logService.queryLogs(query, response);
+
+        assertEquals("{\"timestamp\":\"01-05-2025 14:30:00.000\",\"thread\":\"main\","
+                + "\"level\":\"ERROR\",\"logger\":\"Test\",\"message\":\"час 14\"}\n", body());
+    }
+
+    private Path segment(LocalDate day, String text) throws IOException {
+        Path segment = LogSegments.plainPath(dir.resolve("segments"), "app", day);
+        Files.createDirectories(segment.getParent());
+        Files.writeString(segment, text, StandardCharsets.UTF_8);
+        return segment;
+    }
+
+    private String body() {
+        return new String(response.getContentAsByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] slice(int from, int to) {
+        byte[] bytes = DAY_LINES.getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[to - from];
+        System.arraycopy(bytes, from, result, 0, result.length);
+        return result;
+    }
+
+    @Test
+    void createLogAsync_submitsExportKeyedByDate() {
+        when(jobService.submit(LogExportJobHandler.TYPE, "2025-04-28", "2025-04-28",
+                JobService.DEFAULT_PRIORITY, "10.0.0.1")).thenReturn(7L);
+
+        assertEquals(7L, logService.createLogAsync("28-04-2025", "10.0.0.1"));
+    }
+
+    @Test
+    void createLogAsync_invalidDate() {
+        assertThrows(InvalidInputException.class,
+                () -> logService.createLogAsync("2025-04-28", "10.0.0.1"));
+        verifyNoInteractions(jobService);
+    }
+
+    @Test
+    void getStatus_otherJobType() {
+        JobDtoResponse job = new JobDtoResponse();
+        job.setType(ArchiveJobHandler.TYPE);
+        when(jobService.getJob(42L)).thenReturn(job);
+
+        assertThrows(NotFoundException.class, () -> logService.getStatus(42L));
+    }
+}
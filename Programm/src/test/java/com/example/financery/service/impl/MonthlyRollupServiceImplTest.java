@@ -0,0 +1,225 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.MonthlySummaryDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.exception.NotFoundException;
+import com.example.financery.model.ArchivedTransaction;
+import com.example.financery.model.Bill;
+import com.example.financery.model.MonthlyRollup;
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import com.example.financery.model.User;
+import com.example.financery.repository.BillRepository;
+import com.example.financery.repository.MonthlyRollupRepository;
+import com.example.financery.repository.MonthlyRollupRepository.MonthlyTotal;
+import com.example.financery.repository.TagRepository;
+import com.example.financery.repository.TransactionRepository;
+import com.example.financery.repository.UserRepository;
+import com.example.financery.service.TransactionArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyRollupServiceImplTest {
+
+    @Mock
+    private MonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BillRepository billRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveService archiveService;
+
+    @InjectMocks
+    private MonthlyRollupServiceImpl rollupService;
+
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+
+        Bill bill = new Bill();
+        bill.setId(2L);
+        bill.setUser(user);
+
+        Tag tag = new Tag();
+        tag.setId(3L);
+        tag.setUser(user);
+
+        transaction = new Transaction();
+        transaction.setId(10L);
+        transaction.setType(false); // Расход
+        transaction.setAmount(150.0);
+        transaction.setDate(LocalDate.of(2025, 4, 28));
+        transaction.setUser(user);
+        transaction.setBill(bill);
+        transaction.setTags(new ArrayList<>(List.of(tag)));
+    }
+
+    @Test
+    void applyTransaction_updatesTotalAndTagRows() {
+        rollupService.applyTransaction(transaction);
+
+        LocalDate month = LocalDate.of(2025, 4, 1);
+        verify(rollupRepository).upsert(1L, 2L, MonthlyRollup.ALL_TAGS,
+                month, false, 150.0, 1);
+        verify(rollupRepository).upsert(1L, 2L, 3L, month, false, 150.0, 1);
+    }
+
+    @Test
+    void revertTransaction_subtractsAndRemovesEmptyRows() {
+        rollupService.revertTransaction(transaction);
+
+        LocalDate month = LocalDate.of(2025, 4, 1);
+        verify(rollupRepository).upsert(1L, 2L, MonthlyRollup.ALL_TAGS,
+                month, false, -150.0, -1);
+        verify(rollupRepository).upsert(1L, 2L, 3L, month, false, -150.0, -1);
+        verify(rollupRepository).deleteEmptyForUser(1L);
+    }
+
+    @Test
+    void getUserSummary_mergesIncomeAndExpenseByMonth() {
+        List<MonthlyTotal> totals = List.of(
+                total(LocalDate.of(2025, 3, 1), true, 500.0, 2L),
+                total(LocalDate.of(2025, 3, 1), false, 120.0, 3L),
+                total(LocalDate.of(2025, 4, 1), false, 80.0, 1L));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(rollupRepository.sumByUser(1L,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 1)))
+                .thenReturn(totals);
+
+        List<MonthlySummaryDtoResponse> result = rollupService.getUserSummary(
+                1L, YearMonth.of(2025, 1), YearMonth.of(2025, 12));
+
+        assertEquals(2, result.size());
+        assertEquals(YearMonth.of(2025, 3), result.get(0).getMonth());
+        assertEquals(500.0, result.get(0).getIncome());
+        assertEquals(120.0, result.get(0).getExpense());
+        assertEquals(2L, result.get(0).getIncomeCount());
+        assertEquals(3L, result.get(0).getExpenseCount());
+        assertEquals(0.0, result.get(1).getIncome());
+        assertEquals(80.0, result.get(1).getExpense());
+    }
+
+    @Test
+    void getUserSummary_userNotFound_throwsNotFoundException() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> rollupService.getUserSummary(1L, null, null));
+
+        assertEquals("Пользователь с id 1 не найден", exception.getMessage());
+        verify(rollupRepository, never()).sumByUser(anyLong(), any(), any());
+    }
+
+    @Test
+    void getBillSummary_invalidRange_throwsInvalidInputException() {
+        when(billRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(InvalidInputException.class,
+                () -> rollupService.getBillSummary(
+                        2L, YearMonth.of(2025, 5), YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    void getTagSummary_withoutRange_usesWholeHistory() {
+        when(tagRepository.existsById(3L)).thenReturn(true);
+
+        rollupService.getTagSummary(3L, null, null);
+
+        verify(rollupRepository).sumByTag(3L,
+                LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 1));
+    }
+
+    @Test
+    void rebuild_replacesAllRollups() {
+        when(rollupRepository.rebuildAll()).thenReturn(4);
+
+        assertEquals(4, rollupService.rebuild());
+
+        verify(rollupRepository).deleteAllRollups();
+        verify(rollupRepository).rebuildAll();
+    }
+
+    @Test
+    void rebuild_addsArchivedTransactions() {
+        ArchivedTransaction archived = new ArchivedTransaction();
+        archived.setUserId(1L);
+        archived.setBillId(2L);
+        archived.setDate(LocalDate.of(2021, 5, 17));
+        archived.setType(false);
+        archived.setAmount(30.0);
+        archived.setTagIds(List.of(3L, 4L));
+        when(tagRepository.findAllIds()).thenReturn(List.of(3L));
+        doAnswer(invocation -> {
+            Consumer<ArchivedTransaction> action = invocation.getArgument(0);
+            action.accept(archived);
+            return null;
+        }).when(archiveService).forEachArchived(any());
+
+        rollupService.rebuild();
+
+        LocalDate month = LocalDate.of(2021, 5, 1);
+        verify(rollupRepository).upsert(1L, 2L, MonthlyRollup.ALL_TAGS, month, false, 30.0, 1);
+        verify(rollupRepository).upsert(1L, 2L, 3L, month, false, 30.0, 1);
+        verify(rollupRepository, never()).upsert(1L, 2L, 4L, month, false, 30.0, 1);
+        verify(tagRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void rebuild_skipsArchivedTransactionsStillInTable() {
+        ArchivedTransaction leftover = new ArchivedTransaction();
+        leftover.setId(7L);
+        leftover.setUserId(1L);
+        leftover.setBillId(2L);
+        leftover.setDate(LocalDate.of(2021, 5, 17));
+        leftover.setAmount(30.0);
+        leftover.setTagIds(List.of());
+        when(transactionRepository.findExistingIds(List.of(7L))).thenReturn(List.of(7L));
+        doAnswer(invocation -> {
+            Consumer<ArchivedTransaction> action = invocation.getArgument(0);
+            action.accept(leftover);
+            return null;
+        }).when(archiveService).forEachArchived(any());
+
+        rollupService.rebuild();
+
+        verify(rollupRepository, never())
+                .upsert(anyLong(), anyLong(), anyLong(), any(), anyBoolean(), anyDouble(), anyLong());
+    }
+
+    private MonthlyTotal total(LocalDate month, boolean type, double amount, long count) {
+        MonthlyTotal total = mock(MonthlyTotal.class);
+        when(total.getMonth()).thenReturn(month);
+        when(total.getType()).thenReturn(type);
+        when(total.getAmount()).thenReturn(amount);
+        when(total.getTransactionCount()).thenReturn(count);
+        return total;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.BillDtoRequest;
+import com.example.financery.dto.TagDtoRequest;
+import com.example.financery.dto.UserDtoRequest;
+import com.example.financery.dto.UserDtoResponse;
+import com.example.financery.service.BillService;
+import com.example.financery.service.TagService;
+import com.example.financery.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.financery.utils.SqlStatementAssertions.assertMaxStatements;
+
+// Бюджеты запросов на реальной БД: запускается, только если задан пароль к PostgreSQL
+@SpringBootTest
+@Transactional
+@EnabledIfEnvironmentVariable(named = "PASSWORD_BD", matches = ".+")
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UserDtoResponse createUser(String email) {
+        UserDtoRequest request = new UserDtoRequest();
+        request.setName("Бюджет");
+        request.setEmail(email);
+        return userService.createUser(request);
+    }
+
+    private void createBill(long userId) {
+        BillDtoRequest request = new BillDtoRequest();
+        request.setName("Бюджет");
+        request.setUserId(userId);
+        billService.createBill(request);
+    }
+
+    // Сбрасывает контекст, чтобы проверяемый вызов читал из базы, а не из кэша сессии
+    private void clearSession() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getAllUsers_selectsUsersWithBillsAndTransactionsOfAllBills() {
+        createBill(createUser("budget1@example.com").getId());
+        createBill(createUser("budget2@example.com").getId());
+        clearSession();
+
+        // Пользователи вместе со счетами и одна пачка транзакций счетов,
+        // сколько бы пользователей ни было
+        assertMaxStatements(2, userService::getAllUsers);
+    }
+
+    @Test
+    void deleteTag_withoutTransactions() {
+        TagDtoRequest request = new TagDtoRequest();
+        request.setTitle("бюджет");
+        request.setUserId(createUser("budget3@example.com").getId());
+        long tagId = tagService.createTag(request).getId();
+        clearSession();
+
+        // Тег, его транзакции, связи тега, сам тег и его месячные итоги
+        assertMaxStatements(5, () -> {
+            tagService.deleteTag(tagId);
+            entityManager.flush();
+        });
+    }
+}
@@ -13,6 +13,7 @@ import com.example.financery.model.User;
 import com.example.financery.repository.TagRepository;
 import com.example.financery.repository.TransactionRepository;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
 import com.example.financery.utils.InMemoryCache;
 import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,6 +54,9 @@ class TagServiceImplTest {
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private MonthlyRollupService rollupService;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -364,6 +368,7 @@ class TagServiceImplTest {
         verify(transactionRepository).saveAll(Collections.emptyList());
         verify(cache, never()).updateTransaction(anyLong(), any());
         verify(tagRepository).delete(tag);
+        verify(rollupService).deleteForTag(1L);
     }
 
     @Test
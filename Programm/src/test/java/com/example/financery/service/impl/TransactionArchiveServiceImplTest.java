@@ -0,0 +1,226 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.model.ArchivedTransaction;
+import com.example.financery.model.Bill;
+import com.example.financery.model.Tag;
+import com.example.financery.model.Transaction;
+import com.example.financery.model.User;
+import com.example.financery.repository.TransactionRepository;
+import com.example.financery.utils.InMemoryCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceImplTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2023, 1, 1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private InMemoryCache cache;
+
+    @TempDir
+    Path archiveDir;
+
+    private TransactionArchiveServiceImpl archiveService;
+    private User user;
+    private Bill bill;
+    private Tag tag;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new TransactionArchiveServiceImpl(
+                transactionRepository, cache, archiveDir.toString(), 24);
+
+        user = new User();
+        user.setId(1L);
+        bill = new Bill();
+        bill.setId(7L);
+        tag = new Tag();
+        tag.setId(3L);
+    }
+
+    @Test
+    void archiveBefore_writesSegmentsAndDeletesRows() {
+        Transaction march = transaction(1L, LocalDate.of(2021, 3, 5), true, 100.0);
+        Transaction marchLater = transaction(2L, LocalDate.of(2021, 3, 20), false, 40.5);
+        Transaction june = transaction(3L, LocalDate.of(2022, 6, 1), false, 12.0);
+        june.setDescription(null);
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF))
+                .thenReturn(List.of(1L));
+        when(transactionRepository.findByUserIdAndDateBefore(1L, CUTOFF))
+                .thenReturn(List.of(june, march, marchLater));
+
+        int archived = archiveService.archiveBefore(LocalDate.of(2023, 1, 15));
+
+        assertEquals(3, archived);
+        assertTrue(Files.exists(archiveDir.resolve("1").resolve("2021-03.seg")));
+        assertTrue(Files.exists(archiveDir.resolve("1").resolve("2022-06.seg")));
+        verify(transactionRepository).deleteTagLinksByUserIdAndDateBefore(1L, CUTOFF);
+        verify(transactionRepository).deleteByUserIdAndDateBefore(1L, CUTOFF);
+        verify(cache).clearForUser(1L);
+
+        List<ArchivedTransaction> rows = archiveService.findByUser(
+                1L, LocalDate.of(2021, 3, 10), LocalDate.of(2022, 12, 31));
+        assertEquals(List.of(2L, 3L), rows.stream().map(ArchivedTransaction::getId).toList());
+        ArchivedTransaction first = rows.get(0);
+        assertFalse(first.isType());
+        assertEquals(40.5, first.getAmount());
+        assertEquals("Описание", first.getDescription());
+        assertEquals(7L, first.getBillId());
+        assertEquals(1L, first.getUserId());
+        assertEquals(List.of(3L), first.getTagIds());
+        assertNull(rows.get(1).getDescription());
+    }
+
+    @Test
+    void archiveBefore_mergesIntoExistingSegment() {
+        Transaction first = transaction(1L, LocalDate.of(2021, 3, 5), true, 100.0);
+        Transaction backdated = transaction(2L, LocalDate.of(2021, 3, 1), true, 5.0);
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF))
+                .thenReturn(List.of(1L));
+        when(transactionRepository.findByUserIdAndDateBefore(1L, CUTOFF))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(backdated, first));
+
+        archiveService.archiveBefore(CUTOFF);
+        archiveService.archiveBefore(CUTOFF);
+
+        List<ArchivedTransaction> rows = archiveService.findByUser(
+                1L, LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31));
+        assertEquals(List.of(2L, 1L), rows.stream().map(ArchivedTransaction::getId).toList());
+    }
+
+    @Test
+    void findPageByUser_stopsAfterSegmentThatFillsPage() throws Exception {
+        Transaction marchLater = transaction(2L, LocalDate.of(2021, 3, 20), false, 40.5);
+        Transaction march = transaction(1L, LocalDate.of(2021, 3, 5), true, 100.0);
+        Transaction june = transaction(3L, LocalDate.of(2022, 6, 1), false, 12.0);
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF))
+                .thenReturn(List.of(1L));
+        when(transactionRepository.findByUserIdAndDateBefore(1L, CUTOFF))
+                .thenReturn(List.of(marchLater, march, june));
+        archiveService.archiveBefore(CUTOFF);
+        // Следующий сегмент испорчен: если его прочитать, будет исключение
+        Files.write(archiveDir.resolve("1").resolve("2022-06.seg"), new byte[] {1, 2, 3});
+
+        List<ArchivedTransaction> rows = archiveService.findPageByUser(1L,
+                LocalDate.of(2021, 1, 1), LocalDate.of(2022, 12, 31), row -> true, 2);
+
+        assertEquals(List.of(1L, 2L), rows.stream().map(ArchivedTransaction::getId).toList());
+    }
+
+    @Test
+    void archiveBefore_nothingToArchive_returnsZero() {
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF)).thenReturn(List.of());
+
+        assertEquals(0, archiveService.archiveBefore(CUTOFF));
+        verify(transactionRepository, never()).deleteByUserIdAndDateBefore(anyLong(), any());
+    }
+
+    @Test
+    void archiveBefore_cutoffWithinRetention_throwsInvalidInput() {
+        LocalDate recent = LocalDate.now().minusMonths(24).plusDays(1);
+
+        assertThrows(InvalidInputException.class, () -> archiveService.archiveBefore(recent));
+        assertThrows(InvalidInputException.class,
+                () -> archiveService.archiveBefore(LocalDate.now().plusDays(1)));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void findByUser_noArchive_returnsEmpty() {
+        assertTrue(archiveService.findByUser(
+                5L, LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 31)).isEmpty());
+    }
+
+    @Test
+    void deleteForBill_removesRowsOfBill() {
+        Transaction kept = transaction(1L, LocalDate.of(2021, 3, 5), true, 100.0);
+        Transaction removed = transaction(2L, LocalDate.of(2021, 3, 6), true, 1.0);
+        Bill otherBill = new Bill();
+        otherBill.setId(8L);
+        removed.setBill(otherBill);
+        Transaction onlyRemoved = transaction(3L, LocalDate.of(2021, 4, 6), true, 1.0);
+        onlyRemoved.setBill(otherBill);
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF))
+                .thenReturn(List.of(1L));
+        when(transactionRepository.findByUserIdAndDateBefore(1L, CUTOFF))
+                .thenReturn(List.of(kept, removed, onlyRemoved));
+        archiveService.archiveBefore(CUTOFF);
+
+        archiveService.deleteForBill(1L, 8L);
+
+        List<ArchivedTransaction> rows = archiveService.findByUser(
+                1L, LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31));
+        assertEquals(List.of(1L), rows.stream().map(ArchivedTransaction::getId).toList());
+        assertFalse(Files.exists(archiveDir.resolve("1").resolve("2021-04.seg")));
+        // Один раз при архивации и один при удалении строк счета
+        verify(cache, times(2)).clearForUser(1L);
+    }
+
+    @Test
+    void deleteForUser_removesUserDirectory() {
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF))
+                .thenReturn(List.of(1L));
+        when(transactionRepository.findByUserIdAndDateBefore(1L, CUTOFF))
+                .thenReturn(List.of(transaction(1L, LocalDate.of(2021, 3, 5), true, 1.0)));
+        archiveService.archiveBefore(CUTOFF);
+
+        archiveService.deleteForUser(1L);
+
+        assertFalse(Files.exists(archiveDir.resolve("1")));
+        verify(cache, times(2)).clearForUser(1L);
+    }
+
+    @Test
+    void forEachArchived_visitsAllUsers() {
+        User secondUser = new User();
+        secondUser.setId(2L);
+        Transaction other = transaction(9L, LocalDate.of(2020, 1, 1), true, 1.0);
+        other.setUser(secondUser);
+        when(transactionRepository.findUserIdsWithTransactionsBefore(CUTOFF))
+                .thenReturn(List.of(1L, 2L));
+        when(transactionRepository.findByUserIdAndDateBefore(1L, CUTOFF))
+                .thenReturn(List.of(transaction(1L, LocalDate.of(2021, 3, 5), true, 1.0)));
+        when(transactionRepository.findByUserIdAndDateBefore(2L, CUTOFF))
+                .thenReturn(List.of(other));
+        archiveService.archiveBefore(CUTOFF);
+
+        List<Long> visited = new ArrayList<>();
+        archiveService.forEachArchived(row -> visited.add(row.getId()));
+
+        assertEquals(2, visited.size());
+        assertTrue(visited.containsAll(List.of(1L, 9L)));
+    }
+
+    private Transaction transaction(long id, LocalDate date, boolean type, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setName("Транзакция " + id);
+        transaction.setDescription("Описание");
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        transaction.setUser(user);
+        transaction.setBill(bill);
+        transaction.setTags(new ArrayList<>(List.of(tag)));
+        return transaction;
+    }
+}
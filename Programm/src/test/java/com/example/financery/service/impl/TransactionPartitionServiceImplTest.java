@@ -0,0 +1,48 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionServiceImplTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransactionPartitionServiceImpl partitionService;
+
+    @BeforeEach
+    void setUp() {
+        partitionService = new TransactionPartitionServiceImpl(transactionRepository, 3);
+    }
+
+    @Test
+    void ensurePartitions_createsMonthsAhead() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        LocalDate to = from.plusMonths(3);
+        when(transactionRepository.createPartitions(from, to)).thenReturn(1);
+
+        int created = partitionService.ensurePartitions();
+
+        assertEquals(1, created);
+        verify(transactionRepository).createPartitions(from, to);
+    }
+
+    @Test
+    void ensurePartitions_nothingToCreate_returnsZero() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        when(transactionRepository.createPartitions(from, from.plusMonths(3))).thenReturn(0);
+
+        assertEquals(0, partitionService.ensurePartitions());
+    }
+}
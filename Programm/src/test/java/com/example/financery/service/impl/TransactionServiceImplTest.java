@@ -2,9 +2,12 @@ package com.example.financery.service.impl;
 
 import com.example.financery.dto.TransactionDtoRequest;
 import com.example.financery.dto.TransactionDtoResponse;
+import com.example.financery.dto.TransactionFilterDtoRequest;
+import com.example.financery.dto.TransactionPageDtoResponse;
 import com.example.financery.exception.InvalidInputException;
 import com.example.financery.exception.NotFoundException;
 import com.example.financery.mapper.TransactionMapper;
+import com.example.financery.model.ArchivedTransaction;
 import com.example.financery.model.Bill;
 import com.example.financery.model.Tag;
 import com.example.financery.model.Transaction;
@@ -13,12 +16,15 @@ import com.example.financery.repository.BillRepository;
 import com.example.financery.repository.TagRepository;
 import com.example.financery.repository.TransactionRepository;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
 import com.example.financery.utils.InMemoryCache;
 import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -27,12 +33,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -57,9 +66,15 @@ class TransactionServiceImplTest {
     @Mock
     private TransactionMapper transactionMapper;
 
+    @Mock
+    private MonthlyRollupService rollupService;
+
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private TransactionArchiveService archiveService;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -123,6 +138,7 @@ class TransactionServiceImplTest {
                 billRepository,
                 tagRepository,
                 transactionMapper,
+                rollupService,
                 cache);
     }
 
@@ -226,6 +242,43 @@ class TransactionServiceImplTest {
         verify(cache).put(1L, result);
     }
 
+    @Test
+    void getTransactionsByUserId_cachesListWithArchivedRows() {
+        Transaction live = new Transaction();
+        live.setId(5L);
+        live.setDate(LocalDate.of(2025, 3, 10));
+        ArchivedTransaction old = archived(2L, LocalDate.of(2021, 6, 1), 1L);
+        TransactionDtoResponse archivedDto = new TransactionDtoResponse();
+        archivedDto.setId(2L);
+        archivedDto.setDate(old.getDate());
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(cache.get(1L)).thenReturn(null);
+        when(transactionRepository.findByUserId(1L)).thenReturn(List.of(live));
+        when(transactionMapper.toTransactionDto(live)).thenAnswer(invocation -> dtoOf(live));
+        when(archiveService.findByUser(eq(1L), any(), any())).thenReturn(List.of(old));
+        when(tagRepository.findAllById(any())).thenReturn(List.of(tag));
+        when(transactionMapper.toTransactionDto(eq(old), any())).thenReturn(archivedDto);
+
+        List<TransactionDtoResponse> result = transactionService.getTransactionsByUserId(1L);
+
+        assertEquals(List.of(2L, 5L), result.stream().map(TransactionDtoResponse::getId).toList());
+        verify(cache).put(1L, result);
+    }
+
+    @Test
+    void getTransactionsByUserId_fromCache_doesNotReadArchive() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(cache.get(1L)).thenReturn(List.of(transactionDtoResponse));
+
+        List<TransactionDtoResponse> result = transactionService.getTransactionsByUserId(1L);
+
+        assertEquals(List.of(transactionDtoResponse), result);
+        verify(transactionRepository, never()).findByUserId(anyLong());
+        verify(archiveService, never()).findByUser(anyLong(), any(), any());
+        verify(cache, never()).put(anyLong(), any());
+    }
+
     @Test
     void getTransactionsByUserId_userNotFound_throwsNotFoundException() {
         when(userRepository.existsById(1L)).thenReturn(false);
@@ -244,9 +297,7 @@ class TransactionServiceImplTest {
             mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
 
             when(billRepository.findById(1L)).thenReturn(Optional.of(bill));
-            when(transactionRepository
-                    .findByBill(1L))
-                    .thenReturn(List.of(transaction));
+            when(transactionRepository.findByBill(1L)).thenReturn(List.of(transaction));
             when(transactionMapper
                     .toTransactionDto(transaction))
                     .thenReturn(transactionDtoResponse);
@@ -274,6 +325,226 @@ class TransactionServiceImplTest {
         verify(transactionRepository, never()).findByBill(anyLong());
     }
 
+    @Test
+    void getTransactionsByUserIdAndPeriod_success() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionRepository.findByUserId(1L, from, to)).thenReturn(List.of(transaction));
+        when(transactionMapper.toTransactionDto(transaction)).thenReturn(transactionDtoResponse);
+
+        List<TransactionDtoResponse> result =
+                transactionService.getTransactionsByUserIdAndPeriod(1L, from, to);
+
+        assertEquals(List.of(transactionDtoResponse), result);
+        verify(transactionRepository).findByUserId(1L, from, to);
+        verify(transactionRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    void getTransactionsByUserIdAndPeriod_mergesArchivedSegments() {
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        Transaction live = new Transaction();
+        live.setId(5L);
+        live.setDate(LocalDate.of(2025, 3, 10));
+        ArchivedTransaction old = archived(2L, LocalDate.of(2021, 6, 1), 1L);
+        ArchivedTransaction duplicate = archived(5L, LocalDate.of(2025, 3, 10), 1L);
+        TransactionDtoResponse archivedDto = new TransactionDtoResponse();
+        archivedDto.setId(2L);
+        archivedDto.setDate(old.getDate());
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionRepository.findByUserId(1L, from, to)).thenReturn(List.of(live));
+        when(transactionMapper.toTransactionDto(live)).thenAnswer(invocation -> dtoOf(live));
+        when(archiveService.findByUser(1L, from, to)).thenReturn(List.of(old, duplicate));
+        when(tagRepository.findAllById(any())).thenReturn(List.of(tag));
+        when(transactionMapper.toTransactionDto(eq(old), any())).thenReturn(archivedDto);
+
+        List<TransactionDtoResponse> result =
+                transactionService.getTransactionsByUserIdAndPeriod(1L, from, to);
+
+        assertEquals(List.of(2L, 5L), result.stream().map(TransactionDtoResponse::getId).toList());
+        verify(transactionMapper, never()).toTransactionDto(eq(duplicate), any());
+    }
+
+    @Test
+    void getTransactionsByUserIdAndPeriod_invalidRange_throwsInvalidInputException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> transactionService.getTransactionsByUserIdAndPeriod(
+                        1L, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 3, 1)));
+
+        assertEquals("Начальная дата не может быть позже конечной", exception.getMessage());
+        verify(transactionRepository, never()).findByUserId(anyLong(), any(), any());
+    }
+
+    @Test
+    void getTransactionsByUserIdAndPeriod_userNotFound_throwsNotFoundException() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> transactionService.getTransactionsByUserIdAndPeriod(
+                        1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+        verify(transactionRepository, never()).findByUserId(anyLong(), any(), any());
+    }
+
+    @Test
+    void filterTransactions_returnsPageWithCursor() {
+        Transaction second = new Transaction();
+        second.setId(2L);
+        second.setDate(LocalDate.of(2025, 4, 2));
+        second.setTags(new ArrayList<>());
+        Transaction third = new Transaction();
+        third.setId(3L);
+        third.setDate(LocalDate.of(2025, 4, 3));
+        third.setTags(new ArrayList<>());
+
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+        filter.setLimit(2);
+
+        try (MockedStatic<Hibernate> mockHibernate = mockStatic(Hibernate.class)) {
+            mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
+
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(transactionRepository.findBy(
+                    ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                    .thenReturn(List.of(transaction, second, third));
+            when(transactionMapper.toTransactionDto(any(Transaction.class)))
+                    .thenAnswer(invocation -> dtoOf(invocation.getArgument(0)));
+
+            TransactionPageDtoResponse result = transactionService.filterTransactions(1L, filter);
+
+            assertEquals(2, result.getTransactions().size());
+            assertTrue(result.isHasNext());
+            assertEquals(LocalDate.of(2025, 4, 2), result.getNextAfterDate());
+            assertEquals(2L, result.getNextAfterId());
+        }
+    }
+
+    @Test
+    void filterTransactions_mergesMatchingArchivedRowsIntoPage() {
+        Transaction live = new Transaction();
+        live.setId(10L);
+        live.setDate(LocalDate.of(2025, 4, 1));
+        live.setTags(new ArrayList<>());
+        ArchivedTransaction matching = archived(3L, LocalDate.of(2022, 1, 5), 1L);
+        ArchivedTransaction otherBill = archived(4L, LocalDate.of(2022, 1, 6), 2L);
+
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+        filter.setBillId(1L);
+        filter.setLimit(1);
+
+        try (MockedStatic<Hibernate> mockHibernate = mockStatic(Hibernate.class)) {
+            mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
+
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(transactionRepository.findBy(
+                    ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                    .thenReturn(List.of(live));
+            when(transactionMapper.toTransactionDto(any(Transaction.class)))
+                    .thenAnswer(invocation -> dtoOf(invocation.getArgument(0)));
+            when(archiveService.findPageByUser(eq(1L), any(), any(), any(), eq(2)))
+                    .thenAnswer(invocation -> {
+                        Predicate<ArchivedTransaction> rowFilter = invocation.getArgument(3);
+                        return Stream.of(matching, otherBill).filter(rowFilter).toList();
+                    });
+            when(transactionMapper.toTransactionDto(any(ArchivedTransaction.class), any()))
+                    .thenAnswer(invocation -> {
+                        ArchivedTransaction row = invocation.getArgument(0);
+                        TransactionDtoResponse dto = new TransactionDtoResponse();
+                        dto.setId(row.getId());
+                        dto.setDate(row.getDate());
+                        return dto;
+                    });
+
+            TransactionPageDtoResponse result = transactionService.filterTransactions(1L, filter);
+
+            assertEquals(1, result.getTransactions().size());
+            assertEquals(3L, result.getTransactions().get(0).getId());
+            assertTrue(result.isHasNext());
+            assertEquals(LocalDate.of(2022, 1, 5), result.getNextAfterDate());
+            assertEquals(3L, result.getNextAfterId());
+            verify(transactionMapper, never()).toTransactionDto(eq(otherBill), any());
+        }
+    }
+
+    @Test
+    void filterTransactions_withCursor_readsArchiveFromCursorDate() {
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+        filter.setFrom(LocalDate.of(2020, 1, 1));
+        filter.setTo(LocalDate.of(2025, 12, 31));
+        filter.setAfterDate(LocalDate.of(2023, 7, 15));
+        filter.setAfterId(40L);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionRepository.findBy(
+                ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                .thenReturn(List.of());
+
+        transactionService.filterTransactions(1L, filter);
+
+        verify(archiveService).findPageByUser(eq(1L), eq(LocalDate.of(2023, 7, 15)),
+                eq(LocalDate.of(2025, 12, 31)), any(), eq(51));
+        verify(archiveService, never()).findByUser(anyLong(), any(), any());
+    }
+
+    @Test
+    void filterTransactions_lastPage_hasNoCursor() {
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+
+        try (MockedStatic<Hibernate> mockHibernate = mockStatic(Hibernate.class)) {
+            mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
+
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(transactionRepository.findBy(
+                    ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                    .thenReturn(List.of(transaction));
+            when(transactionMapper.toTransactionDto(transaction)).thenReturn(transactionDtoResponse);
+
+            TransactionPageDtoResponse result = transactionService.filterTransactions(1L, filter);
+
+            assertEquals(List.of(transactionDtoResponse), result.getTransactions());
+            assertFalse(result.isHasNext());
+            assertNull(result.getNextAfterDate());
+            assertNull(result.getNextAfterId());
+        }
+    }
+
+    @Test
+    void filterTransactions_userNotFound_throwsNotFoundException() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> transactionService.filterTransactions(1L, new TransactionFilterDtoRequest()));
+        verify(transactionRepository, never()).findBy(
+                ArgumentMatchers.<Specification<Transaction>>any(), any());
+    }
+
+    @Test
+    void filterTransactions_invalidDateRange_throwsInvalidInputException() {
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+        filter.setFrom(LocalDate.of(2025, 5, 1));
+        filter.setTo(LocalDate.of(2025, 4, 1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> transactionService.filterTransactions(1L, filter));
+
+        assertEquals("Начальная дата не может быть позже конечной", exception.getMessage());
+    }
+
+    @Test
+    void filterTransactions_partialCursor_throwsInvalidInputException() {
+        TransactionFilterDtoRequest filter = new TransactionFilterDtoRequest();
+        filter.setAfterId(5L);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InvalidInputException.class,
+                () -> transactionService.filterTransactions(1L, filter));
+    }
+
     @Test
     void createTransaction_success_income() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -290,6 +561,7 @@ class TransactionServiceImplTest {
         verify(billRepository).findByIdAndUserId(1L, 1L);
         verify(tagRepository).findAllById(List.of(1L));
         verify(transactionRepository).save(any(Transaction.class));
+        verify(rollupService).applyTransaction(any(Transaction.class));
         verify(cache).updateTransaction(1L, transactionDtoResponse);
     }
 
@@ -456,6 +728,8 @@ class TransactionServiceImplTest {
             verify(userRepository).save(user);
             verify(billRepository).save(bill);
             verify(transactionRepository).save(any(Transaction.class));
+            verify(rollupService).revertTransaction(transaction);
+            verify(rollupService).applyTransaction(transaction);
             verify(cache).updateTransaction(1L, updatedResponse);
         }
     }
@@ -804,6 +1078,7 @@ class TransactionServiceImplTest {
         verify(transactionRepository).findById(1L);
         verify(userRepository).findById(1L);
         verify(billRepository).findByIdAndUserId(1L, 1L);
+        verify(rollupService, never()).revertTransaction(any());
     }
 
     @Test
@@ -1056,6 +1331,7 @@ class TransactionServiceImplTest {
         assertEquals(1100.0, bill.getBalance()); // 1000 + 100 (отмена расхода)
         verify(transactionRepository).findById(1L);
         verify(billRepository).findById(1L);
+        verify(rollupService).revertTransaction(expenseTransaction);
         verify(transactionRepository).delete(expenseTransaction);
         verify(cache).removeTransaction(1L, 1L);
     }
@@ -1124,7 +1400,7 @@ class TransactionServiceImplTest {
         assertEquals(String.format("Счет с id %d не найден", 1L), exception.getMessage());
         verify(transactionRepository).findById(1L);
         verify(billRepository).findById(1L);
-        verify(transactionRepository, never()).delete(any());
+        verify(transactionRepository, never()).delete(any(Transaction.class));
         verify(cache, never()).removeTransaction(anyLong(), anyLong());
     }
 
@@ -1156,4 +1432,24 @@ class TransactionServiceImplTest {
         verify(transactionRepository).delete(testTransaction);
         verify(cache).removeTransaction(1L, 1L);
     }
-}
\ No newline at end of file
+
+    private TransactionDtoResponse dtoOf(Transaction source) {
+        TransactionDtoResponse dto = new TransactionDtoResponse();
+        dto.setId(source.getId());
+        dto.setDate(source.getDate());
+        dto.setAmount(source.getAmount());
+        dto.setTags(new ArrayList<>());
+        return dto;
+    }
+
+    private ArchivedTransaction archived(long id, LocalDate date, long billId) {
+        ArchivedTransaction row = new ArchivedTransaction();
+        row.setId(id);
+        row.setName("Archived");
+        row.setDate(date);
+        row.setUserId(1L);
+        row.setBillId(billId);
+        row.setTagIds(new ArrayList<>(List.of(1L)));
+        return row;
+    }
+}
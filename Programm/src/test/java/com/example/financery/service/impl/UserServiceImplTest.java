@@ -6,6 +6,8 @@ import com.example.financery.exception.NotFoundException;
 import com.example.financery.mapper.UserMapper;
 import com.example.financery.model.User;
 import com.example.financery.repository.UserRepository;
+import com.example.financery.service.MonthlyRollupService;
+import com.example.financery.service.TransactionArchiveService;
 import com.example.financery.utils.InMemoryCache;
 import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +40,12 @@ class UserServiceImplTest {
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private MonthlyRollupService rollupService;
+
+    @Mock
+    private TransactionArchiveService archiveService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -72,7 +80,7 @@ class UserServiceImplTest {
         try (MockedStatic<Hibernate> mockHibernate = mockStatic(Hibernate.class)) {
             mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
 
-            when(userRepository.findAll()).thenReturn(List.of(user));
+            when(userRepository.findAllWithBills()).thenReturn(List.of(user));
             when(userMapper.toDto(user)).thenReturn(userDtoResponse);
 
             List<UserDtoResponse> result = userService.getAllUsers();
@@ -80,7 +88,7 @@ class UserServiceImplTest {
             assertNotNull(result);
             assertEquals(1, result.size());
             assertEquals(userDtoResponse, result.get(0));
-            verify(userRepository).findAll();
+            verify(userRepository).findAllWithBills();
             verify(userMapper).toDto(user);
         }
     }
@@ -90,13 +98,13 @@ class UserServiceImplTest {
         try (MockedStatic<Hibernate> mockHibernate = mockStatic(Hibernate.class)) {
             mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
 
-            when(userRepository.findAll()).thenReturn(Collections.emptyList());
+            when(userRepository.findAllWithBills()).thenReturn(Collections.emptyList());
 
             List<UserDtoResponse> result = userService.getAllUsers();
 
             assertNotNull(result);
             assertTrue(result.isEmpty());
-            verify(userRepository).findAll();
+            verify(userRepository).findAllWithBills();
         }
     }
 
@@ -106,13 +114,13 @@ class UserServiceImplTest {
             mockHibernate.when(() -> Hibernate.initialize(any()))
                     .thenThrow(new RuntimeException("Hibernate initialization failed"));
 
-            when(userRepository.findAll()).thenReturn(List.of(user));
+            when(userRepository.findAllWithBills()).thenReturn(List.of(user));
 
             RuntimeException exception = assertThrows(RuntimeException.class,
                     () -> userService.getAllUsers());
 
             assertEquals("Hibernate initialization failed", exception.getMessage());
-            verify(userRepository).findAll();
+            verify(userRepository).findAllWithBills();
             verify(userMapper, never()).toDto(any());
         }
     }
@@ -122,14 +130,14 @@ class UserServiceImplTest {
         try (MockedStatic<Hibernate> mockHibernate = mockStatic(Hibernate.class)) {
             mockHibernate.when(() -> Hibernate.initialize(any())).thenAnswer(invocation -> null);
 
-            when(userRepository.findAll()).thenReturn(List.of(user));
+            when(userRepository.findAllWithBills()).thenReturn(List.of(user));
             when(userMapper.toDto(user)).thenThrow(new RuntimeException("Mapping failed"));
 
             RuntimeException exception = assertThrows(RuntimeException.class,
                     () -> userService.getAllUsers());
 
             assertEquals("Mapping failed", exception.getMessage());
-            verify(userRepository).findAll();
+            verify(userRepository).findAllWithBills();
             verify(userMapper).toDto(user);
         }
     }
@@ -278,6 +286,7 @@ class UserServiceImplTest {
 
         verify(userRepository).findById(1L);
         verify(userRepository).deleteById(1L);
+        verify(rollupService).deleteForUser(1L);
         verify(cache).clearForUser(1L);
     }
 
@@ -0,0 +1,167 @@
+package com.example.financery.service.impl;
+
+import com.example.financery.dto.VisitStatsDtoResponse;
+import com.example.financery.exception.InvalidInputException;
+import com.example.financery.model.VisitCounter;
+import com.example.financery.repository.VisitCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VisitCounterServiceImplTest {
+
+    private static final String GET_ALL = "GET /users/get-all-users";
+    private static final String CREATE = "POST /transactions/create";
+
+    @Mock
+    private VisitCounterRepository visitCounterRepository;
+
+    private VisitCounterServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new VisitCounterServiceImpl(visitCounterRepository, 10_000);
+    }
+
+    private static VisitCounter row(String endpoint, long userId, long visits) {
+        VisitCounter row = new VisitCounter();
+        row.setEndpoint(endpoint);
+        row.setUserId(userId);
+        row.setVisits(visits);
+        return row;
+    }
+
+    @Test
+    void record_concurrentIncrementsAreNotLost() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                pool.execute(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        service.record(CREATE, 1L);
+                        if (j % 1000 == 0) {
+                            service.rollWindows();
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(40_000, service.getCount(CREATE));
+        assertEquals(40_000, service.getTop("1m", 1, null).get(0).getLastMinute());
+    }
+
+    @Test
+    void load_addsPersistedTotalsWithoutWindows() {
+        when(visitCounterRepository.findAll()).thenReturn(List.of(row(GET_ALL, 0, 100)));
+        service.load();
+        service.record(GET_ALL, null);
+
+        VisitStatsDtoResponse stats = service.getEndpointStats().get(0);
+
+        assertEquals(101, stats.getTotal());
+        assertEquals(1, stats.getLastMinute());
+        assertEquals(1, stats.getLastHour());
+    }
+
+    @Test
+    void getEndpointStats_sumsUsersAndSortsByTotal() {
+        service.record(GET_ALL, null);
+        service.record(CREATE, 1L);
+        service.record(CREATE, 2L);
+        service.record(CREATE, 2L);
+
+        List<VisitStatsDtoResponse> stats = service.getEndpointStats();
+
+        assertEquals(List.of(CREATE, GET_ALL),
+                stats.stream().map(VisitStatsDtoResponse::getEndpoint).toList());
+        assertEquals(3, stats.get(0).getTotal());
+        assertNull(stats.get(0).getUserId());
+        assertEquals(4, service.getCount(null));
+    }
+
+    @Test
+    void getTop_filtersByEndpointAndLimits() {
+        service.record(CREATE, 1L);
+        service.record(CREATE, 2L);
+        service.record(CREATE, 2L);
+        service.record(GET_ALL, null);
+
+        List<VisitStatsDtoResponse> top = service.getTop("5m", 1, CREATE);
+
+        assertEquals(1, top.size());
+        assertEquals(2L, top.get(0).getUserId());
+        assertEquals(2, top.get(0).getLast5Minutes());
+    }
+
+    @Test
+    void record_overKeyLimit_foldsNewUsersIntoNoUser() {
+        service = new VisitCounterServiceImpl(visitCounterRepository, 2);
+        service.record(CREATE, 1L);
+        service.record(CREATE, 2L);
+        service.record(CREATE, 3L);
+        service.record(CREATE, 4L);
+        service.record(CREATE, 1L);
+
+        List<VisitStatsDtoResponse> top = service.getTop("total", 10, CREATE);
+
+        assertEquals(3, top.size());
+        assertEquals(2, top.stream().filter(stats -> stats.getUserId() == null)
+                .findFirst().orElseThrow().getTotal());
+        assertEquals(2, top.stream().filter(stats -> Long.valueOf(1L).equals(stats.getUserId()))
+                .findFirst().orElseThrow().getTotal());
+        assertEquals(5, service.getCount(CREATE));
+    }
+
+    @Test
+    void getTop_invalidArguments() {
+        assertThrows(InvalidInputException.class, () -> service.getTop("1d", 10, null));
+        assertThrows(InvalidInputException.class, () -> service.getTop("1h", 0, null));
+    }
+
+    @Test
+    void flush_writesOnlyNewVisits() {
+        when(visitCounterRepository.findAll()).thenReturn(List.of(row(GET_ALL, 0, 100)));
+        service.load();
+        service.record(CREATE, 5L);
+        service.record(CREATE, 5L);
+
+        assertEquals(1, service.flush());
+        assertEquals(0, service.flush());
+
+        verify(visitCounterRepository).add(CREATE, 5L, 2L);
+        verify(visitCounterRepository, never()).add(eq(GET_ALL), anyLong(), anyLong());
+    }
+
+    @Test
+    void flush_failedBatchIsRetried() {
+        service.record(CREATE, 5L);
+        doThrow(new RuntimeException("нет соединения"))
+                .doNothing()
+                .when(visitCounterRepository).add(anyString(), anyLong(), anyLong());
+
+        assertThrows(RuntimeException.class, () -> service.flush());
+        service.record(CREATE, 5L);
+        assertEquals(1, service.flush());
+
+        verify(visitCounterRepository).add(CREATE, 5L, 2L);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.financery.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailySegmentAppenderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_rollsOverOnNewDayAndSealsPreviousSegment() throws IOException {
+        LoggerContext context = context();
+        Path old = LogSegments.plainPath(dir, "app", LocalDate.now().minusDays(40));
+        Files.writeString(old, "устаревший сегмент\n");
+        DailySegmentAppender appender = appender(context, true);
+
+        LocalDate today = LocalDate.now();
+        appender.doAppend(event(context, today, "сегодня"));
+        appender.doAppend(event(context, today.plusDays(1), "завтра"));
+        // Запоздавшее событие прошлого дня остается в текущем сегменте
+        appender.doAppend(event(context, today, "опоздавшее"));
+        appender.stop();
+
+        assertFalse(Files.exists(old));
+        Path sealed = LogSegments.sealedPath(dir, "app", today);
+        assertTrue(Files.exists(sealed));
+        assertFalse(Files.exists(LogSegments.plainPath(dir, "app", today)));
+        LogSegmentStore store = new LogSegmentStore(dir.toString(), "app");
+        try (var in = store.openPlain(store.find(today))) {
+            assertEquals("сегодня\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals("завтра\nопоздавшее\n", Files.readString(
+                LogSegments.plainPath(dir, "app", today.plusDays(1))));
+    }
+
+    @Test
+    void append_withoutCompressionKeepsPlainSegment() throws IOException {
+        LoggerContext context = context();
+        DailySegmentAppender appender = appender(context, false);
+
+        LocalDate today = LocalDate.now();
+        appender.doAppend(event(context, today, "сегодня"));
+        appender.doAppend(event(context, today.plusDays(1), "завтра"));
+        appender.stop();
+
+        LogSegmentStore.Segment segment = new LogSegmentStore(dir.toString(), "app").find(today);
+        assertFalse(segment.sealed());
+        assertEquals("сегодня\n", Files.readString(segment.file()));
+    }
+
+    private static LoggerContext context() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        return context;
+    }
+
+    private DailySegmentAppender appender(LoggerContext context, boolean compress) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        DailySegmentAppender appender = new DailySegmentAppender();
+        appender.setContext(context);
+        appender.setDirectory(dir.toString());
+        appender.setPrefix("app");
+        appender.setCompress(compress);
+        appender.setMaxHistory(30);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private static LoggingEvent event(LoggerContext context, LocalDate day, String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerContext(context);
+        event.setLoggerName("test");
+        event.setLevel(Level.INFO);
+        event.setMessage(message);
+        event.setTimeStamp(day.atTime(12, 0).atZone(ZoneId.systemDefault())
+                .toInstant().toEpochMilli());
+        return event;
+    }
+}
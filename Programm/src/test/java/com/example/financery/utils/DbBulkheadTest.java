@@ -0,0 +1,77 @@
+package com.example.financery.utils;
+
+import com.example.financery.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbBulkheadTest {
+
+    // Конвертер строк в Duration, как в приложении
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(DbBulkhead.class);
+
+    @Test
+    void acquire_rejectsWhenAllPermitsTaken() {
+        DbBulkhead bulkhead = new DbBulkhead(2, 0, Duration.ofMillis(50));
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                bulkhead::acquire);
+
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(2, bulkhead.getInFlight());
+        assertEquals(1, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    void acquire_waitsForReleasedPermit() throws Exception {
+        DbBulkhead bulkhead = new DbBulkhead(1, 0, Duration.ofSeconds(5));
+        bulkhead.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            bulkhead.acquire();
+            acquired.countDown();
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        bulkhead.release();
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getInFlight());
+        assertEquals(0, bulkhead.getRejectedCount());
+        waiter.join();
+    }
+
+    @Test
+    void constructor_leavesReservedConnectionsForBackgroundWork() {
+        assertEquals(8, new DbBulkhead(10, 2, Duration.ofSeconds(1)).getMaxConcurrent());
+        assertEquals(1, new DbBulkhead(2, 5, Duration.ofSeconds(1)).getMaxConcurrent());
+    }
+
+    @Test
+    void bulkhead_notCreatedWithPlatformThreads() {
+        contextRunner.run(context ->
+                assertTrue(context.getBeansOfType(DbBulkhead.class).isEmpty()));
+    }
+
+    // Виртуальные потоки включаются только на Java 21+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void bulkhead_createdWithVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertEquals(1, context.getBeansOfType(DbBulkhead.class).size()));
+    }
+}
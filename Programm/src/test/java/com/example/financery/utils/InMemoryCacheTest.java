@@ -0,0 +1,61 @@
+package com.example.financery.utils;
+
+import com.example.financery.dto.TransactionDtoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCacheTest {
+
+    private final InMemoryCache cache = new InMemoryCache();
+
+    @Test
+    void get_returnsListThatCannotChangeCache() {
+        List<TransactionDtoResponse> source = new ArrayList<>(List.of(transaction(1L)));
+        cache.put(1L, source);
+        source.add(transaction(2L));
+
+        List<TransactionDtoResponse> cached = cache.get(1L);
+
+        assertEquals(1, cached.size());
+        assertThrows(UnsupportedOperationException.class, () -> cached.add(transaction(3L)));
+    }
+
+    @Test
+    void updateAndRemove_replaceListWithoutChangingEarlierReads() {
+        cache.put(1L, List.of(transaction(1L), transaction(2L)));
+        List<TransactionDtoResponse> before = cache.get(1L);
+
+        cache.updateTransaction(1L, transaction(3L));
+        cache.removeTransaction(1L, 1L);
+
+        assertEquals(List.of(1L, 2L), ids(before));
+        assertEquals(List.of(2L, 3L), ids(cache.get(1L)));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedUser() {
+        cache.put(1L, List.of());
+        cache.put(2L, List.of());
+        cache.put(3L, List.of());
+        cache.get(1L);
+
+        cache.put(4L, List.of());
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    private static List<Long> ids(List<TransactionDtoResponse> transactions) {
+        return transactions.stream().map(TransactionDtoResponse::getId).toList();
+    }
+
+    private static TransactionDtoResponse transaction(long id) {
+        TransactionDtoResponse transaction = new TransactionDtoResponse();
+        transaction.setId(id);
+        return transaction;
+    }
+}
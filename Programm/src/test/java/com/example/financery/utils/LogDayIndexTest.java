@@ -0,0 +1,119 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogDayIndexTest {
+
+    private static final LocalDate APRIL_27 = LocalDate.of(2025, 4, 27);
+    private static final LocalDate APRIL_28 = LocalDate.of(2025, 4, 28);
+
+    @TempDir
+    Path dir;
+
+    private Path logFile;
+
+    @BeforeEach
+    void setUp() {
+        logFile = dir.resolve("app.log");
+    }
+
+    @Test
+    void regionsFor_returnsOnlyLinesOfDay() throws IOException {
+        write(logFile,
+                line("27-04-2025 23:59:59.000", "последняя запись дня"),
+                line("28-04-2025 00:00:00.001", "ошибка"),
+                "java.lang.IllegalStateException: стек\n",
+                "\tat com.example.Foo.bar(Foo.java:1)\n",
+                line("28-04-2025 10:00:00.000", "еще запись"),
+                line("29-04-2025 00:00:00.000", "следующий день"));
+
+        LogDayIndex index = new LogDayIndex(logFile.toString(), 3, 2, 64);
+
+        assertEquals(read(index, APRIL_28), String.join("",
+                line("28-04-2025 00:00:00.001", "ошибка"),
+                "java.lang.IllegalStateException: стек\n",
+                "\tat com.example.Foo.bar(Foo.java:1)\n",
+                line("28-04-2025 10:00:00.000", "еще запись")));
+        assertTrue(index.regionsFor(LocalDate.of(2025, 5, 1)).isEmpty());
+    }
+
+    @Test
+    void refresh_indexesAppendedLinesAndSkipsPartialLine() throws IOException {
+        write(logFile, line("28-04-2025 09:00:00.000", "первая"));
+        LogDayIndex index = new LogDayIndex(logFile.toString(), 3, 2, 64);
+        assertEquals(1, index.regionsFor(APRIL_28).size());
+
+        Files.writeString(logFile, line("28-04-2025 09:30:00.000", "вторая")
+                + "28-04-2025 09:31:00.000 [main] INFO  незаконченная", StandardOpenOption.APPEND);
+
+        assertEquals(line("28-04-2025 09:00:00.000", "первая")
+                + line("28-04-2025 09:30:00.000", "вторая"), read(index, APRIL_28));
+    }
+
+    @Test
+    void regionsFor_coversRotatedFilesInOrder() throws IOException {
+        write(dir.resolve("app.2.log"), line("27-04-2025 10:00:00.000", "старый"));
+        write(dir.resolve("app.1.log"),
+                line("27-04-2025 12:00:00.000", "вчера"),
+                line("28-04-2025 08:00:00.000", "утро"));
+        write(logFile, line("28-04-2025 12:00:00.000", "день"));
+
+        LogDayIndex index = new LogDayIndex(logFile.toString(), 3, 2, 64);
+
+        assertEquals(line("28-04-2025 08:00:00.000", "утро")
+                + line("28-04-2025 12:00:00.000", "день"), read(index, APRIL_28));
+        assertEquals(line("27-04-2025 10:00:00.000", "старый")
+                + line("27-04-2025 12:00:00.000", "вчера"), read(index, APRIL_27));
+    }
+
+    @Test
+    void refresh_followsRotatedFileByContent() throws IOException {
+        write(logFile, line("28-04-2025 08:00:00.000", "до ротации"));
+        LogDayIndex index = new LogDayIndex(logFile.toString(), 3, 2, 64);
+        index.refresh();
+
+        Files.move(logFile, dir.resolve("app.1.log"));
+        write(logFile, line("28-04-2025 09:00:00.000", "после ротации"));
+
+        List<LogDayIndex.Region> regions = index.regionsFor(APRIL_28);
+        assertEquals(2, regions.size());
+        assertEquals(dir.resolve("app.1.log"), regions.get(0).file());
+        assertEquals(logFile, regions.get(1).file());
+    }
+
+    @Test
+    void index_isPersistedNextToLog() throws IOException {
+        write(logFile, line("28-04-2025 08:00:00.000", "запись"));
+        new LogDayIndex(logFile.toString(), 3, 2, 64).refresh();
+
+        assertTrue(Files.exists(dir.resolve("app.log.idx")));
+        LogDayIndex reopened = new LogDayIndex(logFile.toString(), 3, 2, 64);
+        assertEquals(line("28-04-2025 08:00:00.000", "запись"), read(reopened, APRIL_28));
+    }
+
+    private String read(LogDayIndex index, LocalDate day) throws IOException {
+        Path target = Files.createTempFile(dir, "export", ".log");
+        index.copyRegions(index.regionsFor(day), target);
+        return Files.readString(target, StandardCharsets.UTF_8);
+    }
+
+    private static String line(String timestamp, String message) {
+        return timestamp + " [main] INFO  com.example.financery.Test - " + message + "\n";
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.writeString(file, String.join("", lines), StandardCharsets.UTF_8);
+    }
+}
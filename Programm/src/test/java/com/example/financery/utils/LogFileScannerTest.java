@@ -0,0 +1,105 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogFileScannerTest {
+
+    @TempDir
+    Path dir;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void scan_smallChunksMatchSingleChunk() throws IOException {
+        Path file = dir.resolve("app.1.log");
+        Files.writeString(file, generate(2000), StandardCharsets.UTF_8);
+        long size = Files.size(file);
+
+        LogFileScanner.ScanResult expected = new LogFileScanner(pool, Integer.MAX_VALUE)
+                .scan(file, 0, size, false, LogFileScanner.NO_DAY);
+        LogFileScanner.ScanResult mapped = new LogFileScanner(pool, 97)
+                .scan(file, 0, size, true, LogFileScanner.NO_DAY);
+        LogFileScanner.ScanResult read = new LogFileScanner(pool, 131)
+                .scan(file, 0, size, false, LogFileScanner.NO_DAY);
+
+        assertTrue(expected.runs().size() > 1);
+        assertEquals(expected, mapped);
+        assertEquals(expected, read);
+        assertEquals(size, expected.scannedTo());
+    }
+
+    @Test
+    void scan_leadingContinuationUsesCarriedDay() throws IOException {
+        Path file = dir.resolve("app.log");
+        Files.writeString(file, "\tat com.example.Foo.bar(Foo.java:1)\n"
+                + "28-04-2025 00:00:00.000 [main] INFO  Test - запись\n"
+                + "28-04-2025 00:00:01.000 [main] INFO  Test - незаконч", StandardCharsets.UTF_8);
+        long carry = LocalDate.of(2025, 4, 27).toEpochDay();
+
+        LogFileScanner.ScanResult result = new LogFileScanner(pool, 16)
+                .scan(file, 0, Files.size(file), false, carry);
+
+        List<LogFileScanner.DayRun> runs = result.runs();
+        assertEquals(2, runs.size());
+        assertEquals(carry, runs.get(0).day());
+        assertEquals(LocalDate.of(2025, 4, 28).toEpochDay(), runs.get(1).day());
+        assertEquals(runs.get(1).end(), result.scannedTo());
+        assertTrue(result.scannedTo() < Files.size(file));
+    }
+
+    @Test
+    void scan_noCompleteLine_returnsStartPosition() throws IOException {
+        Path file = dir.resolve("app.log");
+        Files.writeString(file, "28-04-2025 00:00:00.000 без перевода строки");
+
+        LogFileScanner.ScanResult result = new LogFileScanner(pool, 16)
+                .scan(file, 0, Files.size(file), false, LogFileScanner.NO_DAY);
+
+        assertTrue(result.runs().isEmpty());
+        assertEquals(0, result.scannedTo());
+    }
+
+    private String generate(int lines) {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        LocalDate day = LocalDate.of(2025, 4, 1);
+        for (int i = 0; i < lines; i++) {
+            if (random.nextInt(100) == 0) {
+                day = day.plusDays(1);
+            }
+            if (random.nextInt(10) == 0) {
+                builder.append("\tat com.example.Service.call(Service.java:")
+                        .append(i).append(")\n");
+            } else {
+                builder.append(String.format("%02d-%02d-%04d 12:00:00.000 [main] INFO  Test - ",
+                                day.getDayOfMonth(), day.getMonthValue(), day.getYear()))
+                        .append("x".repeat(random.nextInt(80))).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+}
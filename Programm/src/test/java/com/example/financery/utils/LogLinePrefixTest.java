@@ -0,0 +1,77 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogLinePrefixTest {
+
+    @Test
+    void indexOfNewline_matchesScalarSearch() {
+        Random random = new Random(7);
+        for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (int round = 0; round < 500; round++) {
+                byte[] bytes = new byte[1 + random.nextInt(64)];
+                for (int i = 0; i < bytes.length; i++) {
+                    // Много соседних значений: 0x09, 0x0A, 0x0B, 0x8A проверяют ложные совпадения
+                    int kind = random.nextInt(6);
+                    bytes[i] = switch (kind) {
+                        case 0 -> '\n';
+                        case 1 -> 0x0B;
+                        case 2 -> 0x09;
+                        case 3 -> (byte) 0x8A;
+                        default -> (byte) random.nextInt(256);
+                    };
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+                int from = random.nextInt(bytes.length);
+                assertEquals(scalar(bytes, from), LogLinePrefix.indexOfNewline(
+                        buffer, from, bytes.length));
+            }
+        }
+    }
+
+    @Test
+    void parseDay_readsOnlyLinePrefix() {
+        ByteBuffer line = buffer("28-04-2025 14:02:03.456 [main] ERROR Test - 29-04-2025");
+        assertEquals(LocalDate.of(2025, 4, 28).toEpochDay(),
+                LogLinePrefix.parseDay(line, 0, line.limit()));
+
+        ByteBuffer message = buffer("\tat Test - 28-04-2025");
+        assertEquals(LogLinePrefix.NO_DAY, LogLinePrefix.parseDay(message, 0, message.limit()));
+        ByteBuffer invalid = buffer("31-02-2025 00:00:00.000 [main]");
+        assertEquals(LogLinePrefix.NO_DAY, LogLinePrefix.parseDay(invalid, 0, invalid.limit()));
+        ByteBuffer shortLine = buffer("28-04");
+        assertEquals(LogLinePrefix.NO_DAY, LogLinePrefix.parseDay(shortLine, 0, shortLine.limit()));
+    }
+
+    @Test
+    void parseMillisOfDay_readsTimestamp() {
+        ByteBuffer line = buffer("28-04-2025 14:02:03.456 [main] ERROR Test");
+        assertEquals(((14 * 60 + 2) * 60 + 3) * 1000 + 456,
+                LogLinePrefix.parseMillisOfDay(line, 0, line.limit()));
+
+        ByteBuffer noTime = buffer("28-04-2025 кусок");
+        assertEquals(LogLinePrefix.NO_TIME,
+                LogLinePrefix.parseMillisOfDay(noTime, 0, noTime.limit()));
+    }
+
+    private static ByteBuffer buffer(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int scalar(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.financery.utils;
+
+import com.example.financery.dto.LogRecordDtoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogQueryReaderTest {
+
+    private static final String[] LEVELS = {"INFO ", "DEBUG", "WARN ", "ERROR"};
+
+    @TempDir
+    Path dir;
+
+    private final List<LogRecordDtoResponse> expected = new ArrayList<>();
+    private List<LogDayIndex.Region> regions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Запись каждые две секунды за сутки, у ошибок есть стек исключения
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 43_200; i++) {
+            int seconds = i * 2;
+            String timestamp = String.format("28-04-2025 %02d:%02d:%02d.%03d",
+                    seconds / 3600, seconds / 60 % 60, seconds % 60, i % 1000);
+            String level = LEVELS[i % LEVELS.length];
+            String thread = "exec-" + (i % 3);
+            String logger = i % 5 == 0
+                    ? "c.e.f.service.impl.TransactionServiceImpl"
+                    : "c.e.f.service.impl.BillServiceImpl";
+            String message = "событие " + i + " от 28-04-2025";
+            text.append(timestamp).append(" [").append(thread).append("] ").append(level)
+                    .append(' ').append(logger).append(" - ").append(message).append('\n');
+            if (level.equals("ERROR")) {
+                String stack = "java.lang.IllegalStateException: сбой\n\tat Test.run(Test.java:1)";
+                text.append(stack).append('\n');
+                message += "\n" + stack;
+            }
+            expected.add(new LogRecordDtoResponse(timestamp, thread, level.trim(), logger, message));
+        }
+        Path file = dir.resolve("app.log");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        regions = List.of(new LogDayIndex.Region(file, 0, Files.size(file)));
+    }
+
+    @Test
+    void read_filtersWindowLevelAndLogger() throws IOException {
+        int from = millis(14, 2);
+        int to = millis(14, 5);
+        List<LogRecordDtoResponse> result = new ArrayList<>();
+
+        int found = new LogQueryReader(from, to, "error", "TransactionServiceImpl", null, 1000)
+                .read(regions, result::add);
+
+        List<LogRecordDtoResponse> matching = expected.stream()
+                .filter(r -> inWindow(r, from, to))
+                .filter(r -> r.getLevel().equals("ERROR"))
+                .filter(r -> r.getLogger().contains("TransactionServiceImpl"))
+                .toList();
+        assertFalse(matching.isEmpty());
+        assertEquals(matching, result);
+        assertEquals(matching.size(), found);
+        assertTrue(result.get(0).getMessage().contains("\tat Test.run"));
+    }
+
+    @Test
+    void read_threadFilterAndLimit() throws IOException {
+        List<LogRecordDtoResponse> result = new ArrayList<>();
+
+        new LogQueryReader(millis(23, 0), millis(24, 0), null, null, "exec-2", 5)
+                .read(regions, result::add);
+
+        List<LogRecordDtoResponse> matching = expected.stream()
+                .filter(r -> inWindow(r, millis(23, 0), millis(24, 0)))
+                .filter(r -> r.getThread().equals("exec-2"))
+                .limit(5)
+                .toList();
+        assertEquals(matching, result);
+    }
+
+    @Test
+    void read_wholeDayWithoutFilters() throws IOException {
+        List<LogRecordDtoResponse> result = new ArrayList<>();
+
+        new LogQueryReader(0, millis(24, 0), null, null, null, Integer.MAX_VALUE)
+                .read(regions, result::add);
+
+        assertEquals(expected, result);
+    }
+
+    private static int millis(int hours, int minutes) {
+        return (hours * 60 + minutes) * 60_000;
+    }
+
+    private static boolean inWindow(LogRecordDtoResponse logRecord, int from, int to) {
+        String time = logRecord.getTimestamp().substring(11);
+        int millis = ((Integer.parseInt(time.substring(0, 2)) * 60
+                + Integer.parseInt(time.substring(3, 5))) * 60
+                + Integer.parseInt(time.substring(6, 8))) * 1000
+                + Integer.parseInt(time.substring(9, 12));
+        return millis >= from && millis < to;
+    }
+}
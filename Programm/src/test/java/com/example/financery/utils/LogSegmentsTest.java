@@ -0,0 +1,95 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSegmentsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void seal_writesGzipReadableByStandardDecoder() throws IOException {
+        String text = generate();
+        Path plain = LogSegments.plainPath(dir, "app", LocalDate.of(2025, 4, 28));
+        Files.writeString(plain, text, StandardCharsets.UTF_8);
+
+        Path sealed = LogSegments.seal(plain);
+
+        assertFalse(Files.exists(plain));
+        assertEquals(LogSegments.sealedPath(dir, "app", LocalDate.of(2025, 4, 28)), sealed);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(sealed))) {
+            assertEquals(text, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void readFooter_indexesHoursAndOpensOnlySelectedMembers() throws IOException {
+        String text = generate();
+        Path plain = dir.resolve("app-2025-04-28.log");
+        Files.writeString(plain, text, StandardCharsets.UTF_8);
+        Path sealed = LogSegments.seal(plain);
+
+        LogSegments.Footer footer = LogSegments.readFooter(sealed);
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(bytes.length, footer.plainLength());
+        assertEquals(3, footer.members().size());
+        assertEquals(0, footer.members().get(0).hour());
+        assertEquals(13, footer.members().get(1).hour());
+        assertEquals(23, footer.members().get(2).hour());
+
+        try (InputStream in = LogSegments.openMembers(sealed, footer, 1, 2)) {
+            String hour = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(hour.startsWith("28-04-2025 13:00:00.000"));
+            // Стек исключения остается в члене своей записи
+            assertTrue(hour.endsWith("\tat Test.run(Test.java:1)\n"));
+            assertEquals(footer.plainEnd(1) - footer.members().get(1).plainOffset(),
+                    hour.getBytes(StandardCharsets.UTF_8).length);
+        }
+        assertEquals(1, LogSegments.memberAt(footer, footer.members().get(1).plainOffset() + 5));
+    }
+
+    @Test
+    void seal_emptySegment() throws IOException {
+        Path plain = dir.resolve("app-2025-04-28.log");
+        Files.createFile(plain);
+
+        LogSegments.Footer footer = LogSegments.readFooter(LogSegments.seal(plain));
+
+        assertEquals(0, footer.plainLength());
+        assertTrue(footer.members().isEmpty());
+    }
+
+    @Test
+    void dayOf_parsesSegmentNames() {
+        assertEquals(LocalDate.of(2025, 4, 28),
+                LogSegments.dayOf(dir.resolve("app-2025-04-28.log"), "app"));
+        assertEquals(LocalDate.of(2025, 4, 28),
+                LogSegments.dayOf(dir.resolve("app-2025-04-28.log.gz"), "app"));
+        assertNull(LogSegments.dayOf(dir.resolve("app-2025-04-28.log123.tmp"), "app"));
+        assertNull(LogSegments.dayOf(dir.resolve("app.1.log"), "app"));
+    }
+
+    private static String generate() {
+        StringBuilder text = new StringBuilder();
+        for (int hour : new int[] {0, 13, 23}) {
+            for (int i = 0; i < 500; i++) {
+                text.append(String.format("28-04-2025 %02d:%02d:%02d.000 [main] INFO  Test - "
+                        + "запись %d%n", hour, i / 60 % 60, i % 60, i));
+            }
+            text.append("java.lang.IllegalStateException: сбой\n\tat Test.run(Test.java:1)\n");
+        }
+        return text.toString();
+    }
+}
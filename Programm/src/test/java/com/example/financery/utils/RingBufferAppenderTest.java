@@ -0,0 +1,149 @@
+package com.example.financery.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferAppenderTest {
+
+    private LoggerContext context;
+    private CollectingAppender sink;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        sink = new CollectingAppender();
+        sink.setContext(context);
+        sink.start();
+    }
+
+    @Test
+    void append_deliversAllEventsInPerThreadOrder() throws InterruptedException {
+        RingBufferAppender ring = ring(64, "BLOCK");
+        int threads = 4;
+        int perThread = 5000;
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = "producer-" + t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ring.doAppend(event(Level.DEBUG, String.valueOf(i)));
+                }
+            }, name);
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        ring.stop();
+
+        assertEquals(threads * perThread, sink.events.size());
+        assertEquals(0, ring.getDroppedCount());
+        Map<String, Integer> last = new HashMap<>();
+        for (ILoggingEvent event : sink.events) {
+            int value = Integer.parseInt(event.getMessage());
+            Integer previous = last.put(event.getThreadName(), value);
+            assertEquals(previous == null ? 0 : previous + 1, value);
+        }
+    }
+
+    @Test
+    void append_dropPolicyDropsOnlyLowLevelsWhenFull() throws InterruptedException {
+        RingBufferAppender ring = ring(4, "DROP");
+        sink.gate = new CountDownLatch(1);
+        // Фоновый поток забирает первое событие и останавливается на нем
+        ring.doAppend(event(Level.DEBUG, "first"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ring.getQueueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        for (int i = 0; i < 20; i++) {
+            ring.doAppend(event(Level.DEBUG, "debug-" + i));
+        }
+        assertTrue(ring.getDroppedCount() > 0);
+        assertTrue(ring.getQueueDepth() <= ring.getCapacity());
+
+        Thread warn = new Thread(() -> ring.doAppend(event(Level.WARN, "warn")));
+        warn.start();
+        warn.join(200);
+        // Предупреждение не отбрасывается, а ждет места в буфере
+        assertTrue(warn.isAlive());
+
+        sink.gate.countDown();
+        warn.join(TimeUnit.SECONDS.toMillis(5));
+        ring.stop();
+
+        long dropped = ring.getDroppedCount();
+        assertEquals(16, dropped);
+        assertEquals(22 - dropped, sink.events.size());
+        assertEquals("warn", sink.events.get(sink.events.size() - 1).getMessage());
+    }
+
+    @Test
+    void start_roundsCapacityToPowerOfTwo() {
+        RingBufferAppender ring = ring(100, "DROP");
+
+        assertEquals(128, ring.getCapacity());
+        ring.stop();
+    }
+
+    private RingBufferAppender ring(int capacity, String policy) {
+        RingBufferAppender ring = new RingBufferAppender();
+        ring.setContext(context);
+        ring.setName("ASYNC");
+        ring.setCapacity(capacity);
+        ring.setBatchSize(8);
+        ring.setOverflowPolicy(policy);
+        ring.setNeverDropLevel("WARN");
+        ring.addAppender(sink);
+        ring.start();
+        return ring;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerContext(context);
+        event.setLoggerName("test");
+        event.setLevel(level);
+        event.setMessage(message);
+        event.setTimeStamp(System.currentTimeMillis());
+        return event;
+    }
+
+    // Принимает события в фоновом потоке; gate задерживает первое событие
+    private static final class CollectingAppender extends AppenderBase<ILoggingEvent> {
+        private final List<ILoggingEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch gate;
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(event);
+        }
+    }
+}
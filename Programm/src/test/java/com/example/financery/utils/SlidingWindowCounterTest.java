@@ -0,0 +1,42 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long NOW = 1_760_000_000L;
+
+    @Test
+    void sum_coversWindowAndDropsOlderBuckets() {
+        SlidingWindowCounter window = new SlidingWindowCounter(Duration.ofMinutes(1), 60);
+        window.add(NOW, 3);
+        window.add(NOW + 30, 2);
+
+        assertEquals(5, window.sum(NOW + 59));
+        assertEquals(2, window.sum(NOW + 60));
+        assertEquals(0, window.sum(NOW + 90));
+    }
+
+    @Test
+    void add_reusesExpiredBucket() {
+        SlidingWindowCounter window = new SlidingWindowCounter(Duration.ofMinutes(5), 60);
+        window.add(NOW, 4);
+        // Через полный круг попадает в ту же ячейку и не складывается со старым значением
+        window.add(NOW + 300, 1);
+
+        assertEquals(1, window.sum(NOW + 300));
+    }
+
+    @Test
+    void sum_ignoresFutureBuckets() {
+        SlidingWindowCounter window = new SlidingWindowCounter(Duration.ofHours(1), 60);
+        window.add(NOW + 120, 7);
+
+        assertEquals(0, window.sum(NOW));
+        assertEquals(7, window.sum(NOW + 120));
+    }
+}
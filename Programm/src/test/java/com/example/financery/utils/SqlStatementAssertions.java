@@ -0,0 +1,45 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Проверка бюджета запросов к базе для тестов на настоящем DataSource
+ * (контекст Spring оборачивает его в SqlStatisticsDataSource): вызов не должен
+ * выполнить больше указанного числа выражений JDBC, иначе тест падает
+ * с фактическим числом запросов, строк и временем.
+ *
+ * <pre>
+ * List&lt;UserDtoResponse&gt; users = assertMaxStatements(1, userService::getAllUsers);
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(long max, ThrowingSupplier<T> call) {
+        try (SqlStatistics statistics = SqlStatistics.begin()) {
+            T result;
+            try {
+                result = call.get();
+            } catch (Throwable e) {
+                return fail("Вызов завершился исключением: " + e, e);
+            }
+            assertTrue(statistics.getStatements() <= max,
+                    () -> "Ожидалось не больше " + max + " запросов к базе, выполнено: "
+                            + statistics);
+            return result;
+        }
+    }
+
+    public static void assertMaxStatements(long max, Executable call) {
+        assertMaxStatements(max, () -> {
+            call.execute();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static com.example.financery.utils.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SqlStatisticsDataSourceTest {
+
+    private static final String SELECT = "SELECT id FROM user_table";
+
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement prepared = mock(PreparedStatement.class);
+    private final Statement statement = mock(Statement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SELECT)).thenReturn(prepared);
+        when(connection.createStatement()).thenReturn(statement);
+        when(prepared.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+    }
+
+    private static int readAll(DataSource dataSource) throws Exception {
+        int rows = 0;
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement(SELECT);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void countsStatementsAndRowsInOpenScope() throws Exception {
+        SqlStatisticsDataSource dataSource =
+                new SqlStatisticsDataSource(target, Duration.ofSeconds(1));
+
+        try (SqlStatistics statistics = SqlStatistics.begin()) {
+            assertEquals(3, readAll(dataSource));
+            try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+                s.executeUpdate("DELETE FROM tag_table WHERE id = 1");
+            }
+
+            assertEquals(2, statistics.getStatements());
+            assertEquals(3, statistics.getRows());
+        }
+        verify(resultSet).close();
+        verify(statement).executeUpdate(anyString());
+        assertNull(SqlStatistics.current());
+    }
+
+    @Test
+    void nestedScopesBothCount() throws Exception {
+        SqlStatisticsDataSource dataSource =
+                new SqlStatisticsDataSource(target, Duration.ofSeconds(1));
+
+        try (SqlStatistics outer = SqlStatistics.begin()) {
+            try (SqlStatistics inner = SqlStatistics.begin()) {
+                readAll(dataSource);
+                assertEquals(1, inner.getStatements());
+            }
+            try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+                s.execute("SELECT 1");
+            }
+
+            assertEquals(2, outer.getStatements());
+            assertSame(outer, SqlStatistics.current());
+        }
+    }
+
+    @Test
+    void slowStatementIsCountedWithoutScope() throws Exception {
+        SqlStatisticsDataSource dataSource =
+                new SqlStatisticsDataSource(target, Duration.ofNanos(1));
+        when(prepared.executeQuery()).thenAnswer(invocation -> {
+            Thread.sleep(2);
+            return resultSet;
+        });
+
+        readAll(dataSource);
+
+        assertEquals(1, dataSource.getSlowCount());
+        assertNull(SqlStatistics.current());
+    }
+
+    @Test
+    void assertMaxStatements_failsOverBudget() {
+        SqlStatisticsDataSource dataSource =
+                new SqlStatisticsDataSource(target, Duration.ZERO);
+
+        assertEquals(3, assertMaxStatements(1, () -> readAll(dataSource)));
+        AssertionFailedError e = assertThrows(AssertionFailedError.class,
+                () -> assertMaxStatements(1, () -> {
+                    readAll(dataSource);
+                    readAll(dataSource);
+                }));
+
+        assertTrue(e.getMessage().contains("выполнено: 2 запросов"), e.getMessage());
+        assertNull(SqlStatistics.current());
+    }
+
+    @Test
+    void connectionEqualityIsByProxy() throws Exception {
+        SqlStatisticsDataSource dataSource =
+                new SqlStatisticsDataSource(target, Duration.ZERO);
+        Connection first = dataSource.getConnection();
+
+        assertEquals(first, first);
+        assertNotEquals(first, dataSource.getConnection());
+        assertEquals(target, dataSource.getTargetDataSource());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.financery.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadResourceUsageTest {
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    @Test
+    void measuresAllocationAndCpuOfCurrentThread() {
+        ThreadResourceUsage usage = ThreadResourceUsage.start();
+
+        byte[][] chunks = new byte[4][];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new byte[MEGABYTE];
+        }
+        long sum = 0;
+        for (int i = 0; i < 5_000_000; i++) {
+            sum += i % 7;
+        }
+
+        assertEquals(4, chunks.length);
+        assertTrue(sum > 0);
+        assertTrue(usage.allocatedBytes() >= 4L * MEGABYTE, () -> "" + usage.allocatedBytes());
+        assertTrue(usage.cpuNanos() > 0);
+    }
+
+    @Test
+    void otherThreadGetsNoValue() throws Exception {
+        ThreadResourceUsage usage = ThreadResourceUsage.start();
+        AtomicLong allocated = new AtomicLong();
+        Thread other = new Thread(() -> allocated.set(usage.allocatedBytes()));
+        other.start();
+        other.join();
+
+        assertEquals(-1, allocated.get());
+        assertTrue(usage.allocatedBytes() >= 0);
+    }
+}
@@ -0,0 +1,49 @@
+-- Сравнение секционированной transaction_table с обычной таблицей на больших объемах.
+-- Запуск на пустой тестовой базе после миграций: psql -d FinancyDB -f transaction_partitioning.sql
+
+INSERT INTO user_table (name, email, balance)
+SELECT 'bench' || g, 'bench' || g || '@example.com', 0
+FROM generate_series(1, 1000) g;
+
+INSERT INTO bill_table (name, balance, user_id)
+SELECT 'bill', 0, u.id FROM user_table u;
+
+SELECT create_transaction_partitions(
+    (CURRENT_DATE - INTERVAL '5 years')::date, CURRENT_DATE);
+
+-- 5 млн транзакций, равномерно за последние пять лет
+INSERT INTO transaction_table (name, description, type, amount, date, user_id, bill_id)
+SELECT 'bench', '', g % 3 = 0, (g % 1000) + 1,
+       CURRENT_DATE - (g % 1826),
+       b.user_id, b.id
+FROM generate_series(1, 5000000) g
+JOIN bill_table b ON b.id = (SELECT MIN(id) FROM bill_table) + g % 1000;
+
+CREATE TABLE transaction_table_heap AS SELECT * FROM transaction_table;
+CREATE INDEX ON transaction_table_heap (user_id, date, id);
+ANALYZE transaction_table;
+ANALYZE transaction_table_heap;
+
+-- Выборка за месяц: ожидается обращение только к одной секции
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM transaction_table
+WHERE user_id = (SELECT MIN(id) FROM user_table)
+  AND date BETWEEN date_trunc('month', CURRENT_DATE)::date AND CURRENT_DATE;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM transaction_table_heap
+WHERE user_id = (SELECT MIN(id) FROM user_table)
+  AND date BETWEEN date_trunc('month', CURRENT_DATE)::date AND CURRENT_DATE;
+
+-- Выборка за год
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM transaction_table
+WHERE user_id = (SELECT MIN(id) FROM user_table)
+  AND date BETWEEN (CURRENT_DATE - INTERVAL '1 year')::date AND CURRENT_DATE;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM transaction_table_heap
+WHERE user_id = (SELECT MIN(id) FROM user_table)
+  AND date BETWEEN (CURRENT_DATE - INTERVAL '1 year')::date AND CURRENT_DATE;
+
+DROP TABLE transaction_table_heap;